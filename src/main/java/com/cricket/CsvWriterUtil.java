@@ -1,35 +1,172 @@
 package com.cricket;
 
-import java.io.FileWriter;
-
-import com.opencsv.CSVWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
+/**
+ * CSV output in the format opencsv's CSVWriter produced for this project:
+ * every field double-quoted, embedded quotes doubled, "\n" line ends,
+ * UTF-8. Files are byte-identical to what the opencsv-backed version wrote.
+ *
+ * Rows are formatted into a reusable Rows buffer — numbers are appended
+ * directly, without boxing or a String per cell — and encoded through a
+ * fixed byte buffer onto a FileChannel. Callers that build rows in
+ * parallel fill one Rows per partition and hand them to write() in order.
+ */
 public class CsvWriterUtil {
 
-    private CSVWriter writer;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private FileChannel channel;
+    private CharsetEncoder encoder;
+    private ByteBuffer buffer;
+    private final Rows line = new Rows();
 
     public void open(String fileName) throws Exception {
-        writer = new CSVWriter(new FileWriter(fileName));
+        channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        encoder = StandardCharsets.UTF_8.newEncoder();
+        buffer  = ByteBuffer.allocate(BUFFER_BYTES);
     }
 
     // Generic header (any number of columns)
-    public void writeHeader(String[] header) {
-        writer.writeNext(header);
+    public void writeHeader(String[] header) throws IOException {
+        line.clear();
+        for (String h : header) line.cell(h);
+        write(line.end());
     }
 
     // Generic row (any number of columns)
-    public void writeRow(Object... values) {
-
-        String[] row = new String[values.length];
+    public void writeRow(Object... values) throws IOException {
+        line.clear();
+        for (Object v : values) {
+            if      (v instanceof Double d)  line.cell(d.doubleValue());
+            else if (v instanceof Integer i) line.cell(i.intValue());
+            else if (v instanceof Long l)    line.cell(l.longValue());
+            else                             line.cell(String.valueOf(v));
+        }
+        write(line.end());
+    }
 
-        for (int i = 0; i < values.length; i++) {
-            row[i] = String.valueOf(values[i]);
+    /** Appends complete rows formatted by a Rows buffer. */
+    public void write(Rows rows) throws IOException {
+        CharBuffer in = CharBuffer.wrap(rows.chars);
+        while (true) {
+            CoderResult r = encoder.encode(in, buffer, false);
+            if (r.isOverflow()) drain();
+            else if (r.isUnderflow()) break;
+            else r.throwException();
         }
+    }
 
-        writer.writeNext(row);
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
     }
 
     public void close() throws Exception {
-        writer.close();
+        try {
+            encoder.encode(CharBuffer.allocate(0), buffer, true);
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // ── Row formatting ────────────────────────────────────────────────────
+
+    /**
+     * One or more rows of quoted cells in a growable char buffer. Not
+     * thread-safe; give each thread its own and clear() it to reuse.
+     */
+    public static class Rows {
+        private final StringBuilder chars = new StringBuilder(1024);
+        private boolean rowStarted;
+
+        public Rows clear() {
+            chars.setLength(0);
+            rowStarted = false;
+            return this;
+        }
+
+        public Rows cell(String value) {
+            open();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') chars.append('"');
+                chars.append(c);
+            }
+            return close();
+        }
+
+        public Rows cell(long value) {
+            open();
+            chars.append(value);
+            return close();
+        }
+
+        /** Same text as String.valueOf(value). */
+        public Rows cell(double value) {
+            open();
+            appendDouble(chars, value);
+            return close();
+        }
+
+        /** Ends the current row. */
+        public Rows end() {
+            chars.append('\n');
+            rowStarted = false;
+            return this;
+        }
+
+        public int length() { return chars.length(); }
+
+        private void open() {
+            if (rowStarted) chars.append(',');
+            chars.append('"');
+            rowStarted = true;
+        }
+
+        private Rows close() {
+            chars.append('"');
+            return this;
+        }
+    }
+
+    /**
+     * Appends Double.toString(v). Values on a 0.001 grid (everything that
+     * went through a round-to-3-places) are written digit by digit: for
+     * them the shortest round-tripping decimal is just the thousandths,
+     * trailing zeros dropped. Anything else takes the general path.
+     */
+    static void appendDouble(StringBuilder sb, double v) {
+        long k = Math.round(v * 1000.0);
+        if (k == 0 || k / 1000.0 != v || Math.abs(v) >= 1e7) {
+            sb.append(v);
+            return;
+        }
+        if (k < 0) {
+            sb.append('-');
+            k = -k;
+        }
+        sb.append(k / 1000).append('.');
+        int frac = (int) (k % 1000);
+        if (frac == 0) {
+            sb.append('0');
+            return;
+        }
+        sb.append((char) ('0' + frac / 100));
+        if (frac % 100 != 0) {
+            sb.append((char) ('0' + frac / 10 % 10));
+            if (frac % 10 != 0) sb.append((char) ('0' + frac % 10));
+        }
     }
-}
\ No newline at end of file
+}
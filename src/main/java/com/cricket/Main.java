@@ -8,6 +8,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -23,6 +24,8 @@ public class Main {
             "RLS", "LLS"
     };
 
+    private static final String[] HANDS = {"LHB", "RHB"};
+
     public static void main(String[] args) throws Exception {
 
         System.out.println("Starting Cricket Stats Engine...");
@@ -180,7 +183,7 @@ public class Main {
         }
 
         // Bowling: [hand Balls, hand Avg, hand SR, hand WPB, hand RPB] per hand
-        for (String hand : new String[]{"LHB", "RHB"}) {
+        for (String hand : HANDS) {
             header.add(hand + " Balls");
             header.add(hand + " Avg");
             header.add(hand + " SR");
@@ -194,77 +197,110 @@ public class Main {
         allPlayers.addAll(batterStats.keySet());
         allPlayers.addAll(bowlerStats.keySet());
 
-        for (String player : allPlayers) {
+        // Rows are built in parallel by partition and written in set order,
+        // so the file is the same whatever the thread count
+        List<String> players = new ArrayList<>(allPlayers);
+        int partitions = (players.size() + SHEET_PARTITION - 1) / SHEET_PARTITION;
+        List<CsvWriterUtil.Rows> parts = IntStream.range(0, partitions).parallel()
+                .mapToObj(p -> {
+                    CsvWriterUtil.Rows rows = new CsvWriterUtil.Rows();
+                    int to = Math.min(players.size(), (p + 1) * SHEET_PARTITION);
+                    for (int i = p * SHEET_PARTITION; i < to; i++) {
+                        simSheetRow(rows, players.get(i), batterStats, bowlerStats, baselineCalculator);
+                    }
+                    return rows;
+                })
+                .toList();
+        for (CsvWriterUtil.Rows rows : parts) csv.write(rows);
 
-            List<Object> row = new ArrayList<>();
-            row.add(player);
+        csv.close();
+        System.out.println("sim_stats_nerfed.csv generated (with 1000-ball confidence nerf)");
+    }
 
-            double sharedWPBBaseline = baselineCalculator.getOverallWicketsPerBall();
+    private static final int SHEET_PARTITION = 256;
+    private static final Stats NO_STATS = new Stats();
 
-            Map<String, Stats> batMap = batterStats.getOrDefault(player, new HashMap<>());
-            Map<String, Stats> bowlMap = bowlerStats.getOrDefault(player, new HashMap<>());
+    private static void simSheetRow(CsvWriterUtil.Rows row, String player,
+                                    Map<String, Map<String, Stats>> batterStats,
+                                    Map<String, Map<String, Stats>> bowlerStats,
+                                    BaselineCalculator baselineCalculator) {
+        row.cell(player);
 
-            final int MIN_BAT_BALLS   = 100;
-            final int MIN_BOWL_BALLS  = 250;
-            final double BAT_PENALTY_WPB  = 0.25;  // batter penalty — worst dismissal rate
-            final double BOWL_PENALTY_WPB = 0.005; // bowler penalty — worst wicket-taking rate (sort descending)
+        double sharedWPBBaseline = baselineCalculator.getOverallWicketsPerBall();
 
-            // ── Batting columns: Avg, SR, Balls, WPB, RPB per role ────────
-            for (String role : ROLE_ORDER) {
-                Stats s = batMap.getOrDefault(role, new Stats());
+        Map<String, Stats> batMap = batterStats.getOrDefault(player, Map.of());
+        Map<String, Stats> bowlMap = bowlerStats.getOrDefault(player, Map.of());
 
-                row.add(s.getBalls() > 0 ? round(s.getBattingAverage()) : "");
-                row.add(s.getBalls() > 0 ? round(s.getBattingStrikeRate()) : "");
-                row.add(s.getBalls());
+        final int MIN_BAT_BALLS   = 100;
+        final int MIN_BOWL_BALLS  = 250;
+        final double BAT_PENALTY_WPB  = 0.25;  // batter penalty — worst dismissal rate
+        final double BOWL_PENALTY_WPB = 0.005; // bowler penalty — worst wicket-taking rate (sort descending)
 
-                if (s.getBalls() < MIN_BAT_BALLS) {
-                    row.add(BAT_PENALTY_WPB);
-                    row.add("");
-                } else {
-                    double batBaselineRPB = baselineCalculator.getBaselineRunsPerBallForRole(role);
-                    double batAdjRPB = s.getAdjustedRunsPerBall(batBaselineRPB);
-                    double batAdjWPB = s.getAdjustedWicketsPerBall(sharedWPBBaseline);
-                    row.add(round((batAdjWPB + sharedWPBBaseline) / 2.0));
-                    row.add(round((batAdjRPB + batBaselineRPB) / 2.0));
-                }
+        // ── Batting columns: Avg, SR, Balls, WPB, RPB per role ────────
+        for (String role : ROLE_ORDER) {
+            Stats s = batMap.getOrDefault(role, NO_STATS);
+
+            if (s.getBalls() > 0) row.cell(round(s.getBattingAverage())); else row.cell("");
+            if (s.getBalls() > 0) row.cell(round(s.getBattingStrikeRate())); else row.cell("");
+            row.cell(s.getBalls());
+
+            if (s.getBalls() < MIN_BAT_BALLS) {
+                row.cell(BAT_PENALTY_WPB);
+                row.cell("");
+            } else {
+                double batBaselineRPB = baselineCalculator.getBaselineRunsPerBallForRole(role);
+                double batAdjRPB = s.getAdjustedRunsPerBall(batBaselineRPB);
+                double batAdjWPB = s.getAdjustedWicketsPerBall(sharedWPBBaseline);
+                row.cell(round((batAdjWPB + sharedWPBBaseline) / 2.0));
+                row.cell(round((batAdjRPB + batBaselineRPB) / 2.0));
             }
+        }
 
-            // ── Bowling columns: Balls, Avg, SR, WPB, RPB per hand ────────
-            for (String hand : new String[]{"LHB", "RHB"}) {
-                Stats s = bowlMap.getOrDefault(hand, new Stats());
-
-                row.add(s.getBalls());
-                row.add(s.getBalls() > 0 ? round(s.getBowlingAverage()) : "");
-                row.add(s.getBalls() > 0 ? round(s.getBowlingStrikeRate()) : "");
-
-                if (s.getBalls() < MIN_BOWL_BALLS) {
-                    row.add(BOWL_PENALTY_WPB);
-                    row.add("");
-                } else {
-                    double bowlBaselineRPB = hand.equals("LHB")
-                            ? baselineCalculator.getLhbRunsPerBall()
-                            : baselineCalculator.getRhbRunsPerBall();
-                    double bowlAdjRPB = s.getAdjustedRunsPerBall(bowlBaselineRPB);
-                    double bowlAdjWPB = s.getAdjustedWicketsPerBall(sharedWPBBaseline);
-                    double medianBatRPB = bowlBaselineRPB;
-                    row.add(round((sharedWPBBaseline + bowlAdjWPB) / 2.0));
-                    row.add(round((medianBatRPB + bowlAdjRPB) / 2.0));
-                }
+        // ── Bowling columns: Balls, Avg, SR, WPB, RPB per hand ────────
+        for (String hand : HANDS) {
+            Stats s = bowlMap.getOrDefault(hand, NO_STATS);
+
+            row.cell(s.getBalls());
+            if (s.getBalls() > 0) row.cell(round(s.getBowlingAverage())); else row.cell("");
+            if (s.getBalls() > 0) row.cell(round(s.getBowlingStrikeRate())); else row.cell("");
+
+            if (s.getBalls() < MIN_BOWL_BALLS) {
+                row.cell(BOWL_PENALTY_WPB);
+                row.cell("");
+            } else {
+                double bowlBaselineRPB = hand.equals("LHB")
+                        ? baselineCalculator.getLhbRunsPerBall()
+                        : baselineCalculator.getRhbRunsPerBall();
+                double bowlAdjRPB = s.getAdjustedRunsPerBall(bowlBaselineRPB);
+                double bowlAdjWPB = s.getAdjustedWicketsPerBall(sharedWPBBaseline);
+                double medianBatRPB = bowlBaselineRPB;
+                row.cell(round((sharedWPBBaseline + bowlAdjWPB) / 2.0));
+                row.cell(round((medianBatRPB + bowlAdjRPB) / 2.0));
             }
-
-            csv.writeRow(row.toArray());
         }
-
-        csv.close();
-        System.out.println("sim_stats_nerfed.csv generated (with 1000-ball confidence nerf)");
+        row.end();
     }
 
     private static double round(double value) {
         return Math.round(value * 1000.0) / 1000.0;
     }
 
+    /** Receives buildStats() progress: a phase name and done / total within it. */
+    public interface ProgressListener {
+        void onProgress(String phase, int done, int total);
+    }
+
     public static StatsBundle buildStats() throws Exception {
+        return buildStats((phase, done, total) -> { });
+    }
 
+    /**
+     * Same as buildStats(), reporting each phase and every parsed match
+     * file to progress. Called on the loading thread.
+     */
+    public static StatsBundle buildStats(ProgressListener progress) throws Exception {
+
+        progress.onProgress("Loading player roles", 0, 1);
         PlayerRoleLoader roleLoader = new PlayerRoleLoader();
         roleLoader.load(com.cricket.engine.PathResolver.resolve("playerRoles.csv"));
 
@@ -274,19 +310,26 @@ public class Main {
         Map<String, Map<String, Stats>> bowlerStats = new HashMap<>();
 
         // Aggregate stats from JSON
-        Files.list(com.cricket.engine.PathResolver.resolvePath("matches"))
-                .filter(p -> p.toString().endsWith(".json"))
-                .forEach(path -> processMatch(
-                        path.toFile(),
-                        mapper,
-                        roleLoader,
-                        batterStats,
-                        bowlerStats
-                ));
+        List<java.nio.file.Path> matchFiles;
+        try (var files = Files.list(com.cricket.engine.PathResolver.resolvePath("matches"))) {
+            matchFiles = files.filter(p -> p.toString().endsWith(".json")).toList();
+        }
+        for (int i = 0; i < matchFiles.size(); i++) {
+            progress.onProgress("Parsing matches", i, matchFiles.size());
+            processMatch(
+                    matchFiles.get(i).toFile(),
+                    mapper,
+                    roleLoader,
+                    batterStats,
+                    bowlerStats
+            );
+        }
+        progress.onProgress("Parsing matches", matchFiles.size(), matchFiles.size());
 
+        progress.onProgress("Computing baselines", 0, 1);
         BaselineCalculator baselineCalculator = new BaselineCalculator();
         baselineCalculator.compute(batterStats, bowlerStats);
 
         return new StatsBundle(batterStats, bowlerStats, baselineCalculator, roleLoader);
     }
-}
\ No newline at end of file
+}
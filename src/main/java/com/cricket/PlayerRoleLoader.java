@@ -1,8 +1,10 @@
 package com.cricket;
 
 import java.io.FileReader;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import com.opencsv.CSVReader;
 
@@ -45,4 +47,8 @@ public class PlayerRoleLoader {
     public boolean contains(String player){
         return batRoleMap.containsKey(player);
     }
+
+    public Set<String> getPlayers(){
+        return Collections.unmodifiableSet(batRoleMap.keySet());
+    }
 }
\ No newline at end of file
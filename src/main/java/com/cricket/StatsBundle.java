@@ -1,6 +1,11 @@
 package com.cricket;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 public class StatsBundle {
 
@@ -9,6 +14,8 @@ public class StatsBundle {
     public final BaselineCalculator baselineCalculator;
     public final PlayerRoleLoader roleLoader;
 
+    private String fingerprint;
+
     public StatsBundle(
             Map<String, Map<String, Stats>> batterStats,
             Map<String, Map<String, Stats>> bowlerStats,
@@ -20,4 +27,47 @@ public class StatsBundle {
         this.baselineCalculator = baselineCalculator;
         this.roleLoader = roleLoader;
     }
-}
\ No newline at end of file
+
+    /**
+     * Short hash of every player's balls / runs / dismissals and batting /
+     * bowling roles, so results cached against one snapshot of the match
+     * data or playerRoles.csv are not served after either changes.
+     * Computed once; the bundle is not modified after Main.buildStats().
+     */
+    public synchronized String fingerprint() {
+        if (fingerprint != null) return fingerprint;
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            digest(sha, "bat", batterStats);
+            digest(sha, "bowl", bowlerStats);
+            digestRoles(sha, roleLoader);
+            byte[] hash = sha.digest();
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) hex.append(String.format("%02x", hash[i]));
+            fingerprint = hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        return fingerprint;
+    }
+
+    private static void digestRoles(MessageDigest sha, PlayerRoleLoader roles) {
+        for (String player : new TreeSet<>(roles.getPlayers())) {
+            String line = "role|" + player + "|" + roles.getBatRole(player) + "|"
+                    + roles.getBowlRole(player) + "\n";
+            sha.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void digest(MessageDigest sha, String label, Map<String, Map<String, Stats>> stats) {
+        // Sorted, so the hash does not depend on HashMap order
+        for (Map.Entry<String, Map<String, Stats>> player : new TreeMap<>(stats).entrySet()) {
+            for (Map.Entry<String, Stats> role : new TreeMap<>(player.getValue()).entrySet()) {
+                Stats s = role.getValue();
+                String line = label + "|" + player.getKey() + "|" + role.getKey() + "|"
+                        + s.getBalls() + "|" + s.getRuns() + "|" + s.getDismissals() + "\n";
+                sha.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
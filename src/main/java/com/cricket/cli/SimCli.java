@@ -0,0 +1,767 @@
+package com.cricket.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.cricket.CsvWriterUtil;
+import com.cricket.Main;
+import com.cricket.StatsBundle;
+import com.cricket.engine.BallEngine;
+import com.cricket.engine.BestXISelector;
+import com.cricket.engine.BatterRecord;
+import com.cricket.engine.BowlerInfo;
+import com.cricket.engine.BowlerRecord;
+import com.cricket.engine.BowlingPlan;
+import com.cricket.engine.BowlingPlanOptimizer;
+import com.cricket.engine.BowlingRecommender;
+import com.cricket.engine.CheckpointedMonteCarlo;
+import com.cricket.engine.DistributedMonteCarlo;
+import com.cricket.engine.InningsEngine;
+import com.cricket.engine.InningsResult;
+import com.cricket.engine.LeagueSimulator;
+import com.cricket.engine.MatchConfig;
+import com.cricket.engine.MatchConfigCodec;
+import com.cricket.engine.MatchupTable;
+import com.cricket.engine.MonteCarloEngine;
+import com.cricket.engine.OutcomeSurrogate;
+import com.cricket.engine.PathResolver;
+import com.cricket.engine.PitchProfile;
+import com.cricket.engine.PitchRecommender;
+import com.cricket.engine.PitchSensitivity;
+import com.cricket.engine.PlayerRecord;
+import com.cricket.engine.ScenarioGridRunner;
+import com.cricket.engine.ScoreHistogram;
+import com.cricket.engine.SeriesSimulator;
+import com.cricket.engine.SimColumnStore;
+import com.cricket.engine.SimRecordSink;
+import com.cricket.engine.StatsExporter;
+import com.cricket.engine.TeamDatabase;
+import com.cricket.engine.TestMatchEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Headless entry point for batch runs on machines without a display.
+ *
+ * Only engine classes are used here — nothing under javafx is loaded
+ * (MatchConfig.primaryStage stays null and is never resolved), so the
+ * JVM starts fast and small enough to fan out many runs at once.
+ *
+ * Usage:
+ *   SimCli mc     [match options] --sims N [--seed S]
+ *                 [--workers N [--spool DIR] | --checkpoint FILE | --records FILE] [--out FILE ...]
+ *   SimCli match  [match options] [--seed S] [--out FILE ...]
+ *   SimCli resume --checkpoint FILE [--out FILE ...]
+ *   SimCli train-surrogate [--samples N] [--sims N] [--seed S] [--out FILE]
+ *   SimCli query  --store DIR [--records FILE] [--where COL:MIN:MAX ...] [--by COL]
+ *   SimCli series [match options] --venue NAME[:PITCH] ... --series N [--seed S] [--out FILE.xlsx]
+ *   SimCli league --league FILE --seasons N [--seed S] [--out FILE.xlsx]
+ *   SimCli grid   [match options] --grid FILE --sims N [--seed S] --out FILE.csv
+ *   SimCli optimize-plan [match options] --side a|b --budget SECONDS --out plan.json
+ *   SimCli best-xi --squad LIST --keepers LIST --opponent NAME --opponent-xi LIST
+ *                  [--opponent-plan FILE] [--pitch ...] [--team NAME] [--sims N]
+ *                  [--shortlist N] [--seed S] [--out FILE]
+ *   SimCli pitch-sensitivity [match options] [--sims N] [--step X] [--seed S]
+ *
+ * Match options (later ones override --config):
+ *   --config FILE              whole match in MatchConfigCodec JSON
+ *   --team-a NAME --xi-a LIST  LIST = comma-separated names, or @file with one per line
+ *   --team-b NAME --xi-b LIST
+ *   --plan-a FILE              Team A's bowling plan, BowlingPlan.toJson() format
+ *   --plan-b FILE
+ *   --pitch G,D,B,F,BD         green, dry, bounce, flat, boundary — or a JSON file
+ *   --captain rules|lookahead  declarations / follow-on by nested simulation (mc only)
+ *
+ * --out picks the format from the extension: .csv, .json, or .xlsx (mc/resume only).
+ * --records writes one SimRecordSink record per simulation, and an .xlsx output
+ * then gets a Simulations sheet with one row per record. It needs an
+ * in-process run, so it is rejected with --workers or --checkpoint.
+ * series plays one Test per --venue in order (PITCH as for --pitch, default
+ * the match pitch). league reads { "teams": [{ "name", "xi", "plan", "pitch" }],
+ * "legs", "matchesPerFixture", "points": { "win", "draw", "loss" } }.
+ * grid sweeps ScenarioGridRunner over { "pitches": [{ "label", "pitch" }],
+ * "plans": [{ "label", "teamA", "teamB" }], "xis": [{ "label", "teamA", "teamB" }] },
+ * the match options giving the base for any dimension left out.
+ * optimize-plan refines the auto-fill plan of the given bowling side with
+ * BowlingPlanOptimizer and writes it in BowlingPlan.toJson() form (--plan-a/-b).
+ * best-xi ranks XIs from a 15-18 player squad with BestXISelector; --out
+ * writes the winner one name per line, ready for --xi-a @FILE.
+ * pitch-sensitivity prints how far Team A's win% moves per 0.1 of each
+ * pitch dimension around the match pitch (PitchSensitivity).
+ * query builds the SimColumnStore in --store from --records first if given.
+ * train-surrogate writes OutcomeSurrogate JSON, by default where the GUI looks for it.
+ */
+public class SimCli {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) {
+        if (args.length == 0) usage(null);
+        Map<String, List<String>> opts = parse(Arrays.copyOfRange(args, 1, args.length));
+        try {
+            switch (args[0]) {
+                case "mc"     -> runMonteCarlo(opts);
+                case "match"  -> runMatch(opts);
+                case "resume" -> runResume(opts);
+                case "train-surrogate" -> runTrainSurrogate(opts);
+                case "query"  -> runQuery(opts);
+                case "series" -> runSeries(opts);
+                case "league" -> runLeague(opts);
+                case "grid"   -> runGrid(opts);
+                case "optimize-plan" -> runOptimizePlan(opts);
+                case "best-xi" -> runBestXI(opts);
+                case "pitch-sensitivity" -> runPitchSensitivity(opts);
+                default       -> usage("Unknown command: " + args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Run failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    // ── Commands ──────────────────────────────────────────────────────────
+
+    private static void runMonteCarlo(Map<String, List<String>> opts) throws Exception {
+        if (opts.containsKey("records") && (opts.containsKey("workers") || opts.containsKey("checkpoint"))) {
+            throw new IllegalArgumentException("--records cannot be combined with --workers or --checkpoint");
+        }
+        MatchConfig config = buildConfig(opts);
+        int sims = Integer.parseInt(required(opts, "sims"));
+        long seed = opts.containsKey("seed") ? Long.parseLong(one(opts, "seed")) : new Random().nextLong();
+        Consumer<Integer> progress = progress(sims);
+
+        long t0 = System.currentTimeMillis();
+        MonteCarloEngine.SimResult res;
+        if (opts.containsKey("workers")) {
+            boolean tempSpool = !opts.containsKey("spool");
+            Path spool = tempSpool ? Files.createTempDirectory("mc-spool") : Path.of(one(opts, "spool"));
+            try {
+                res = DistributedMonteCarlo.run(config, sims, seed,
+                        Integer.parseInt(one(opts, "workers")), spool, progress);
+            } finally {
+                if (tempSpool) deleteTree(spool);
+            }
+        } else {
+            StatsBundle bundle = Main.buildStats();
+            if (opts.containsKey("checkpoint")) {
+                res = CheckpointedMonteCarlo.run(config, sims, seed, bundle,
+                        Path.of(one(opts, "checkpoint")), progress);
+            } else if (opts.containsKey("records")) {
+                try (SimRecordSink records = new SimRecordSink(
+                        Path.of(one(opts, "records")), config, seed)) {
+                    res = MonteCarloEngine.runRange(config, 0, sims, bundle,
+                            MatchupTable.compile(bundle, config), seed, records, progress);
+                }
+            } else {
+                res = MonteCarloEngine.run(config, sims, bundle,
+                        MatchupTable.compile(bundle, config), seed, progress);
+            }
+        }
+        printSummary(config, res, seed, System.currentTimeMillis() - t0);
+        writeSimOutputs(opts, config, res, opts.containsKey("records") ? Path.of(one(opts, "records")) : null);
+    }
+
+    private static void runResume(Map<String, List<String>> opts) throws Exception {
+        Path checkpoint = Path.of(required(opts, "checkpoint"));
+        CheckpointedMonteCarlo.Checkpoint cp = CheckpointedMonteCarlo.Checkpoint.load(checkpoint);
+        MatchConfig config = MatchConfigCodec.fromJson(cp.configJson);
+        System.out.println("Resuming: " + cp.simsDone() + " / " + cp.simCount + " sims already done");
+
+        long t0 = System.currentTimeMillis();
+        MonteCarloEngine.SimResult res = CheckpointedMonteCarlo.resume(
+                checkpoint, Main.buildStats(), progress(cp.simCount));
+        printSummary(config, res, cp.seed, System.currentTimeMillis() - t0);
+        writeSimOutputs(opts, config, res, null);
+    }
+
+    private static void runTrainSurrogate(Map<String, List<String>> opts) throws Exception {
+        TeamDatabase db = new TeamDatabase();
+        db.load(PathResolver.resolve("playerRoles.csv"));
+        OutcomeSurrogate.Trainer trainer = new OutcomeSurrogate.Trainer(Main.buildStats(), db.getAll());
+        if (opts.containsKey("samples")) trainer.samples(Integer.parseInt(one(opts, "samples")));
+        if (opts.containsKey("sims"))    trainer.simsPerSample(Integer.parseInt(one(opts, "sims")));
+        if (opts.containsKey("seed"))    trainer.seed(Long.parseLong(one(opts, "seed")));
+        Path out = opts.containsKey("out") ? Path.of(one(opts, "out")) : OutcomeSurrogate.defaultPath();
+
+        long t0 = System.currentTimeMillis();
+        OutcomeSurrogate model = trainer.train(System.out::println);
+        model.save(out);
+        System.out.printf("Wrote %s (%d configs x %d sims, %.1fs)%n", out,
+                model.samples, model.simsPerSample, (System.currentTimeMillis() - t0) / 1000.0);
+    }
+
+    private static void runQuery(Map<String, List<String>> opts) throws Exception {
+        Path dir = Path.of(required(opts, "store"));
+        SimColumnStore store = opts.containsKey("records")
+                ? SimColumnStore.build(Path.of(one(opts, "records")), dir)
+                : SimColumnStore.open(dir);
+
+        long t0 = System.nanoTime();
+        SimColumnStore.Selection sel = store.all();
+        for (String w : opts.getOrDefault("where", List.of())) {
+            // Player names may contain anything but the last two colons
+            int hi = w.lastIndexOf(':');
+            int lo = hi > 0 ? w.lastIndexOf(':', hi - 1) : -1;
+            if (lo <= 0) throw new IllegalArgumentException("--where needs COL:MIN:MAX: " + w);
+            sel.and(w.substring(0, lo), Integer.parseInt(w.substring(lo + 1, hi)),
+                    Integer.parseInt(w.substring(hi + 1)));
+        }
+
+        long n = sel.count();
+        System.out.printf("%d of %d simulations match%n", n, store.rows);
+        System.out.printf("  %s %.1f%%  %s %.1f%%  Draw %.1f%%%n",
+                store.teamAName, sel.share("outcome", SimRecordSink.OUTCOME_A_WIN) * 100,
+                store.teamBName, sel.share("outcome", SimRecordSink.OUTCOME_B_WIN) * 100,
+                sel.share("outcome", SimRecordSink.OUTCOME_DRAW) * 100);
+        if (opts.containsKey("by")) {
+            String by = one(opts, "by");
+            Map<Integer, Long> counts = sel.histogram(by);
+            Map<Integer, Double> wins = sel.groupShare(by, "outcome", SimRecordSink.OUTCOME_A_WIN);
+            System.out.printf("%n  %-20s %10s %12s%n", by, "sims", store.teamAName + " win");
+            for (Map.Entry<Integer, Long> e : counts.entrySet()) {
+                System.out.printf("  %-20d %10d %11.1f%%%n", e.getKey(), e.getValue(), wins.get(e.getKey()) * 100);
+            }
+        }
+        System.out.printf("(%.0f ms)%n", (System.nanoTime() - t0) / 1e6);
+    }
+
+    private static void runSeries(Map<String, List<String>> opts) throws Exception {
+        MatchConfig config = buildConfig(opts);
+        int count = Integer.parseInt(required(opts, "series"));
+        long seed = opts.containsKey("seed") ? Long.parseLong(one(opts, "seed")) : new Random().nextLong();
+        List<SeriesSimulator.Venue> venues = new ArrayList<>();
+        for (String v : opts.getOrDefault("venue", List.of())) {
+            // NAME, or NAME:PITCH with PITCH as for --pitch
+            int colon = v.indexOf(':');
+            venues.add(colon < 0
+                    ? new SeriesSimulator.Venue(v, config.pitchProfile)
+                    : new SeriesSimulator.Venue(v.substring(0, colon), readPitch(v.substring(colon + 1))));
+        }
+        if (venues.isEmpty()) throw new IllegalArgumentException("--venue is required (one per Test)");
+
+        long t0 = System.currentTimeMillis();
+        SeriesSimulator.SeriesResult r = new SeriesSimulator(Main.buildStats(), config, venues)
+                .seed(seed).run(count, progress(count));
+        System.out.printf("%n%s %.1f%%  |  Drawn %.1f%%  |  %s %.1f%%   (%d series, seed %d, %.1fs)%n",
+                r.teamAName, r.teamASeriesWinProb() * 100, r.seriesDrawProb() * 100,
+                r.teamBName, r.teamBSeriesWinProb() * 100, r.series, seed,
+                (System.currentTimeMillis() - t0) / 1000.0);
+        writeSheets(opts, StatsExporter.seriesSheets(r));
+    }
+
+    private static void runLeague(Map<String, List<String>> opts) throws Exception {
+        JsonNode spec = MAPPER.readTree(Files.readString(Path.of(required(opts, "league"))));
+        int seasons = Integer.parseInt(required(opts, "seasons"));
+        List<LeagueSimulator.Team> teams = new ArrayList<>();
+        for (JsonNode t : spec.path("teams")) {
+            List<String> xi = new ArrayList<>();
+            for (JsonNode n : t.path("xi")) xi.add(n.asText());
+            JsonNode plan = t.get("plan"), pitch = t.get("pitch");
+            teams.add(new LeagueSimulator.Team(t.path("name").asText(), xi,
+                    plan == null || plan.isNull() ? null : BowlingPlan.fromJson(plan),
+                    pitch == null || pitch.isNull() ? null : MatchConfigCodec.pitchFromJson(pitch)));
+        }
+        LeagueSimulator league = new LeagueSimulator(Main.buildStats(), teams);
+        if (spec.has("legs"))              league.legs(spec.get("legs").asInt());
+        if (spec.has("matchesPerFixture")) league.matchesPerFixture(spec.get("matchesPerFixture").asInt());
+        if (spec.has("points")) {
+            JsonNode p = spec.get("points");
+            league.pointsTable(new LeagueSimulator.PointsTable(
+                    p.path("win").asInt(), p.path("draw").asInt(), p.path("loss").asInt()));
+        }
+        long seed = opts.containsKey("seed") ? Long.parseLong(one(opts, "seed")) : new Random().nextLong();
+
+        long t0 = System.currentTimeMillis();
+        LeagueSimulator.LeagueResult r = league.seed(seed).run(seasons, System.out::println);
+        System.out.printf("%n%-20s %8s %8s%n", "Team", "Title", "Points");
+        for (String team : r.teams) {
+            System.out.printf("%-20s %7.1f%% %8.1f%n", team, r.titleProb(team) * 100, r.meanPoints(team));
+        }
+        System.out.printf("(%d seasons, seed %d, %.1fs)%n", seasons, seed, (System.currentTimeMillis() - t0) / 1000.0);
+        writeSheets(opts, StatsExporter.leagueSheets(r));
+    }
+
+    private static void runGrid(Map<String, List<String>> opts) throws Exception {
+        MatchConfig base = buildConfig(opts);
+        JsonNode spec = MAPPER.readTree(Files.readString(Path.of(required(opts, "grid"))));
+        int sims = Integer.parseInt(required(opts, "sims"));
+        long seed = opts.containsKey("seed") ? Long.parseLong(one(opts, "seed")) : new Random().nextLong();
+        String out = required(opts, "out");
+        if (!out.endsWith(".csv")) throw new IllegalArgumentException("grid output must be .csv: " + out);
+
+        ScenarioGridRunner grid = new ScenarioGridRunner(base);
+        for (JsonNode p : spec.path("pitches")) {
+            grid.addPitch(p.path("label").asText(), MatchConfigCodec.pitchFromJson(p.path("pitch")));
+        }
+        for (JsonNode p : spec.path("plans")) {
+            grid.addPlans(p.path("label").asText(), gridPlan(p.get("teamA"), base.teamABowlingPlan),
+                    gridPlan(p.get("teamB"), base.teamBBowlingPlan));
+        }
+        for (JsonNode x : spec.path("xis")) {
+            List<String> a = new ArrayList<>(), b = new ArrayList<>();
+            for (JsonNode n : x.path("teamA")) a.add(n.asText());
+            for (JsonNode n : x.path("teamB")) b.add(n.asText());
+            if (a.size() != 11 || b.size() != 11) {
+                throw new IllegalArgumentException("Grid XIs \"" + x.path("label").asText()
+                        + "\" need 11 players (" + a.size() + " / " + b.size() + ")");
+            }
+            grid.addXIs(x.path("label").asText(), a, b);
+        }
+
+        int total = grid.scenarios().size();
+        AtomicInteger done = new AtomicInteger();
+        long t0 = System.currentTimeMillis();
+        ScenarioGridRunner.ScenarioResult[][][] matrix = grid.run(Main.buildStats(), sims, seed, r ->
+                System.out.printf("  [%d / %d] %s  %s%n", done.incrementAndGet(), total, r.scenario.label,
+                        r.isFailed() ? "FAILED: " + r.error
+                                : String.format("%.1f%% / %.1f%% / %.1f%%",
+                                        r.teamAWinPct(), r.drawPct(), r.teamBWinPct())));
+        ScenarioGridRunner.writeCsv(matrix, out);
+        System.out.printf("Wrote %s (%d scenarios x %d sims, seed %d, %.1fs)%n",
+                out, total, sims, seed, (System.currentTimeMillis() - t0) / 1000.0);
+    }
+
+    /** A grid plan entry; null or absent keeps the base config's plan. */
+    private static BowlingPlan gridPlan(JsonNode n, BowlingPlan base) {
+        return n == null || n.isNull() ? base : BowlingPlan.fromJson(n);
+    }
+
+    private static void runOptimizePlan(Map<String, List<String>> opts) throws Exception {
+        MatchConfig config = buildConfig(opts);
+        String side = required(opts, "side");
+        if (!side.equals("a") && !side.equals("b")) throw new IllegalArgumentException("--side must be a or b");
+        boolean teamABowls = side.equals("a");
+        long budgetMillis = (long) (Double.parseDouble(required(opts, "budget")) * 1000);
+        String out = required(opts, "out");
+
+        // Roles as the allocation screen sees them
+        TeamDatabase db = new TeamDatabase();
+        db.load(PathResolver.resolve("playerRoles.csv"));
+        List<BowlerInfo> bowlers = new ArrayList<>();
+        for (String name : teamABowls ? config.teamAXI : config.teamBXI) {
+            PlayerRecord rec = db.findByName(name);
+            bowlers.add(new BowlerInfo(name, rec != null ? rec.getBowlRole() : ""));
+        }
+
+        StatsBundle bundle = Main.buildStats();
+        PitchProfile p = config.pitchProfile;
+        BowlingRecommender recommender = new BowlingRecommender(bundle.bowlerStats, bundle.baselineCalculator,
+                new PitchRecommender(p.getGreen(), p.getDry(), p.getBounce(), p.getFlat(), p.getBoundary()));
+
+        long t0 = System.currentTimeMillis();
+        BowlingPlanOptimizer.Result r = recommender.optimize(bowlers, config, teamABowls, bundle, budgetMillis);
+        Files.writeString(Path.of(out), r.plan.toJson());
+        System.out.printf("%s win %.1f%% -> %.1f%%  (gain %+.1f +/- %.1f points on held-out seeds)%n",
+                teamABowls ? config.teamAName : config.teamBName,
+                r.startWinProb * 100, r.bestWinProb * 100, r.gain() * 100, r.gainStdError * 100);
+        System.out.printf("Wrote %s (%d plans, %d rounds, %.1fs)%n", out, r.plansEvaluated, r.iterations,
+                (System.currentTimeMillis() - t0) / 1000.0);
+    }
+
+    private static void runBestXI(Map<String, List<String>> opts) throws Exception {
+        TeamDatabase db = new TeamDatabase();
+        db.load(PathResolver.resolve("playerRoles.csv"));
+        List<PlayerRecord> squad = new ArrayList<>();
+        for (String name : playerList(required(opts, "squad"))) {
+            PlayerRecord rec = db.findByName(name);
+            if (rec == null) throw new IllegalArgumentException("Unknown player in --squad: " + name);
+            squad.add(rec);
+        }
+        List<String> opponentXI = playerList(required(opts, "opponent-xi"));
+        if (opponentXI.size() != 11) {
+            throw new IllegalArgumentException("--opponent-xi needs 11 players (" + opponentXI.size() + ")");
+        }
+        PitchProfile pitch = opts.containsKey("pitch") ? readPitch(one(opts, "pitch")) : PitchProfile.neutral();
+        BowlingPlan opponentPlan = opts.containsKey("opponent-plan") ? readPlan(one(opts, "opponent-plan")) : null;
+
+        BestXISelector selector = new BestXISelector(Main.buildStats(), squad,
+                opts.containsKey("team") ? one(opts, "team") : "Squad",
+                required(opts, "opponent"), opponentXI, opponentPlan, pitch)
+                .keepers(playerList(required(opts, "keepers")));
+        if (opts.containsKey("sims"))      selector.simsPerXI(Integer.parseInt(one(opts, "sims")));
+        if (opts.containsKey("shortlist")) selector.shortlist(Integer.parseInt(one(opts, "shortlist")));
+        if (opts.containsKey("seed"))      selector.seed(Long.parseLong(one(opts, "seed")));
+
+        long t0 = System.currentTimeMillis();
+        List<BestXISelector.Candidate> ranked = selector.select(System.out::println);
+        if (ranked.isEmpty()) throw new IllegalArgumentException("No XI in the squad meets the constraints");
+        System.out.printf("%n%6s %6s %8s %8s  %s%n", "Win %", "Draw %", "Scored", "Conceded", "XI");
+        for (BestXISelector.Candidate c : ranked) {
+            System.out.printf("%6.1f %6.1f %8.0f %8.0f  %s%s%n", c.winProb * 100, c.drawProb * 100,
+                    c.runsScored, c.runsConceded, String.join(", ", c.xi), c.fromCache ? "  (cached)" : "");
+        }
+        System.out.printf("(%.1fs)%n", (System.currentTimeMillis() - t0) / 1000.0);
+        if (opts.containsKey("out")) {
+            // One name per line, in batting order — usable as --xi-a @FILE
+            Files.write(Path.of(one(opts, "out")), ranked.get(0).xi);
+            System.out.println("Wrote " + one(opts, "out"));
+        }
+    }
+
+    private static void runPitchSensitivity(Map<String, List<String>> opts) throws Exception {
+        MatchConfig config = buildConfig(opts);
+        PitchSensitivity sensitivity = new PitchSensitivity(Main.buildStats(), config);
+        if (opts.containsKey("sims")) sensitivity.sims(Integer.parseInt(one(opts, "sims")));
+        if (opts.containsKey("step")) sensitivity.step(Double.parseDouble(one(opts, "step")));
+        if (opts.containsKey("seed")) sensitivity.seed(Long.parseLong(one(opts, "seed")));
+
+        long t0 = System.currentTimeMillis();
+        PitchSensitivity.Report report = sensitivity.run(progress(opts.containsKey("sims")
+                ? Integer.parseInt(one(opts, "sims")) : 2000));
+        System.out.printf("%s win %.1f%% on the match pitch (%d sims)%n%n",
+                config.teamAName, report.baseWinProb * 100, report.sims);
+        System.out.printf("%-9s %6s %8s %8s %16s %6s%n", "Pitch", "Value", "Down %", "Up %", "Pts per 0.1", "Pairs");
+        for (PitchSensitivity.Sensitivity s : report.sensitivities) {
+            System.out.printf("%-9s %6.2f %8.1f %8.1f %8.2f +/- %4.2f %6d%n", s.dimension, s.baseValue,
+                    s.winProbDown * 100, s.winProbUp * 100, s.pointsPerTenth(),
+                    s.slopeStdError * 10, s.pairs);
+        }
+        System.out.printf("(%.1fs)%n", (System.currentTimeMillis() - t0) / 1000.0);
+    }
+
+    private static void runMatch(Map<String, List<String>> opts) throws Exception {
+        MatchConfig config = buildConfig(opts);
+        Random rng = opts.containsKey("seed") ? new Random(Long.parseLong(one(opts, "seed"))) : new Random();
+
+        StatsBundle bundle = Main.buildStats();
+        BallEngine ballEngine = new BallEngine(
+                bundle.batterStats, bundle.bowlerStats, bundle.baselineCalculator,
+                config.pitchProfile, MatchupTable.compile(bundle, config), rng);
+        InningsEngine inningsEngine = new InningsEngine(ballEngine, bundle.roleLoader, rng);
+        TestMatchEngine engine = new TestMatchEngine(inningsEngine, config.pitchProfile, rng);
+        engine.simulateMatch(config.teamAName, config.teamAXI,
+                config.teamBName, config.teamBXI,
+                config.teamABowlingPlan, config.teamBBowlingPlan);
+
+        for (String out : opts.getOrDefault("out", List.of())) {
+            if (out.endsWith(".json"))     writeMatchJson(engine, out);
+            else if (out.endsWith(".csv")) writeMatchCsv(engine, out);
+            else throw new IllegalArgumentException("match output must be .csv or .json: " + out);
+            System.out.println("Wrote " + out);
+        }
+    }
+
+    // ── Config assembly ───────────────────────────────────────────────────
+
+    private static MatchConfig buildConfig(Map<String, List<String>> opts) throws Exception {
+        MatchConfig c = opts.containsKey("config")
+                ? MatchConfigCodec.fromJson(Files.readString(Path.of(one(opts, "config"))))
+                : new MatchConfig();
+
+        if (opts.containsKey("team-a")) c.teamAName = one(opts, "team-a");
+        if (opts.containsKey("team-b")) c.teamBName = one(opts, "team-b");
+        if (opts.containsKey("xi-a"))   c.teamAXI   = playerList(one(opts, "xi-a"));
+        if (opts.containsKey("xi-b"))   c.teamBXI   = playerList(one(opts, "xi-b"));
+        if (opts.containsKey("plan-a")) c.teamABowlingPlan = readPlan(one(opts, "plan-a"));
+        if (opts.containsKey("plan-b")) c.teamBBowlingPlan = readPlan(one(opts, "plan-b"));
+        if (opts.containsKey("pitch"))  c.pitchProfile = readPitch(one(opts, "pitch"));
+        if (c.pitchProfile == null)     c.pitchProfile = PitchProfile.neutral();
+        if (opts.containsKey("captain")) {
+            String mode = one(opts, "captain");
+            if (!mode.equals("rules") && !mode.equals("lookahead")) {
+                throw new IllegalArgumentException("--captain must be rules or lookahead");
+            }
+            c.lookaheadCaptains = mode.equals("lookahead");
+        }
+
+        if (c.teamAName.isBlank() || c.teamBName.isBlank()) {
+            throw new IllegalArgumentException("Both team names are required (--team-a / --team-b or --config)");
+        }
+        if (c.teamAXI.size() != 11 || c.teamBXI.size() != 11) {
+            throw new IllegalArgumentException("Both XIs need 11 players ("
+                    + c.teamAXI.size() + " / " + c.teamBXI.size() + ")");
+        }
+        return c;
+    }
+
+    private static List<String> playerList(String arg) throws Exception {
+        List<String> out = new ArrayList<>();
+        List<String> raw = arg.startsWith("@")
+                ? Files.readAllLines(Path.of(arg.substring(1)))
+                : Arrays.asList(arg.split(","));
+        for (String s : raw) {
+            if (!s.isBlank()) out.add(s.trim());
+        }
+        return out;
+    }
+
+    private static BowlingPlan readPlan(String file) throws Exception {
+        return BowlingPlan.fromJson(Files.readString(Path.of(file)));
+    }
+
+    private static PitchProfile readPitch(String arg) throws Exception {
+        if (arg.endsWith(".json")) {
+            return MatchConfigCodec.pitchFromJson(MAPPER.readTree(Files.readString(Path.of(arg))));
+        }
+        String[] p = arg.split(",");
+        if (p.length != 5) {
+            throw new IllegalArgumentException("--pitch needs green,dry,bounce,flat,boundary");
+        }
+        return new PitchProfile(Double.parseDouble(p[0]), Double.parseDouble(p[1]),
+                Double.parseDouble(p[2]), Double.parseDouble(p[3]), Double.parseDouble(p[4]));
+    }
+
+    // ── Monte Carlo output ────────────────────────────────────────────────
+
+    private static void printSummary(MatchConfig c, MonteCarloEngine.SimResult r, long seed, long millis) {
+        System.out.printf("%n%s %d  |  Draw %d  |  %s %d   (%d sims, seed %d, %.1fs)%n",
+                c.teamAName, r.teamAWins, r.draws, c.teamBName, r.teamBWins,
+                r.total, seed, millis / 1000.0);
+        System.out.println("Top run scorer:   " + r.topRunScorer());
+        System.out.println("Top wicket taker: " + r.topWicketTaker());
+    }
+
+    /** records, if given, adds a per-simulation sheet to .xlsx outputs. */
+    private static void writeSimOutputs(Map<String, List<String>> opts, MatchConfig c,
+                                        MonteCarloEngine.SimResult r, Path records) throws Exception {
+        List<StatsExporter.Table> sheets = records != null
+                ? List.of(StatsExporter.simulationsSheet(records)) : List.of();
+        for (String out : opts.getOrDefault("out", List.of())) {
+            if (out.endsWith(".xlsx"))      StatsExporter.export(r, c.teamAName, c.teamBName, r.total, out, sheets);
+            else if (out.endsWith(".json")) writeSimJson(c, r, out);
+            else if (out.endsWith(".csv"))  writeSimCsv(r, out);
+            else throw new IllegalArgumentException("Output must be .csv, .json or .xlsx: " + out);
+            System.out.println("Wrote " + out);
+        }
+    }
+
+    /** Series and league results are written as workbooks of Tables. */
+    private static void writeSheets(Map<String, List<String>> opts, List<StatsExporter.Table> sheets)
+            throws Exception {
+        for (String out : opts.getOrDefault("out", List.of())) {
+            if (!out.endsWith(".xlsx")) throw new IllegalArgumentException("series / league output must be .xlsx: " + out);
+            StatsExporter.export(sheets, out);
+            System.out.println("Wrote " + out);
+        }
+    }
+
+    /** One row per player with batting and bowling averages over all simulations. */
+    private static void writeSimCsv(MonteCarloEngine.SimResult r, String path) throws Exception {
+        CsvWriterUtil csv = new CsvWriterUtil();
+        csv.open(path);
+        csv.writeHeader(new String[]{
+                "Player", "Bat Inns", "Runs", "Bat Avg", "Highest", "100s", "50s",
+                "P10", "Median", "P90",
+                "Bowl Inns", "Wickets", "Bowl Avg", "Economy", "Best", "5wi", "10wm"});
+        for (String p : players(r)) {
+            int inns   = r.batInnings.getOrDefault(p, 0);
+            long runs  = r.batRuns.getOrDefault(p, 0L);
+            ScoreHistogram dist = r.batRunsDist.get(p);
+            long wkts  = r.bowlWickets.getOrDefault(p, 0L);
+            long conc  = r.bowlRuns.getOrDefault(p, 0L);
+            long balls = r.bowlBalls.getOrDefault(p, 0L);
+            int[] best = r.bowlBest.get(p);
+            csv.writeRow(p, inns, runs,
+                    String.format("%.2f", inns == 0 ? 0.0 : runs / (double) inns),
+                    r.batHighest.getOrDefault(p, 0),
+                    r.batHundreds.getOrDefault(p, 0),
+                    r.batFifties.getOrDefault(p, 0),
+                    dist == null ? 0 : dist.percentile(10),
+                    dist == null ? 0 : dist.percentile(50),
+                    dist == null ? 0 : dist.percentile(90),
+                    r.bowlInnings.getOrDefault(p, 0), wkts,
+                    String.format("%.2f", wkts == 0 ? 0.0 : conc / (double) wkts),
+                    String.format("%.2f", balls == 0 ? 0.0 : conc * 6.0 / balls),
+                    best == null ? "" : best[0] + "/" + best[1],
+                    r.bowlFifers.getOrDefault(p, 0),
+                    r.bowlTenFor.getOrDefault(p, 0));
+        }
+        csv.close();
+    }
+
+    private static void writeSimJson(MatchConfig c, MonteCarloEngine.SimResult r, String path)
+            throws Exception {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.set("config", MAPPER.readTree(MatchConfigCodec.toJson(c)));
+        root.put("simulations", r.total);
+
+        ObjectNode outcomes = root.putObject("outcomes");
+        outcomes.put(c.teamAName, r.teamAWins);
+        outcomes.put("Draw", r.draws);
+        outcomes.put(c.teamBName, r.teamBWins);
+
+        ObjectNode teams = root.putObject("teamInnings");
+        for (Map.Entry<String, ScoreHistogram> e : r.teamRunsDist.entrySet()) {
+            teams.set(e.getKey(), summary(e.getValue()));
+        }
+
+        ObjectNode players = root.putObject("players");
+        for (String p : players(r)) {
+            ObjectNode n = players.putObject(p);
+            n.put("batInnings", r.batInnings.getOrDefault(p, 0));
+            n.put("runs",       r.batRuns.getOrDefault(p, 0L));
+            n.put("ballsFaced", r.batBalls.getOrDefault(p, 0L));
+            n.put("highest",    r.batHighest.getOrDefault(p, 0));
+            n.put("hundreds",   r.batHundreds.getOrDefault(p, 0));
+            n.put("fifties",    r.batFifties.getOrDefault(p, 0));
+            if (r.batRunsDist.containsKey(p)) n.set("runsPerInnings", summary(r.batRunsDist.get(p)));
+            n.put("bowlInnings",  r.bowlInnings.getOrDefault(p, 0));
+            n.put("wickets",      r.bowlWickets.getOrDefault(p, 0L));
+            n.put("runsConceded", r.bowlRuns.getOrDefault(p, 0L));
+            n.put("ballsBowled",  r.bowlBalls.getOrDefault(p, 0L));
+            n.put("fiveWickets",  r.bowlFifers.getOrDefault(p, 0));
+            n.put("tenInMatch",   r.bowlTenFor.getOrDefault(p, 0));
+            if (r.bowlWicketsDist.containsKey(p)) {
+                n.set("wicketsPerInnings", summary(r.bowlWicketsDist.get(p)));
+            }
+        }
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(Path.of(path).toFile(), root);
+    }
+
+    private static ObjectNode summary(ScoreHistogram h) {
+        ObjectNode n = MAPPER.createObjectNode();
+        n.put("mean",   Math.round(h.mean() * 100) / 100.0);
+        n.put("p10",    h.percentile(10));
+        n.put("median", h.percentile(50));
+        n.put("p90",    h.percentile(90));
+        return n;
+    }
+
+    private static TreeSet<String> players(MonteCarloEngine.SimResult r) {
+        TreeSet<String> names = new TreeSet<>(r.batInnings.keySet());
+        names.addAll(r.bowlInnings.keySet());
+        return names;
+    }
+
+    // ── Single-match output ───────────────────────────────────────────────
+
+    private static void writeMatchJson(TestMatchEngine engine, String path) throws Exception {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("tossWinner", engine.getTossWinner());
+        root.put("tossDecision", engine.getTossDecision());
+        root.put("result", engine.getResult());
+
+        ArrayNode innings = root.putArray("innings");
+        for (int i = 0; i < engine.getInnings().size(); i++) {
+            InningsResult ir = engine.getInnings().get(i);
+            ObjectNode n = innings.addObject();
+            n.put("team", engine.getBattingTeams().get(i));
+            n.put("runs", ir.getRuns());
+            n.put("wickets", ir.getWickets());
+            n.put("overs", ir.getOvers());
+            n.put("declared", ir.isDeclared());
+
+            ArrayNode bat = n.putArray("batting");
+            for (BatterRecord b : ir.getBattingCard()) {
+                bat.addObject().put("name", b.name).put("runs", b.runs).put("balls", b.balls)
+                        .put("fours", b.fours).put("sixes", b.sixes).put("dismissal", b.dismissalInfo);
+            }
+            ArrayNode bowl = n.putArray("bowling");
+            for (BowlerRecord b : ir.getBowlingCard()) {
+                bowl.addObject().put("name", b.name).put("overs", b.overs())
+                        .put("runs", b.runsConceded).put("wickets", b.wickets);
+            }
+        }
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(Path.of(path).toFile(), root);
+    }
+
+    /** Batting and bowling cards as one table, one row per player per innings. */
+    private static void writeMatchCsv(TestMatchEngine engine, String path) throws Exception {
+        CsvWriterUtil csv = new CsvWriterUtil();
+        csv.open(path);
+        csv.writeHeader(new String[]{
+                "Innings", "Team", "Card", "Player", "Runs", "Balls", "4s", "6s", "Wickets", "Detail"});
+        for (int i = 0; i < engine.getInnings().size(); i++) {
+            InningsResult ir = engine.getInnings().get(i);
+            String team = engine.getBattingTeams().get(i);
+            for (BatterRecord b : ir.getBattingCard()) {
+                csv.writeRow(i + 1, team, "Batting", b.name, b.runs, b.balls,
+                        b.fours, b.sixes, "", b.dismissalInfo);
+            }
+            for (BowlerRecord b : ir.getBowlingCard()) {
+                csv.writeRow(i + 1, team, "Bowling", b.name, b.runsConceded, b.ballsBowled,
+                        "", "", b.wickets, b.overs() + " ov");
+            }
+        }
+        csv.writeRow("Result", "", "", "", "", "", "", "", "", engine.getResult());
+        csv.close();
+    }
+
+    /** Best effort: a worker still shutting down may hold a log file open. */
+    private static void deleteTree(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        } catch (Exception e) {
+            System.err.println("Could not remove spool " + dir + ": " + e.getMessage());
+        }
+    }
+
+    // ── Argument handling ─────────────────────────────────────────────────
+
+    /** --key value pairs; a key may repeat (e.g. several --out files). */
+    private static Map<String, List<String>> parse(String[] args) {
+        Map<String, List<String>> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                usage("Bad argument: " + args[i]);
+            }
+            opts.computeIfAbsent(args[i].substring(2), k -> new ArrayList<>()).add(args[++i]);
+        }
+        return opts;
+    }
+
+    private static String one(Map<String, List<String>> opts, String key) {
+        List<String> v = opts.get(key);
+        return v == null ? null : v.get(v.size() - 1);
+    }
+
+    private static String required(Map<String, List<String>> opts, String key) {
+        String v = one(opts, key);
+        if (v == null) throw new IllegalArgumentException("--" + key + " is required");
+        return v;
+    }
+
+    /** Prints progress roughly every 10%. */
+    private static Consumer<Integer> progress(int total) {
+        AtomicInteger lastDecile = new AtomicInteger();
+        return done -> {
+            int decile = (int) (done * 10L / Math.max(1, total));
+            int prev = lastDecile.get();
+            if (decile > prev && lastDecile.compareAndSet(prev, decile)) {
+                System.out.println("  " + done + " / " + total);
+            }
+        };
+    }
+
+    private static void usage(String error) {
+        if (error != null) System.err.println(error);
+        System.err.println("""
+                Usage:
+                  SimCli mc     [match options] --sims N [--seed S]
+                                [--workers N [--spool DIR] | --checkpoint FILE | --records FILE] [--out FILE ...]
+                  SimCli match  [match options] [--seed S] [--out FILE ...]
+                  SimCli resume --checkpoint FILE [--out FILE ...]
+                  SimCli train-surrogate [--samples N] [--sims N] [--seed S] [--out FILE]
+                  SimCli query  --store DIR [--records FILE] [--where COL:MIN:MAX ...] [--by COL]
+                  SimCli series [match options] --venue NAME[:PITCH] ... --series N [--seed S] [--out FILE.xlsx]
+                  SimCli league --league FILE --seasons N [--seed S] [--out FILE.xlsx]
+                  SimCli grid   [match options] --grid FILE --sims N [--seed S] --out FILE.csv
+                  SimCli optimize-plan [match options] --side a|b --budget SECONDS --out plan.json
+                  SimCli best-xi --squad LIST --keepers LIST --opponent NAME --opponent-xi LIST
+                                 [--opponent-plan FILE] [--pitch ...] [--team NAME] [--sims N]
+                                 [--shortlist N] [--seed S] [--out FILE]
+                  SimCli pitch-sensitivity [match options] [--sims N] [--step X] [--seed S]
+                Match options:
+                  --config FILE  --team-a NAME --xi-a a,b,..|@file  --team-b NAME --xi-b ...
+                  --plan-a FILE  --plan-b FILE  --pitch G,D,B,F,BD|pitch.json
+                  --captain rules|lookahead
+                Outputs: .csv, .json, .xlsx (mc / resume); .xlsx (series / league); .csv (grid)""");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,238 @@
+package com.cricket.engine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.cricket.PlayerRoleLoader;
+import com.cricket.StatsBundle;
+
+/**
+ * Deterministic expected-value score for a bowling plan — no sampling, so
+ * it is cheap enough to rerun on every edit in BowlingAllocationScreen.
+ *
+ * Walks 90 overs against the opposing XI in batting order, keeping the
+ * probability of each "wickets down" state (0–10) rather than one sampled
+ * innings. Each over uses:
+ *   - the pitch from PitchRecommender.profileAt(over)
+ *   - BallEngine.outcomeProbabilities for the bowler against the two
+ *     batters likely at the crease (positions k and k+1 with k down,
+ *     weighted equally)
+ *   - InningsEngine's tail nerf and last-wicket collapse, in expectation
+ *
+ * Overs are bowled the way the simulator plays a plan: InningsEngine
+ * takes toOrderedBowlingList() and gives each entry in turn a five-over
+ * spell, cycling through the list. So over k's bowler is entry
+ * (k - 1) / 5, not the plan's own assignment for over k. Blended pairing
+ * rates are cached per bowler, so a rescore is a few thousand
+ * multiply-adds.
+ */
+public class AnalyticPlanScorer {
+
+    static final int OVERS       = 90;
+    static final int TAIL_FROM   = 7;     // InningsEngine: strikerIndex >= 7
+    static final int SPELL_OVERS = 5;     // InningsEngine: next bowler after 30 balls
+    private static final double LAST_WICKET_COLLAPSE = 0.15;
+
+    /** Per-over and whole-innings expectations for one plan. */
+    public static class Score {
+        public final double[] runsPerOver;      // expected runs conceded, index 0 = over 1
+        public final double[] wicketsPerOver;   // expected wickets taken
+        public final double expectedRuns;       // expected first-innings total
+        public final double expectedWickets;
+        public final double allOutProb;         // chance of bowling the side out in 90 overs
+
+        Score(double[] runsPerOver, double[] wicketsPerOver,
+              double expectedRuns, double expectedWickets, double allOutProb) {
+            this.runsPerOver     = runsPerOver;
+            this.wicketsPerOver  = wicketsPerOver;
+            this.expectedRuns    = expectedRuns;
+            this.expectedWickets = expectedWickets;
+            this.allOutProb      = allOutProb;
+        }
+    }
+
+    private final StatsBundle bundle;
+    private final PlayerRoleLoader roleLoader;
+    private final List<String> battingOrder;
+    private final String[] hands;
+    private final PitchRecommender pitchCurve;
+
+    // bowler → pre-pitch rates against each batting position
+    private final Map<String, MatchupTable.Matchup[]> rates = new HashMap<>();
+    private final Map<String, String> bowlRoles = new HashMap<>();
+
+    public AnalyticPlanScorer(StatsBundle bundle, List<String> battingOrder,
+                              PitchRecommender pitchCurve) {
+        this.bundle       = bundle;
+        this.roleLoader   = bundle.roleLoader;
+        this.battingOrder = List.copyOf(battingOrder);
+        this.pitchCurve   = pitchCurve;
+        this.hands = new String[this.battingOrder.size()];
+        for (int i = 0; i < hands.length; i++) {
+            String hand = roleLoader.getBatRole(this.battingOrder.get(i));
+            hands[i] = hand == null || hand.isBlank() ? "RHB" : hand;
+        }
+    }
+
+    public Score score(BowlingPlan plan) {
+        BallRates r = ballRates(plan);
+        int n = battingOrder.size();
+        double[][] runs = new double[OVERS][n];
+        for (int o = 0; o < OVERS; o++) {
+            for (int i = 0; i < n; i++) {
+                runs[o][i] = i >= TAIL_FROM ? r.tailRuns[o][i] : r.runs[o][i];
+            }
+        }
+        return expect(r.wkt, runs, r.bowled, n);
+    }
+
+    // ── Building blocks (shared with BattingOrderOptimizer) ───────────────
+
+    /** Per-ball expectations for each batter against a plan, before positions are assigned. */
+    static final class BallRates {
+        final double[][] wkt      = new double[OVERS][];  // [over][batter] P(wicket)
+        final double[][] runs     = new double[OVERS][];  // [over][batter] expected runs, top seven
+        final double[][] tailRuns = new double[OVERS][];  // [over][batter] same with the tail nerf
+        final boolean[]  bowled   = new boolean[OVERS];   // false if the plan has no bowlers
+    }
+
+    /** Batters are indexed by their place in this scorer's batting order. */
+    BallRates ballRates(BowlingPlan plan) {
+        int n = battingOrder.size();
+        BallRates out = new BallRates();
+        double[] probs = new double[BallEngine.OUTCOMES];
+        List<String> sequence = plan.toOrderedBowlingList(OVERS);
+
+        for (int over = 1; over <= OVERS; over++) {
+            int o = over - 1;
+            out.wkt[o]      = new double[n];
+            out.runs[o]     = new double[n];
+            out.tailRuns[o] = new double[n];
+
+            if (sequence.isEmpty()) continue;
+            String bowler = sequence.get(o / SPELL_OVERS % sequence.size());
+            out.bowled[o] = true;
+
+            MatchupTable.Matchup[] row = ratesFor(bowler);
+            String role = bowlRoles.get(bowler);
+            PitchProfile pitch = pitchCurve.profileAt(over);
+
+            for (int i = 0; i < n; i++) {
+                BallEngine.outcomeProbabilities(row[i].rpb, row[i].wpb, role, pitch, probs);
+                double notOut = 1 - probs[BallEngine.WICKET];
+                out.wkt[o][i]      = probs[BallEngine.WICKET];
+                out.runs[o][i]     = notOut * expectedRuns(probs, false);
+                out.tailRuns[o][i] = notOut * expectedRuns(probs, true);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Runs the wickets-down distribution through the innings.
+     *
+     * @param wkt  [over][position] wicket probability per ball
+     * @param runs [over][position] expected runs per ball
+     */
+    static Score expect(double[][] wkt, double[][] runs, boolean[] bowled, int n) {
+        int states = Math.min(10, n - 1);
+        if (states < 1) return new Score(new double[OVERS], new double[OVERS], 0, 0, 0);
+
+        // k down: positions k and k+1 at the crease, weighted equally
+        double[][] stateWkt  = new double[OVERS][states];
+        double[][] stateRuns = new double[OVERS][states];
+        for (int o = 0; o < OVERS; o++) {
+            for (int k = 0; k < states; k++) {
+                stateWkt[o][k]  = (wkt[o][k]  + wkt[o][k + 1])  / 2.0;
+                stateRuns[o][k] = (runs[o][k] + runs[o][k + 1]) / 2.0;
+            }
+        }
+        return expectStates(stateWkt, stateRuns, bowled);
+    }
+
+    /**
+     * Same walk, with per-ball rates already given for each wickets-down
+     * state: stateWkt[over][k] and stateRuns[over][k] for k down.
+     */
+    static Score expectStates(double[][] stateWkt, double[][] stateRuns, boolean[] bowled) {
+        return expectStates(stateWkt, stateRuns, bowled, stateWkt[0].length);
+    }
+
+    /**
+     * As above, but the last-wicket collapse only applies to the wicket
+     * that falls in a state below collapseBelow. BattingOrderOptimizer
+     * turns it off for the states its bound is optimistic about.
+     */
+    static Score expectStates(double[][] stateWkt, double[][] stateRuns, boolean[] bowled,
+                              int collapseBelow) {
+        double[] runsPerOver    = new double[OVERS];
+        double[] wicketsPerOver = new double[OVERS];
+        int maxWickets = stateWkt[0].length;
+
+        double[] state = new double[maxWickets + 1];   // P(k down and still batting)
+        state[0] = 1.0;
+        double collapsed = 0.0;                        // ended early on the 9th wicket
+        double totalRuns = 0;
+
+        for (int o = 0; o < OVERS; o++) {
+            if (!bowled[o]) continue;
+            double[] w = stateWkt[o], r = stateRuns[o];
+
+            double overRuns = 0, overWkts = 0;
+            for (int ball = 0; ball < 6; ball++) {
+                // Highest state first so mass moved up is not reprocessed this ball
+                for (int k = maxWickets - 1; k >= 0; k--) {
+                    double mass = state[k];
+                    if (mass == 0) continue;
+                    overRuns += mass * r[k];
+                    double fall = mass * w[k];
+                    overWkts += fall;
+                    state[k] -= fall;
+                    if (k + 1 == 9 && k < collapseBelow) {
+                        state[9] += fall * (1 - LAST_WICKET_COLLAPSE);
+                        collapsed += fall * LAST_WICKET_COLLAPSE;
+                    } else {
+                        state[k + 1] += fall;
+                    }
+                }
+            }
+            runsPerOver[o]    = overRuns;
+            wicketsPerOver[o] = overWkts;
+            totalRuns += overRuns;
+        }
+
+        double expectedWickets = 9 * collapsed;
+        for (int k = 0; k <= maxWickets; k++) expectedWickets += k * state[k];
+        return new Score(runsPerOver, wicketsPerOver, totalRuns, expectedWickets,
+                state[maxWickets] + collapsed);
+    }
+
+    /** Expected runs off a ball that is not a wicket, with InningsEngine's tail nerf. */
+    private static double expectedRuns(double[] p, boolean tail) {
+        if (!tail) {
+            return p[BallEngine.ONE] + 2 * p[BallEngine.TWO]
+                    + 4 * p[BallEngine.FOUR] + 6 * p[BallEngine.SIX];
+        }
+        return p[BallEngine.ONE]
+                + p[BallEngine.TWO]  * (0.60 * 2 + 0.40 * 1)              // 40% become singles
+                + p[BallEngine.FOUR] * (0.25 * 1 + 0.40 * 4)              // 35% dots, 25% singles
+                + p[BallEngine.SIX]  * (0.70 * 1 + 0.30 * 6);             // 70% become singles
+    }
+
+    private MatchupTable.Matchup[] ratesFor(String bowler) {
+        MatchupTable.Matchup[] row = rates.get(bowler);
+        if (row != null) return row;
+
+        String role = roleLoader.getBowlRole(bowler);
+        if (role == null || role.isBlank()) role = "RF";
+        row = new MatchupTable.Matchup[battingOrder.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = BallEngine.blendRates(bundle.batterStats, bundle.bowlerStats,
+                    bundle.baselineCalculator, battingOrder.get(i), bowler, role, hands[i]);
+        }
+        rates.put(bowler, row);
+        bowlRoles.put(bowler, role);
+        return row;
+    }
+}
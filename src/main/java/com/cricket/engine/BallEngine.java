@@ -13,7 +13,17 @@ public class BallEngine {
     private final BaselineCalculator baselineCalculator;
     private PitchProfile pitch;
 
-    private final Random random = new Random();
+    private final Random random;
+
+    // Optional pre-compiled pairings — null means blend from raw stats every ball
+    private final MatchupTable matchups;
+
+    // Slots of the outcomeProbabilities array
+    static final int WICKET = 0, DOT = 1, ONE = 2, TWO = 3, FOUR = 4, SIX = 5;
+    static final int OUTCOMES = 6;
+
+    // Scratch for simulateBall — one BallEngine belongs to one simulation thread
+    private final double[] probs = new double[OUTCOMES];
 
     public BallEngine(
             Map<String, Map<String, Stats>> batterStats,
@@ -21,19 +31,50 @@ public class BallEngine {
             BaselineCalculator baselineCalculator,
             PitchProfile pitch
     ) {
+        this(batterStats, bowlerStats, baselineCalculator, pitch, null);
+    }
+
+    public BallEngine(
+            Map<String, Map<String, Stats>> batterStats,
+            Map<String, Map<String, Stats>> bowlerStats,
+            BaselineCalculator baselineCalculator,
+            PitchProfile pitch,
+            MatchupTable matchups
+    ) {
+        this(batterStats, bowlerStats, baselineCalculator, pitch, matchups, new Random());
+    }
+
+    /** Seeded variant — pass the same Random to every engine of a simulation to make it repeatable. */
+    public BallEngine(
+            Map<String, Map<String, Stats>> batterStats,
+            Map<String, Map<String, Stats>> bowlerStats,
+            BaselineCalculator baselineCalculator,
+            PitchProfile pitch,
+            MatchupTable matchups,
+            Random random
+    ) {
+        this.random = random;
         this.batterStats = batterStats;
         this.bowlerStats = bowlerStats;
         this.baselineCalculator = baselineCalculator;
         this.pitch = pitch;
+        this.matchups = matchups;
     }
 
-    public BallOutcome simulateBall(
+    /**
+     * Blends batter and bowler history into the pitch-neutral runs-per-ball
+     * and wickets-per-ball for one pairing. Pitch modifiers are applied on
+     * top of this in simulateBall.
+     */
+    static MatchupTable.Matchup blendRates(
+            Map<String, Map<String, Stats>> batterStats,
+            Map<String, Map<String, Stats>> bowlerStats,
+            BaselineCalculator baselineCalculator,
             String batter,
             String bowler,
             String bowlRole,
             String batterHand
     ) {
-
         Stats batStats = batterStats
                 .getOrDefault(batter, Map.of())
                 .getOrDefault(bowlRole, new Stats());
@@ -60,8 +101,63 @@ public class BallEngine {
         double bowlerRPB = bowlStats.getAdjustedRunsPerBall(bowlBaselineRPB);
         double bowlerWPB = bowlStats.getAdjustedWicketsPerBall(sharedWPBBaseline);
 
-        double finalRPB = (batterRPB + bowlerRPB) / 2.0;
-        double finalWPB = (batterWPB + bowlerWPB) / 2.0;
+        return new MatchupTable.Matchup(bowlRole, batterHand,
+                (batterRPB + bowlerRPB) / 2.0,
+                (batterWPB + bowlerWPB) / 2.0);
+    }
+
+    public BallOutcome simulateBall(
+            String batter,
+            String bowler,
+            String bowlRole,
+            String batterHand
+    ) {
+
+        MatchupTable.Matchup m = matchups != null
+                ? matchups.get(batter, bowler, bowlRole, batterHand) : null;
+        if (m == null) {
+            m = blendRates(batterStats, bowlerStats, baselineCalculator,
+                    batter, bowler, bowlRole, batterHand);
+        }
+
+        outcomeProbabilities(m.rpb, m.wpb, bowlRole, pitch, probs);
+
+        double r = random.nextDouble();
+
+        if (r < probs[WICKET]) {
+            return BallOutcome.WICKET;
+        }
+
+        double runRand = random.nextDouble();
+
+        double cumulative = probs[DOT];
+        if (runRand < cumulative) return BallOutcome.DOT;
+
+        cumulative += probs[ONE];
+        if (runRand < cumulative) return BallOutcome.ONE;
+
+        cumulative += probs[TWO];
+        if (runRand < cumulative) return BallOutcome.TWO;
+
+        cumulative += probs[FOUR];
+        if (runRand < cumulative) return BallOutcome.FOUR;
+
+        cumulative += probs[SIX];
+        if (runRand < cumulative) return BallOutcome.SIX;
+
+        return BallOutcome.DOT;
+    }
+
+    /**
+     * Outcome probabilities for one ball with the given pre-pitch rates.
+     * Fills out[WICKET] with P(wicket) and out[DOT..SIX] with the run
+     * outcomes given no wicket (these sum to 1). simulateBall samples from
+     * exactly these numbers; analytic scorers use them directly.
+     */
+    static void outcomeProbabilities(double rpb, double wpb, String bowlRole,
+                                     PitchProfile pitch, double[] out) {
+        double finalRPB = rpb;
+        double finalWPB = wpb;
 
         //Pitch Modifiers
         boolean isFast = bowlRole.contains("F");
@@ -97,17 +193,6 @@ public class BallEngine {
         finalRPB = clamp(finalRPB, 0.2, 2.0);
         finalWPB = clamp(finalWPB, 0.01, 0.20);
 
-        double r = random.nextDouble();
-
-
-        if (r < finalWPB) {
-            return BallOutcome.WICKET;
-        }
-
-
-        double runRand = random.nextDouble();
-
-        
         double dotProb = 0.57 * dotAdjusment;
 
         if(isFast){
@@ -142,31 +227,15 @@ public class BallEngine {
 
         double totalProb = dotProb + oneProb + twoProb + fourProb + sixProb;
 
-        dotProb /= totalProb;
-        oneProb /= totalProb;
-        twoProb /= totalProb;
-        fourProb /= totalProb;
-        sixProb /= totalProb;
-
-        double cumulative = dotProb;
-        if (runRand < cumulative) return BallOutcome.DOT;
-
-        cumulative += oneProb;
-        if (runRand < cumulative) return BallOutcome.ONE;
-
-        cumulative += twoProb;
-        if (runRand < cumulative) return BallOutcome.TWO;
-
-        cumulative += fourProb;
-        if (runRand < cumulative) return BallOutcome.FOUR;
-
-        cumulative += sixProb;
-        if (runRand < cumulative) return BallOutcome.SIX;
-
-        return BallOutcome.DOT;
+        out[WICKET] = finalWPB;
+        out[DOT]    = dotProb  / totalProb;
+        out[ONE]    = oneProb  / totalProb;
+        out[TWO]    = twoProb  / totalProb;
+        out[FOUR]   = fourProb / totalProb;
+        out[SIX]    = sixProb  / totalProb;
     }
 
-    private double clamp(double value, double min, double max) {
+    private static double clamp(double value, double min, double max) {
         return Math.max(min, Math.min(max, value));
     }
 
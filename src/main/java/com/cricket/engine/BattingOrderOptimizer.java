@@ -0,0 +1,293 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Branch-and-bound search for the batting order of an XI against a known
+ * opposing bowling plan.
+ *
+ * An order is scored by AnalyticPlanScorer's expected first-innings total,
+ * which depends on who bats where (pairings at the crease, the tail nerf
+ * from position 8). Orders are built one position at a time. A partial
+ * order is bounded from above (see bound()); if the bound cannot beat the
+ * current K-th best order the branch is dropped, so with the default
+ * tolerance of 0 the top K is exact. A positive `tolerance` also drops
+ * branches that could beat the K-th best by at most that many runs —
+ * faster, but then the search is a heuristic and the result is not
+ * marked exhaustive. Branches under each opener run in parallel and share
+ * the top-K list.
+ *
+ * The K orders found are then each simulated simsPerOrder times on the same
+ * seeds, giving a sampled mean and 95% confidence interval next to the
+ * analytic expectation.
+ */
+public class BattingOrderOptimizer {
+
+    private static final int OVERS = AnalyticPlanScorer.OVERS;
+    private static final int TAIL  = AnalyticPlanScorer.TAIL_FROM;
+
+    /** One batting order with its analytic and simulated first-innings totals. */
+    public static class RankedOrder {
+        public final List<String> order;
+        public final double expectedRuns;   // analytic
+        public double simMean;              // sampled, filled in after the search
+        public double ciLow;
+        public double ciHigh;
+
+        RankedOrder(List<String> order, double expectedRuns) {
+            this.order        = order;
+            this.expectedRuns = expectedRuns;
+        }
+    }
+
+    /** Top orders, best first, plus search statistics. */
+    public static class Result {
+        public final List<RankedOrder> orders;
+        public final long nodesVisited;
+        public final long ordersScored;
+        public final boolean exhaustive;    // false if the budget cut the search short or tolerance > 0
+
+        Result(List<RankedOrder> orders, long nodesVisited, long ordersScored, boolean exhaustive) {
+            this.orders       = orders;
+            this.nodesVisited = nodesVisited;
+            this.ordersScored = ordersScored;
+            this.exhaustive   = exhaustive;
+        }
+    }
+
+    private final StatsBundle bundle;
+    private final List<String> xi;
+    private final BowlingPlan opposingPlan;
+    private final PitchRecommender pitchCurve;
+    private final AnalyticPlanScorer.BallRates rates;   // batters indexed as in xi
+
+    private int topK = 5;
+    private int simsPerOrder = 300;
+    private long seed = 34L;
+    private long budgetMillis = 60_000;
+    private double tolerance = 0.0;
+
+    // Search state shared by the parallel branches
+    private final PriorityQueue<double[]> best =                 // {score, p0, p1, ...}, worst on top
+            new PriorityQueue<>(Comparator.comparingDouble(a -> a[0]));
+    private volatile double cutoff = Double.NEGATIVE_INFINITY;
+    private volatile long deadline;
+    private volatile boolean timedOut;
+    private final LongAdder nodes = new LongAdder();
+    private long leaves;
+
+    public BattingOrderOptimizer(StatsBundle bundle, List<String> xi,
+                                 BowlingPlan opposingPlan, PitchRecommender pitchCurve) {
+        this.bundle       = bundle;
+        this.xi           = List.copyOf(xi);
+        this.opposingPlan = opposingPlan;
+        this.pitchCurve   = pitchCurve;
+        this.rates = new AnalyticPlanScorer(bundle, this.xi, pitchCurve).ballRates(opposingPlan);
+    }
+
+    public BattingOrderOptimizer topK(int k)               { this.topK = Math.max(1, k);  return this; }
+    public BattingOrderOptimizer simsPerOrder(int sims)    { this.simsPerOrder = sims;    return this; }
+    public BattingOrderOptimizer seed(long seed)           { this.seed = seed;            return this; }
+    public BattingOrderOptimizer budgetMillis(long millis) { this.budgetMillis = millis;  return this; }
+    public BattingOrderOptimizer tolerance(double runs)    { this.tolerance = runs;       return this; }
+
+    public Result optimize() {
+        int n = xi.size();
+        deadline = System.currentTimeMillis() + budgetMillis;
+
+        // The given order is a good incumbent, so pruning starts immediately
+        int states = Math.min(10, n - 1);
+        int[] given = IntStream.range(0, n).toArray();
+        offer(given, scoreOrder(given, new double[OVERS][states], new double[OVERS][states]));
+
+        Integer[] openers = byStrength();
+        Arrays.stream(openers).parallel().forEach(first -> {
+            int[] prefix = new int[n];
+            prefix[0] = first;
+            search(prefix, 1, 1 << first, openers,
+                    new double[OVERS][states], new double[OVERS][states]);
+        });
+
+        List<RankedOrder> ranked = new ArrayList<>();
+        synchronized (best) {
+            List<double[]> entries = new ArrayList<>(best);
+            entries.sort((a, b) -> Double.compare(b[0], a[0]));
+            for (double[] e : entries) {
+                List<String> order = new ArrayList<>(n);
+                for (int i = 1; i <= n; i++) order.add(xi.get((int) e[i]));
+                ranked.add(new RankedOrder(List.copyOf(order), e[0]));
+            }
+        }
+        ranked.parallelStream().forEach(this::sample);
+        return new Result(ranked, nodes.sum(), leaves, !timedOut && tolerance <= 0);
+    }
+
+    // ── Branch and bound ──────────────────────────────────────────────────
+
+    private void search(int[] prefix, int depth, int used, Integer[] order,
+                        double[][] sw, double[][] sr) {
+        int n = prefix.length;
+        if (depth == n) {
+            offer(prefix, scoreOrder(prefix, sw, sr));
+            return;
+        }
+        if (timedOut) return;
+        nodes.increment();
+        if (System.currentTimeMillis() > deadline) {
+            timedOut = true;
+            return;
+        }
+        if (bound(prefix, depth, used, sw, sr) <= cutoff + Math.max(0, tolerance)) return;
+
+        for (int p : order) {
+            if ((used & (1 << p)) != 0) continue;
+            prefix[depth] = p;
+            search(prefix, depth + 1, used | (1 << p), order, sw, sr);
+        }
+    }
+
+    /**
+     * Upper bound on the expected total of any completion of the prefix.
+     *
+     * States whose crease pair is fully placed (k + 1 < depth) play exactly
+     * as they will in every completion. A state with an open position gets
+     * the lowest wicket rate and highest run rate any unplaced batter(s)
+     * could give it — two different players for a fully open pair. That
+     * alone is not enough: the walk is not monotone, since a lower wicket
+     * rate can hold the innings in a state that scores less than the next
+     * one. So over the open states the run rates are replaced by their
+     * running maximum from the top state down, making them non-increasing
+     * in k; then staying longer in a state never costs runs, and the
+     * optimistic wicket rates can only raise the total. The last-wicket
+     * collapse, which only removes runs, is dropped for open states.
+     */
+    private double bound(int[] prefix, int depth, int used, double[][] sw, double[][] sr) {
+        int n = prefix.length, states = sw[0].length;
+        for (int o = 0; o < OVERS; o++) {
+            double w1 = 1, w2 = 1, r1 = 0, r2 = 0, t1 = 0, t2 = 0;
+            for (int p = 0; p < n; p++) {
+                if ((used & (1 << p)) != 0) continue;
+                double w = rates.wkt[o][p], r = rates.runs[o][p], t = rates.tailRuns[o][p];
+                if (w < w1) { w2 = w1; w1 = w; } else if (w < w2) w2 = w;
+                if (r > r1) { r2 = r1; r1 = r; } else if (r > r2) r2 = r;
+                if (t > t1) { t2 = t1; t1 = t; } else if (t > t2) t2 = t;
+            }
+            for (int k = 0; k < states; k++) {
+                int j = k + 1;
+                if (j < depth) {
+                    sw[o][k] = (wkt(o, prefix[k]) + wkt(o, prefix[j])) / 2.0;
+                    sr[o][k] = (runs(o, k, prefix[k]) + runs(o, j, prefix[j])) / 2.0;
+                } else if (k < depth) {
+                    sw[o][k] = (wkt(o, prefix[k]) + w1) / 2.0;
+                    sr[o][k] = (runs(o, k, prefix[k]) + (j >= TAIL ? t1 : r1)) / 2.0;
+                } else {
+                    sw[o][k] = (w1 + w2) / 2.0;
+                    sr[o][k] = (k >= TAIL ? t1 + t2 : j >= TAIL ? r1 + t1 : r1 + r2) / 2.0;
+                }
+            }
+            for (int k = states - 2; k >= depth - 1 && k >= 0; k--) {
+                sr[o][k] = Math.max(sr[o][k], sr[o][k + 1]);
+            }
+        }
+        int firstOpen = Math.max(0, depth - 1);
+        return AnalyticPlanScorer.expectStates(sw, sr, rates.bowled, firstOpen).expectedRuns;
+    }
+
+    private double scoreOrder(int[] order, double[][] sw, double[][] sr) {
+        int states = sw[0].length;
+        for (int o = 0; o < OVERS; o++) {
+            for (int k = 0; k < states; k++) {
+                sw[o][k] = (wkt(o, order[k]) + wkt(o, order[k + 1])) / 2.0;
+                sr[o][k] = (runs(o, k, order[k]) + runs(o, k + 1, order[k + 1])) / 2.0;
+            }
+        }
+        return AnalyticPlanScorer.expectStates(sw, sr, rates.bowled).expectedRuns;
+    }
+
+    private double wkt(int over, int batter) {
+        return rates.wkt[over][batter];
+    }
+
+    private double runs(int over, int position, int batter) {
+        return position >= TAIL ? rates.tailRuns[over][batter] : rates.runs[over][batter];
+    }
+
+    private void offer(int[] order, double score) {
+        synchronized (best) {
+            leaves++;
+            if (best.size() >= topK && score <= best.peek()[0]) return;
+            for (double[] e : best) {
+                if (e[0] == score && sameOrder(e, order)) return;
+            }
+            double[] e = new double[order.length + 1];
+            e[0] = score;
+            for (int i = 0; i < order.length; i++) e[i + 1] = order[i];
+            best.add(e);
+            if (best.size() > topK) best.poll();
+            if (best.size() >= topK) cutoff = best.peek()[0];
+        }
+    }
+
+    private static boolean sameOrder(double[] e, int[] order) {
+        for (int i = 0; i < order.length; i++) if ((int) e[i + 1] != order[i]) return false;
+        return true;
+    }
+
+    /** Batters by average expected runs per wicket, so strong orders are found early. */
+    private Integer[] byStrength() {
+        int n = xi.size();
+        double[] strength = new double[n];
+        for (int p = 0; p < n; p++) {
+            double r = 0, w = 0;
+            for (int o = 0; o < OVERS; o++) { r += rates.runs[o][p]; w += rates.wkt[o][p]; }
+            strength[p] = w > 0 ? r / w : r;
+        }
+        Integer[] idx = new Integer[n];
+        for (int p = 0; p < n; p++) idx[p] = p;
+        Arrays.sort(idx, (a, b) -> Double.compare(strength[b], strength[a]));
+        return idx;
+    }
+
+    // ── Sampling ──────────────────────────────────────────────────────────
+
+    /** First-innings totals over simsPerOrder seeded innings (same seeds for every order). */
+    private void sample(RankedOrder r) {
+        if (simsPerOrder <= 0) {
+            r.simMean = r.ciLow = r.ciHigh = r.expectedRuns;
+            return;
+        }
+        // The pitch SilentMatchEngine bowls the first innings on: the base
+        // surface, held for the whole innings (it deteriorates between innings)
+        PitchProfile pitch = new DeterioratingPitch(new PitchProfile(pitchCurve.getGreen(),
+                pitchCurve.getDry(), pitchCurve.getBounce(), pitchCurve.getFlat(),
+                pitchCurve.getBoundary())).currentProfile();
+        List<String> bowling = opposingPlan.toOrderedBowlingList(OVERS);
+        Random rng = new Random();
+        double sum = 0, sumSq = 0;
+        for (int i = 0; i < simsPerOrder; i++) {
+            rng.setSeed(MonteCarloEngine.simSeed(seed, i));
+            BallEngine ballEngine = new BallEngine(bundle.batterStats, bundle.bowlerStats,
+                    bundle.baselineCalculator, pitch, null, rng);
+            InningsEngine innings = new InningsEngine(ballEngine, bundle.roleLoader, rng);
+            int runs = innings.simulateInnings(r.order, bowling, OVERS * 6, null).getRuns();
+            sum   += runs;
+            sumSq += (double) runs * runs;
+        }
+        int n = simsPerOrder;
+        double mean = sum / n;
+        double var  = n > 1 ? Math.max(0, (sumSq - n * mean * mean) / (n - 1)) : 0;
+        double half = 1.96 * Math.sqrt(var / n);
+        r.simMean = mean;
+        r.ciLow   = mean - half;
+        r.ciHigh  = mean + half;
+    }
+}
@@ -0,0 +1,358 @@
+package com.cricket.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Picks the best XI from a 15–18 player squad against a fixed opponent.
+ *
+ * 1. Every 11-player combination that meets the constraints is listed:
+ *    a keeper (required — the data has no keeper role, so the caller
+ *    names them), a minimum number of bowlers, and minimum pace and spin
+ *    options (PlayerRecord.getBowlerCategory). Players bat in squad order.
+ *    The enumeration cuts a branch as soon as the players left cannot
+ *    meet a constraint.
+ * 2. Each XI gets two analytic numbers from AnalyticPlanScorer: expected
+ *    runs it scores against the opponent's plan, and expected runs it
+ *    concedes with a BowlingRecommender plan for its own bowlers. An XI
+ *    that another XI beats on both counts is dominated and dropped. The
+ *    best non-dominated XIs by run margin make the shortlist. Dominance
+ *    needs complete XIs, so it is applied after this screen, not during
+ *    the enumeration; the screen is analytic and cheap next to step 3.
+ * 3. Shortlisted XIs are scored by seeded Monte Carlo. Results are
+ *    memoized on disk, keyed by the sorted XI, in a file per stats
+ *    fingerprint, opponent, pitch and sim settings, so repeat selections
+ *    are nearly instant and a data change never serves stale results.
+ */
+public class BestXISelector {
+
+    /** One evaluated XI. Win/draw/loss are null until it has been simulated. */
+    public static class Candidate {
+        public final List<String> xi;
+        public final double runsScored;     // analytic, vs the opponent's plan
+        public final double runsConceded;   // analytic, with our generated plan
+        public Double winProb;
+        public Double drawProb;
+        public Double lossProb;
+        public boolean fromCache;
+
+        Candidate(List<String> xi, double runsScored, double runsConceded) {
+            this.xi           = xi;
+            this.runsScored   = runsScored;
+            this.runsConceded = runsConceded;
+        }
+
+        public double margin() { return runsScored - runsConceded; }
+    }
+
+    private final StatsBundle bundle;
+    private final List<PlayerRecord> squad;
+    private final String teamName;
+    private final String opponentName;
+    private final List<String> opponentXI;
+    private final BowlingPlan opponentPlan;
+    private final PitchProfile pitch;
+
+    private Set<String> keepers = new HashSet<>();
+    private int minBowlers  = 5;
+    private int minPace     = 3;
+    private int minSpin     = 1;
+    private int shortlist   = 16;
+    private int simsPerXI   = 250;
+    private long seed       = 11L;
+    private Path cacheDir   = PathResolver.getBaseDir().toPath().resolve("cache");
+
+    /**
+     * @param opponentPlan the opponent's bowling plan, or null to generate one
+     *                     from their bowlers with BowlingRecommender
+     */
+    public BestXISelector(StatsBundle bundle, List<PlayerRecord> squad, String teamName,
+                          String opponentName, List<String> opponentXI,
+                          BowlingPlan opponentPlan, PitchProfile pitch) {
+        this.bundle       = bundle;
+        this.squad        = List.copyOf(squad);
+        this.teamName     = teamName;
+        this.opponentName = opponentName;
+        this.opponentXI   = List.copyOf(opponentXI);
+        this.pitch        = pitch;
+        this.opponentPlan = opponentPlan != null ? opponentPlan : planFor(opponentXI);
+    }
+
+    /** Players who can keep wicket; the XI must include at least one. Required. */
+    public BestXISelector keepers(Collection<String> names) { this.keepers = new HashSet<>(names); return this; }
+    public BestXISelector minBowlers(int n)  { this.minBowlers = n; return this; }
+    public BestXISelector minPace(int n)     { this.minPace = n;    return this; }
+    public BestXISelector minSpin(int n)     { this.minSpin = n;    return this; }
+    public BestXISelector shortlist(int n)   { this.shortlist = n;  return this; }
+    public BestXISelector simsPerXI(int n)   { this.simsPerXI = n;  return this; }
+    public BestXISelector seed(long seed)    { this.seed = seed;    return this; }
+    public BestXISelector cacheDir(Path dir) { this.cacheDir = dir; return this; }
+
+    /** Runs the search; returns the simulated shortlist, best win probability first. */
+    public List<Candidate> select(Consumer<String> progress) throws Exception {
+        // ── 1. Valid XIs ──────────────────────────────────────────────────
+        if (squad.stream().noneMatch(p -> keepers.contains(p.getName()))) {
+            throw new IllegalArgumentException("Name at least one wicket-keeper in the squad (keepers)");
+        }
+        List<List<String>> valid = new ArrayList<>();
+        combinations(0, new ArrayList<>(), new int[4], suffixCounts(), valid);
+        report(progress, valid.size() + " valid XIs");
+        if (valid.isEmpty()) return List.of();
+
+        // ── 2. Analytic screen + dominance pruning ────────────────────────
+        PitchRecommender curve = curve();
+        Map<String, Double> concededByAttack = new ConcurrentHashMap<>();
+        List<Candidate> screened = valid.parallelStream().map(xi -> {
+            double scored = new AnalyticPlanScorer(bundle, xi, curve).score(opponentPlan).expectedRuns;
+            String attack = String.join("|", bowlersIn(xi));
+            Double conceded = concededByAttack.get(attack);
+            if (conceded == null) {
+                conceded = new AnalyticPlanScorer(bundle, opponentXI, curve)
+                        .score(planFor(xi)).expectedRuns;
+                concededByAttack.put(attack, conceded);
+            }
+            return new Candidate(xi, scored, conceded);
+        }).toList();
+
+        List<Candidate> shortlisted = paretoShortlist(screened, shortlist);
+        report(progress, shortlisted.size() + " XIs shortlisted from "
+                + screened.size() + " after pruning");
+
+        // ── 3. Monte Carlo with disk memo ─────────────────────────────────
+        Path cacheFile = cacheFile();
+        Map<String, double[]> memo = loadMemo(cacheFile);
+        Set<String> pool = new HashSet<>(opponentXI);
+        for (PlayerRecord p : squad) pool.add(p.getName());
+        MatchupTable matchups = MatchupTable.compile(bundle, pool);
+
+        int done = 0;
+        for (Candidate c : shortlisted) {
+            String key = canonical(c.xi);
+            double[] r = memo.get(key);
+            if (r != null) {
+                c.fromCache = true;
+            } else {
+                MatchConfig cfg = config(c.xi);
+                MonteCarloEngine.SimResult res =
+                        MonteCarloEngine.run(cfg, simsPerXI, bundle, matchups, seed, null);
+                double n = Math.max(1, res.total);
+                r = new double[]{res.teamAWins / n, res.draws / n, res.teamBWins / n};
+                memo.put(key, r);
+                appendMemo(cacheFile, key, r);
+            }
+            c.winProb  = r[0];
+            c.drawProb = r[1];
+            c.lossProb = r[2];
+            report(progress, "Simulated " + (++done) + " / " + shortlisted.size());
+        }
+
+        List<Candidate> ranked = new ArrayList<>(shortlisted);
+        ranked.sort(Comparator.comparingDouble((Candidate c) -> c.winProb)
+                .thenComparingDouble(Candidate::margin).reversed());
+        return ranked;
+    }
+
+    // ── Constraints ───────────────────────────────────────────────────────
+
+    // Constraint counters: keepers, bowlers, pace options, spin options
+    private static final int KEEP = 0, BOWL = 1, PACE = 2, SPIN = 3;
+
+    /**
+     * have[] counts the picked players per constraint. A branch is cut once
+     * the squad from `from` on, with the slots left, cannot reach a minimum.
+     */
+    private void combinations(int from, List<String> picked, int[] have, int[][] suffix,
+                              List<List<String>> out) {
+        int slots = 11 - picked.size();
+        int[] need = { 1, minBowlers, minPace, minSpin };
+        for (int k = 0; k < need.length; k++) {
+            if (have[k] + Math.min(slots, suffix[from][k]) < need[k]) return;
+        }
+        if (slots == 0) {
+            out.add(List.copyOf(picked));
+            return;
+        }
+        if (squad.size() - from < slots) return;
+        for (int i = from; i < squad.size(); i++) {
+            int[] counts = counts(i);
+            for (int k = 0; k < counts.length; k++) have[k] += counts[k];
+            picked.add(squad.get(i).getName());
+            combinations(i + 1, picked, have, suffix, out);
+            picked.remove(picked.size() - 1);
+            for (int k = 0; k < counts.length; k++) have[k] -= counts[k];
+        }
+    }
+
+    /** suffix[i][k]: players from squad index i on that count towards constraint k. */
+    private int[][] suffixCounts() {
+        int[][] suffix = new int[squad.size() + 1][4];
+        for (int i = squad.size() - 1; i >= 0; i--) {
+            int[] counts = counts(i);
+            for (int k = 0; k < counts.length; k++) suffix[i][k] = suffix[i + 1][k] + counts[k];
+        }
+        return suffix;
+    }
+
+    private int[] counts(int squadIndex) {
+        PlayerRecord p = squad.get(squadIndex);
+        BowlerInfo.Category cat = p.getBowlerCategory();
+        int[] c = new int[4];
+        if (keepers.contains(p.getName())) c[KEEP] = 1;
+        if (cat != BowlerInfo.Category.PART_TIME) {
+            c[BOWL] = 1;
+            c[cat == BowlerInfo.Category.SPIN ? SPIN : PACE] = 1;
+        }
+        return c;
+    }
+
+    private BowlerInfo.Category category(String name) {
+        for (PlayerRecord p : squad) {
+            if (p.getName().equals(name)) return p.getBowlerCategory();
+        }
+        return BowlerInfo.Category.PART_TIME;
+    }
+
+    private List<String> bowlersIn(List<String> xi) {
+        List<String> out = new ArrayList<>();
+        for (String name : xi) {
+            if (category(name) != BowlerInfo.Category.PART_TIME) out.add(name);
+        }
+        return out;
+    }
+
+    // ── Pruning ───────────────────────────────────────────────────────────
+
+    /**
+     * Peels Pareto fronts (more runs scored, fewer conceded) until at least
+     * `size` XIs are collected, then keeps the best `size` by run margin.
+     */
+    static List<Candidate> paretoShortlist(List<Candidate> all, int size) {
+        List<Candidate> remaining = new ArrayList<>(all);
+        List<Candidate> kept = new ArrayList<>();
+        while (kept.size() < size && !remaining.isEmpty()) {
+            remaining.sort(Comparator.comparingDouble((Candidate c) -> c.runsScored).reversed()
+                    .thenComparingDouble(c -> c.runsConceded));
+            List<Candidate> front = new ArrayList<>();
+            List<Candidate> rest  = new ArrayList<>();
+            double bestConceded = Double.MAX_VALUE;
+            for (Candidate c : remaining) {
+                if (c.runsConceded < bestConceded) {
+                    front.add(c);
+                    bestConceded = c.runsConceded;
+                } else {
+                    rest.add(c);
+                }
+            }
+            kept.addAll(front);
+            remaining = rest;
+        }
+        kept.sort(Comparator.comparingDouble(Candidate::margin).reversed());
+        return new ArrayList<>(kept.subList(0, Math.min(size, kept.size())));
+    }
+
+    // ── Plans and configs ─────────────────────────────────────────────────
+
+    private BowlingPlan planFor(List<String> xi) {
+        List<BowlerInfo> bowlers = new ArrayList<>();
+        for (String name : xi) {
+            String role = bundle.roleLoader.getBowlRole(name);
+            BowlerInfo b = new BowlerInfo(name, role == null ? "" : role);
+            if (b.getCategory() != BowlerInfo.Category.PART_TIME) bowlers.add(b);
+        }
+        if (bowlers.size() < 2) {
+            for (String name : xi) bowlers.add(new BowlerInfo(name, ""));
+        }
+        return new BowlingRecommender(bundle.bowlerStats, bundle.baselineCalculator, curve())
+                .generate(bowlers);
+    }
+
+    private PitchRecommender curve() {
+        return new PitchRecommender(pitch.getGreen(), pitch.getDry(), pitch.getBounce(),
+                pitch.getFlat(), pitch.getBoundary());
+    }
+
+    private MatchConfig config(List<String> xi) {
+        MatchConfig c = new MatchConfig();
+        c.teamAName        = teamName;
+        c.teamAXI          = new ArrayList<>(xi);
+        c.teamBName        = opponentName;
+        c.teamBXI          = new ArrayList<>(opponentXI);
+        c.teamABowlingPlan = planFor(xi);
+        c.teamBBowlingPlan = opponentPlan;
+        c.pitchProfile     = pitch;
+        return c;
+    }
+
+    // ── Disk memo ─────────────────────────────────────────────────────────
+
+    private static String canonical(List<String> xi) {
+        List<String> sorted = new ArrayList<>(xi);
+        sorted.sort(null);
+        return String.join(",", sorted);
+    }
+
+    /** One file per stats fingerprint / opponent / plan / pitch / sims / seed / squad order. */
+    private Path cacheFile() throws Exception {
+        MatchConfig ctx = new MatchConfig();
+        ctx.teamBName        = opponentName;
+        ctx.teamBXI          = new ArrayList<>(opponentXI);
+        ctx.teamBBowlingPlan = opponentPlan;
+        ctx.pitchProfile     = pitch;
+        List<String> order = new ArrayList<>();
+        for (PlayerRecord p : squad) order.add(p.getName());
+        String context = bundle.fingerprint() + "|" + MatchConfigCodec.toJson(ctx) + "|" + order
+                + "|" + simsPerXI + "|" + seed;
+
+        byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(context.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (int i = 0; i < 8; i++) hex.append(String.format("%02x", hash[i]));
+        return cacheDir.resolve("best-xi-" + hex + ".tsv");
+    }
+
+    private static Map<String, double[]> loadMemo(Path file) {
+        Map<String, double[]> memo = new HashMap<>();
+        if (!Files.exists(file)) return memo;
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String[] f = line.split("\t");
+                if (f.length != 4) continue;
+                memo.put(f[0], new double[]{
+                        Double.parseDouble(f[1]), Double.parseDouble(f[2]), Double.parseDouble(f[3])});
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Best-XI cache unreadable, starting fresh: " + e.getMessage());
+        }
+        return memo;
+    }
+
+    private static void appendMemo(Path file, String key, double[] r) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, key + "\t" + r[0] + "\t" + r[1] + "\t" + r[2] + "\n",
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Best-XI cache write failed: " + e.getMessage());
+        }
+    }
+
+    private static void report(Consumer<String> progress, String msg) {
+        if (progress != null) progress.accept(msg);
+    }
+}
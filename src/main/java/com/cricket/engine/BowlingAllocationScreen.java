@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.function.Consumer;
 
 import com.cricket.BaselineCalculator;
+import com.cricket.StatsBundle;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -41,6 +42,7 @@ public class BowlingAllocationScreen {
     private final BowlingPlan plan             = new BowlingPlan();
     private final PitchRecommender recommender = new PitchRecommender(1,1,1,1,1);
     private BowlingRecommender bowlingRecommender = null;
+    private AnalyticPlanScorer planScorer         = null;
 
     private BowlerInfo selectedBowler = null;
     private boolean blockSelectMode   = false;
@@ -49,6 +51,7 @@ public class BowlingAllocationScreen {
     private final Button[] overCells          = new Button[TOTAL_OVERS];
     private final Map<String, Label> summaryLabels = new HashMap<>();
     private Label statusLabel;
+    private Label scoreLabel;
     private Stage stage;
 
     private List<BowlerInfo> bowlers;
@@ -77,6 +80,12 @@ public class BowlingAllocationScreen {
         this.bowlingRecommender = new BowlingRecommender(bowlerStats, baselineCalculator, recommender);
     }
 
+    /** Full stats: also enables the live expected-score readout for the plan. */
+    public void setStatsBundle(StatsBundle bundle) {
+        setStatsBundle(bundle.bowlerStats, bundle.baselineCalculator);
+        this.planScorer = new AnalyticPlanScorer(bundle, bowlingAtXI, recommender);
+    }
+
     public void show(Stage stage) {
         this.stage = stage;
 
@@ -135,7 +144,11 @@ public class BowlingAllocationScreen {
         Label pitchLbl = new Label("Pitch: " + recommender.getPitchSummary());
         pitchLbl.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 11px; -fx-text-fill: #6a8099;");
 
-        header.getChildren().addAll(title, spacer, pitchLbl);
+        scoreLabel = new Label();
+        scoreLabel.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 11px; -fx-text-fill: #d4a030;");
+        HBox.setMargin(scoreLabel, new Insets(0, 0, 0, 18));
+
+        header.getChildren().addAll(title, spacer, pitchLbl, scoreLabel);
         return header;
     }
 
@@ -469,11 +482,11 @@ public class BowlingAllocationScreen {
             } else {
                 cell.setText(String.valueOf(overNum));
                 boolean recommended = selectedBowler != null
-                        && recommender.getRecommendedCategories(overNum)
-                                      .contains(selectedBowler.getCategory());
+                        && recommender.recommends(overNum, selectedBowler.getCategory());
                 cell.getStyleClass().add(recommended ? "cell-recommended" : "cell-unassigned");
             }
         }
+        refreshScore();
     }
 
     private String cellClassFor(BowlerInfo b) {
@@ -487,6 +500,18 @@ public class BowlingAllocationScreen {
         };
     }
 
+    // Analytic expectation — cheap enough to recompute on every edit
+    private void refreshScore() {
+        if (scoreLabel == null) return;
+        if (planScorer == null || plan.getTotalAssigned() == 0) {
+            scoreLabel.setText("");
+            return;
+        }
+        AnalyticPlanScorer.Score score = planScorer.score(plan);
+        scoreLabel.setText(String.format("Expected 1st inns: %.0f / %.1f wkts",
+                score.expectedRuns, score.expectedWickets));
+    }
+
     private void refreshSummary() {
         Map<String, Integer> counts = plan.getOverCounts();
         int total = 0;
@@ -1,6 +1,17 @@
 package com.cricket.engine;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.cricket.StatsBundle;
+
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 public class BowlingAllocatorApp extends Application {
@@ -11,7 +22,7 @@ public class BowlingAllocatorApp extends Application {
     private MatchConfig config;
     private TeamDatabase db;
     private SavedTeamsStore store;
-    private com.cricket.StatsBundle statsBundle;
+    private StartupService startup;
 
     @Override
     public void start(Stage primaryStage) throws Exception {
@@ -27,14 +38,7 @@ public class BowlingAllocatorApp extends Application {
         primaryStage.setResizable(true);
 
         // Load stats in background so UI stays responsive
-        new Thread(() -> {
-            try {
-                statsBundle = com.cricket.Main.buildStats();
-                System.out.println("Stats bundle loaded.");
-            } catch (Exception e) {
-                System.err.println("Could not load stats: " + e.getMessage());
-            }
-        }).start();
+        this.startup = new StartupService(db).start();
 
         showPitchSetup();
     }
@@ -69,8 +73,68 @@ public class BowlingAllocatorApp extends Application {
         ).show(primaryStage);
     }
 
+    // ── Stats gating ──────────────────────────────────────────────────────
+
+    /**
+     * Runs a screen that needs stats once they have loaded — straight away
+     * if they already have, otherwise after a progress screen. The FX
+     * thread never waits; the screen gets null if loading failed.
+     */
+    private void whenStatsReady(String nextScreen, Consumer<StatsBundle> screen) {
+        if (startup.stats().isDone()) {
+            screen.accept(startup.statsIfReady());
+            return;
+        }
+        Consumer<StartupService.Progress> listener = showStatsLoading(nextScreen);
+        startup.stats().handle((bundle, error) -> bundle)
+                .thenAccept(bundle -> Platform.runLater(() -> {
+                    startup.removeProgressListener(listener);
+                    screen.accept(bundle);
+                }));
+    }
+
+    /** Progress screen; returns the listener that keeps it current. */
+    private Consumer<StartupService.Progress> showStatsLoading(String nextScreen) {
+        Label title = new Label("LOADING PLAYER STATS");
+        title.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 18px; "
+                + "-fx-font-weight: bold; -fx-text-fill: #d4a030;");
+        Label next = new Label(nextScreen + " opens when the stats are ready");
+        next.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 12px; -fx-text-fill: #6a8099;");
+        ProgressBar bar = new ProgressBar(0);
+        bar.setPrefWidth(420);
+        Label phase = new Label();
+        phase.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 12px; -fx-text-fill: #c8d8e8;");
+
+        VBox root = new VBox(16, title, next, bar, phase);
+        root.setAlignment(Pos.CENTER);
+        root.setStyle("-fx-background-color: #0f1923;");
+        Scene scene = new Scene(root, 1280, 820);
+        FontLoader.apply(scene);
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        // Progress arrives per match file; coalesce into one pending FX update
+        AtomicBoolean queued = new AtomicBoolean();
+        Runnable refresh = () -> {
+            queued.set(false);
+            StartupService.Progress p = startup.progress();
+            bar.setProgress(p.fraction());
+            phase.setText(p.toString());
+        };
+        refresh.run();
+        Consumer<StartupService.Progress> listener = p -> {
+            if (queued.compareAndSet(false, true)) Platform.runLater(refresh);
+        };
+        startup.addProgressListener(listener);
+        return listener;
+    }
+
     // ── Screens 4 & 7: Bowling Allocation ────────────────────────────────
     private void showBowlingAllocation(boolean isTeamA) {
+        whenStatsReady("Bowling plan", bundle -> showBowlingAllocation(isTeamA, bundle));
+    }
+
+    private void showBowlingAllocation(boolean isTeamA, StatsBundle statsBundle) {
         // Team A bowls at Team B's XI, Team B bowls at Team A's XI
         String title  = isTeamA
                 ? config.teamAName + "'s Bowling Plan  (bowling at " + config.teamBName + ")"
@@ -102,15 +166,8 @@ public class BowlingAllocatorApp extends Application {
                 }
         );
         allocScreen.setBowlerInfoList(bowlerInfos);
-        // Wait up to 10s for stats to finish loading if needed
-        if (statsBundle == null) {
-            System.out.println("Stats still loading, waiting...");
-            for (int i = 0; i < 20 && statsBundle == null; i++) {
-                try { Thread.sleep(500); } catch (InterruptedException ignored) {}
-            }
-        }
         if (statsBundle != null) {
-            allocScreen.setStatsBundle(statsBundle.bowlerStats, statsBundle.baselineCalculator);
+            allocScreen.setStatsBundle(statsBundle);
         } else {
             System.err.println("Stats failed to load — auto-fill will be unavailable.");
         }
@@ -119,13 +176,19 @@ public class BowlingAllocatorApp extends Application {
 
     // ── Screen 8: Review & Run ────────────────────────────────────────────
     private void showReview() {
-        new ReviewScreen(config,
+        whenStatsReady("Review", this::showReview);
+    }
+
+    private void showReview(StatsBundle statsBundle) {
+        ReviewScreen review = new ReviewScreen(config,
                 () -> {
                     config.primaryStage = primaryStage;
                     new Thread(() -> MatchLauncher.launch(config)).start();
                 },
                 () -> showBowlingAllocation(false)
-        ).show(primaryStage);
+        );
+        review.setStatsBundle(statsBundle);
+        review.show(primaryStage);
     }
 
     public static void main(String[] args) {
@@ -557,12 +557,9 @@ public class BowlingAllocatorController {
                 cell.getStyleClass().add("cell-unassigned");
 
                 // Highlight if pitch recommends current selected bowler
-                if (selectedBowler != null) {
-                    List<BowlerInfo.Category> recommended =
-                            recommender.getRecommendedCategories(overNum);
-                    if (recommended.contains(selectedBowler.getCategory())) {
-                        cell.getStyleClass().add("cell-recommended");
-                    }
+                if (selectedBowler != null
+                        && recommender.recommends(overNum, selectedBowler.getCategory())) {
+                    cell.getStyleClass().add("cell-recommended");
                 }
             }
         }
@@ -5,6 +5,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
  * Holds the complete over-by-over bowling plan for one innings.
  * Can be exported as a Java-compatible List<String> or JSON string.
@@ -114,4 +117,32 @@ public class BowlingPlan {
         sb.append("  ]\n}");
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Parse a plan written by toJson(). Overs outside 1–90 are ignored; an
+     * assigned entry without an integer "over" is an IllegalArgumentException.
+     */
+    public static BowlingPlan fromJson(String json) throws Exception {
+        return fromJson(new ObjectMapper().readTree(json));
+    }
+
+    public static BowlingPlan fromJson(JsonNode root) {
+        BowlingPlan plan = new BowlingPlan();
+        JsonNode overs = root.get("overs");
+        if (overs == null) return plan;
+        int index = 0;
+        for (JsonNode o : overs) {
+            JsonNode bowler = o.get("bowler");
+            if (bowler != null && !bowler.isNull()) {
+                JsonNode over = o.get("over");
+                if (over == null || !over.canConvertToInt()) {
+                    throw new IllegalArgumentException("Bowling plan entry " + index
+                            + " (bowler \"" + bowler.asText() + "\") has no integer \"over\"");
+                }
+                plan.assign(over.asInt(), bowler.asText());
+            }
+            index++;
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,336 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Simulated-annealing search over bowling plans near a starting plan
+ * (normally BowlingRecommender.generate()).
+ *
+ * Neighbour moves: swap two overs, hand a whole spell to another bowler,
+ * shift a spell boundary by one over, and change an opener. A candidate
+ * is only considered if it adds no back-to-back overs and no spells over
+ * the caps generate() uses (pace 6 overs, spin 12). A start plan that
+ * breaks those rules is repaired first, and the search only ever moves
+ * between plans that keep them, so the returned plan always does.
+ *
+ * Every plan is scored on the same simsPerPlan seeded simulations (common
+ * random numbers), so two plans differ only by the plan, not by luck.
+ * Each round evaluates a batch of neighbours in parallel. Scores are
+ * cached by plan, so a revisited plan is never simulated twice. The search
+ * stops when the time budget runs out.
+ *
+ * The winner's search score is biased upwards — it was picked for being
+ * high on those seeds — so the reported gain comes from re-running the
+ * start and best plans on a disjoint block of simsPerPlan seeds.
+ */
+public class BowlingPlanOptimizer {
+
+    private static final int OVERS          = 90;
+    private static final int PACE_SPELL_CAP = 6;
+    private static final int SPIN_SPELL_CAP = 12;
+
+    /**
+     * Best plan found, with its paired win-probability gain over the start
+     * plan. The win probabilities and standard error are measured on the
+     * held-out seed block; searchWinProb is the best plan's (optimistic)
+     * score on the search seeds.
+     */
+    public static class Result {
+        public final BowlingPlan plan;
+        public final double startWinProb;
+        public final double bestWinProb;
+        public final double gainStdError;   // paired standard error of the gain
+        public final double searchWinProb;
+        public final int plansEvaluated;
+        public final int iterations;
+
+        Result(BowlingPlan plan, double startWinProb, double bestWinProb,
+               double gainStdError, double searchWinProb, int plansEvaluated, int iterations) {
+            this.plan           = plan;
+            this.startWinProb   = startWinProb;
+            this.bestWinProb    = bestWinProb;
+            this.gainStdError   = gainStdError;
+            this.searchWinProb  = searchWinProb;
+            this.plansEvaluated = plansEvaluated;
+            this.iterations     = iterations;
+        }
+
+        public double gain() { return bestWinProb - startWinProb; }
+    }
+
+    private final StatsBundle bundle;
+    private final MatchConfig base;
+    private final boolean teamABowls;
+    private final List<String> bowlerNames = new ArrayList<>();
+    private final List<String> paceNames   = new ArrayList<>();
+    private final Map<String, BowlerInfo.Category> categories = new HashMap<>();
+    private final MatchupTable matchups;
+
+    // plan signature → per-simulation outcome on the search seeds (1 = bowling side won)
+    private final Map<String, byte[]> cache = new ConcurrentHashMap<>();
+
+    private int simsPerPlan = 200;
+    private long seed = 20240601L;
+
+    /**
+     * @param teamABowls true to optimise config.teamABowlingPlan (Team A
+     *                   bowling at Team B), false for Team B's plan
+     * @param bowlers    bowlers the plan may use
+     */
+    public BowlingPlanOptimizer(StatsBundle bundle, MatchConfig config,
+                                boolean teamABowls, List<BowlerInfo> bowlers) {
+        this.bundle     = bundle;
+        this.base       = config;
+        this.teamABowls = teamABowls;
+        for (BowlerInfo b : bowlers) {
+            bowlerNames.add(b.getName());
+            categories.put(b.getName(), b.getCategory());
+            if (isPace(b.getCategory())) paceNames.add(b.getName());
+        }
+        this.matchups = MatchupTable.compile(bundle, config);
+    }
+
+    public BowlingPlanOptimizer simsPerPlan(int sims) { this.simsPerPlan = sims; return this; }
+    public BowlingPlanOptimizer seed(long seed)       { this.seed = seed;        return this; }
+
+    /**
+     * @throws IllegalArgumentException if no plan within the rules can be
+     *         made from the start plan with these bowlers
+     */
+    public Result optimize(BowlingPlan start, long budgetMillis) {
+        long deadline = System.currentTimeMillis() + budgetMillis;
+        Random rng = new Random(seed);
+        int batchSize = Runtime.getRuntime().availableProcessors();
+
+        String[] startPlan = repair(toArray(start));
+        double startScore = mean(evaluate(startPlan));
+
+        String[] current = startPlan;
+        double currentScore = startScore;
+        String[] best = current;
+        double bestScore = startScore;
+
+        // Start hot enough to accept a loss of a few simulations' worth
+        double t0 = 3.0 / simsPerPlan;
+        long started = System.currentTimeMillis();
+        int iterations = 0;
+
+        while (System.currentTimeMillis() < deadline) {
+            List<String[]> batch = new ArrayList<>();
+            for (int attempt = 0; attempt < batchSize * 20 && batch.size() < batchSize; attempt++) {
+                String[] n = neighbour(current, rng);
+                if (n != null && violations(n) == 0) batch.add(n);
+            }
+            if (batch.isEmpty()) break;
+
+            List<byte[]> outcomes = batch.parallelStream().map(this::evaluate).toList();
+            int pick = 0;
+            for (int i = 1; i < batch.size(); i++) {
+                if (mean(outcomes.get(i)) > mean(outcomes.get(pick))) pick = i;
+            }
+            double score = mean(outcomes.get(pick));
+
+            double frac = (System.currentTimeMillis() - started) / (double) Math.max(1, budgetMillis);
+            double temperature = Math.max(1e-9, t0 * (1.0 - frac));
+            double delta = score - currentScore;
+            if (delta >= 0 || rng.nextDouble() < Math.exp(delta / temperature)) {
+                current = batch.get(pick);
+                currentScore = score;
+            }
+            if (score > bestScore) {
+                best = batch.get(pick);
+                bestScore = score;
+            }
+            iterations++;
+        }
+
+        // Fresh seeds for the reported numbers: sims [simsPerPlan, 2 * simsPerPlan)
+        byte[] startHeldOut = simulate(startPlan, simsPerPlan);
+        byte[] bestHeldOut  = best == startPlan ? startHeldOut : simulate(best, simsPerPlan);
+        return new Result(toPlan(best), mean(startHeldOut), mean(bestHeldOut),
+                pairedStdError(bestHeldOut, startHeldOut), bestScore, cache.size(), iterations);
+    }
+
+    // ── Scoring ───────────────────────────────────────────────────────────
+
+    /** Outcomes on the search seeds, sims [0, simsPerPlan). */
+    private byte[] evaluate(String[] plan) {
+        // Plain get/put rather than computeIfAbsent: the simulations below
+        // run on the same fork/join pool and must not hold a map bin lock
+        String key = String.join("|", plan);
+        byte[] cached = cache.get(key);
+        if (cached != null) return cached;
+
+        byte[] out = simulate(plan, 0);
+        cache.putIfAbsent(key, out);
+        return out;
+    }
+
+    private byte[] simulate(String[] plan, int firstSim) {
+        MatchConfig c = base.copy();
+        if (teamABowls) c.teamABowlingPlan = toPlan(plan);
+        else            c.teamBBowlingPlan = toPlan(plan);
+
+        LookaheadCaptain captain = MonteCarloEngine.newCaptain(c, bundle, matchups, seed);
+        byte[] out = new byte[simsPerPlan];
+        IntStream.range(0, simsPerPlan).parallel().forEach(i -> {
+            int sim = firstSim + i;
+            MonteCarloEngine.SimResult r =
+                    MonteCarloEngine.simulateRange(c, bundle, matchups, seed, captain, sim, sim + 1);
+            out[i] = (byte) ((teamABowls ? r.teamAWins : r.teamBWins) > 0 ? 1 : 0);
+        });
+        return out;
+    }
+
+    private static double mean(byte[] outcomes) {
+        int sum = 0;
+        for (byte b : outcomes) sum += b;
+        return outcomes.length == 0 ? 0.0 : sum / (double) outcomes.length;
+    }
+
+    private static double pairedStdError(byte[] a, byte[] b) {
+        int n = a.length;
+        if (n < 2) return 0.0;
+        double mean = 0;
+        for (int i = 0; i < n; i++) mean += a[i] - b[i];
+        mean /= n;
+        double ss = 0;
+        for (int i = 0; i < n; i++) {
+            double d = a[i] - b[i] - mean;
+            ss += d * d;
+        }
+        return Math.sqrt(ss / (n - 1) / n);
+    }
+
+    // ── Neighbour moves ───────────────────────────────────────────────────
+
+    private String[] neighbour(String[] plan, Random rng) {
+        String[] n = plan.clone();
+        switch (rng.nextInt(4)) {
+            case 0 -> {                              // swap two overs
+                int i = rng.nextInt(OVERS), j = rng.nextInt(OVERS);
+                if (n[i] == null || n[j] == null || n[i].equals(n[j])) return null;
+                String tmp = n[i]; n[i] = n[j]; n[j] = tmp;
+            }
+            case 1 -> {                              // hand a spell to another bowler
+                if (!reassignSpell(n, rng.nextInt(OVERS), bowlerNames, rng)) return null;
+            }
+            case 2 -> {                              // shift a spell boundary by one over
+                int o = 2 + rng.nextInt(OVERS - 2);
+                if (n[o] == null || n[o - 2] == null || n[o].equals(n[o - 2])) return null;
+                if (rng.nextBoolean()) n[o] = n[o - 2];
+                else                   n[o - 2] = n[o];
+            }
+            default -> {                             // change an opener
+                List<String> pool = paceNames.size() > 2 ? paceNames : bowlerNames;
+                if (!reassignSpell(n, rng.nextInt(2), pool, rng)) return null;
+            }
+        }
+        return n;
+    }
+
+    /** Gives the spell containing `over` (0-based) to a different bowler from pool. */
+    private static boolean reassignSpell(String[] n, int over, List<String> pool, Random rng) {
+        String owner = n[over];
+        if (owner == null || pool.size() < 2) return false;
+        String next = pool.get(rng.nextInt(pool.size()));
+        if (next.equals(owner)) return false;
+
+        int s = over, e = over;
+        while (s - 2 >= 0 && owner.equals(n[s - 2])) s -= 2;
+        while (e + 2 < OVERS && owner.equals(n[e + 2])) e += 2;
+        for (int i = s; i <= e; i += 2) n[i] = next;
+        return true;
+    }
+
+    // ── Rules ─────────────────────────────────────────────────────────────
+
+    /** Back-to-back overs plus overs bowled beyond a spell cap. */
+    private int violations(String[] n) {
+        int v = 0;
+        for (int i = 1; i < OVERS; i++) {
+            if (n[i] != null && n[i].equals(n[i - 1])) v++;
+        }
+        for (int end = 0; end < 2; end++) {
+            int spell = 0;
+            for (int i = end; i < OVERS; i += 2) {
+                spell = (i >= 2 && n[i] != null && n[i].equals(n[i - 2])) ? spell + 1 : 1;
+                int cap = spellCap(n[i]);
+                if (n[i] != null && spell > cap) v++;
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Rewrites overs that break a rule, earliest first. The replacement is
+     * the first bowler (in constructor order) who neither bowled the
+     * previous over nor is due the next one and whose spell at this end
+     * stays within the cap.
+     */
+    private String[] repair(String[] plan) {
+        if (violations(plan) == 0) return plan;
+        String[] n = plan.clone();
+        int[] spell = new int[OVERS];
+        for (int i = 0; i < OVERS; i++) {
+            if (n[i] != null && !fits(n, spell, i, n[i])) {
+                String replacement = null;
+                for (String b : bowlerNames) {
+                    if (fits(n, spell, i, b) && (i + 1 >= OVERS || !b.equals(n[i + 1]))) {
+                        replacement = b;
+                        break;
+                    }
+                }
+                if (replacement == null) {
+                    throw new IllegalArgumentException("No bowler can take over " + (i + 1)
+                            + " within the spell caps; " + bowlerNames.size() + " bowlers available");
+                }
+                n[i] = replacement;
+            }
+            spell[i] = n[i] != null && i >= 2 && n[i].equals(n[i - 2]) ? spell[i - 2] + 1 : 1;
+        }
+        return n;
+    }
+
+    /** Whether bowler can take over i given overs before it (spell[] filled up to i - 1). */
+    private boolean fits(String[] n, int[] spell, int i, String bowler) {
+        if (i >= 1 && bowler.equals(n[i - 1])) return false;
+        int length = i >= 2 && bowler.equals(n[i - 2]) ? spell[i - 2] + 1 : 1;
+        return length <= spellCap(bowler);
+    }
+
+    private int spellCap(String bowler) {
+        BowlerInfo.Category c = categories.get(bowler);
+        if (c == BowlerInfo.Category.SPIN) return SPIN_SPELL_CAP;
+        if (isPace(c)) return PACE_SPELL_CAP;
+        return OVERS;
+    }
+
+    private static boolean isPace(BowlerInfo.Category c) {
+        return c == BowlerInfo.Category.FAST
+                || c == BowlerInfo.Category.MEDIUM_FAST
+                || c == BowlerInfo.Category.MEDIUM;
+    }
+
+    // ── Conversion ────────────────────────────────────────────────────────
+
+    private static String[] toArray(BowlingPlan plan) {
+        String[] a = new String[OVERS];
+        for (int i = 0; i < OVERS; i++) a[i] = plan.getAssignment(i + 1);
+        return a;
+    }
+
+    private static BowlingPlan toPlan(String[] a) {
+        BowlingPlan p = new BowlingPlan();
+        for (int i = 0; i < OVERS; i++) if (a[i] != null) p.assign(i + 1, a[i]);
+        return p;
+    }
+}
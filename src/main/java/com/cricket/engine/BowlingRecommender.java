@@ -1,16 +1,17 @@
 package com.cricket.engine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.cricket.BaselineCalculator;
 import com.cricket.Stats;
+import com.cricket.StatsBundle;
 
 public class BowlingRecommender {
 
@@ -27,15 +28,32 @@ public class BowlingRecommender {
         this.pitchRecommender  = pitchRecommender;
     }
 
+    // ── Per-XI tables ────────────────────────────────────────────────────
+    // Rebuilt only when generate() sees a different bowler list. Index i
+    // is the i-th bowler of that list.
+
+    private final List<String> tableNames = new ArrayList<>();
+    private final List<String> tableRoles = new ArrayList<>();
+    private double[]  quality = new double[0];    // adjusted WPB, both hands averaged
+    private boolean[] pace    = new boolean[0];
+    private boolean[] spin    = new boolean[0];
+    private int[]     order   = new int[0];       // eligible bowlers, best first
+    private int       eligibleCount;
+
+    // Spell state, reset at the start of each generate()
+    private int[] currentSpell = new int[0];
+    private int[] restOvers    = new int[0];
+    private int[] requiredRest = new int[0];
+
     // ── Quality metrics ───────────────────────────────────────────────────
 
     private double getAdjWPB(String name) {
-        Map<String, Stats> m = bowlerStats.getOrDefault(name, new HashMap<>());
+        Map<String, Stats> m = bowlerStats.getOrDefault(name, Map.of());
         double sharedBaseline = baselineCalculator.getOverallWicketsPerBall();
-        double lhb = m.getOrDefault("LHB", new Stats())
-                .getAdjustedWicketsPerBall(sharedBaseline);
-        double rhb = m.getOrDefault("RHB", new Stats())
-                .getAdjustedWicketsPerBall(sharedBaseline);
+        Stats lhbStats = m.get("LHB");
+        Stats rhbStats = m.get("RHB");
+        double lhb = lhbStats != null ? lhbStats.getAdjustedWicketsPerBall(sharedBaseline) : sharedBaseline;
+        double rhb = rhbStats != null ? rhbStats.getAdjustedWicketsPerBall(sharedBaseline) : sharedBaseline;
         return (lhb + rhb) / 2.0;
     }
 
@@ -49,157 +67,199 @@ public class BowlingRecommender {
                role.equals("RM")  || role.equals("LM");
     }
 
-    private static boolean isSpin(BowlerInfo b) {
-        return b.getCategory() == BowlerInfo.Category.SPIN;
-    }
-
     // Whether pitch recommends spin at this over
     private boolean spinRecommendedAt(int over) {
         if (pitchRecommender == null) return over > 25;
-        return pitchRecommender.getRecommendedCategories(over)
-                .contains(BowlerInfo.Category.SPIN);
+        return pitchRecommender.recommends(over, BowlerInfo.Category.SPIN);
     }
 
     private boolean seamRecommendedAt(int over) {
         if (pitchRecommender == null) return over <= 20;
-        List<BowlerInfo.Category> cats = pitchRecommender.getRecommendedCategories(over);
-        return cats.contains(BowlerInfo.Category.FAST) ||
-               cats.contains(BowlerInfo.Category.MEDIUM_FAST);
+        return pitchRecommender.recommends(over, BowlerInfo.Category.FAST)
+            || pitchRecommender.recommends(over, BowlerInfo.Category.MEDIUM_FAST);
     }
 
-    // ── Exclusion ─────────────────────────────────────────────────────────
+    // ── Tables and exclusion ─────────────────────────────────────────────
 
-    private Set<String> computeExcluded(List<BowlerInfo> bowlers) {
-        List<BowlerInfo> ranked = new ArrayList<>(bowlers);
-        ranked.sort(Comparator.comparingDouble(b -> getAdjWPB(b.getName())));
-        int exclude = Math.min(
-                (int) Math.floor(bowlers.size() * 0.25),
-                Math.max(0, bowlers.size() - 5));
+    private boolean tablesMatch(List<BowlerInfo> bowlers) {
+        if (bowlers.size() != tableNames.size()) return false;
+        for (int i = 0; i < bowlers.size(); i++) {
+            BowlerInfo b = bowlers.get(i);
+            if (!b.getName().equals(tableNames.get(i)) || !Objects.equals(b.getRole(), tableRoles.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void buildTables(List<BowlerInfo> bowlers) {
+        int n = bowlers.size();
+        tableNames.clear();
+        tableRoles.clear();
+        quality = new double[n];
+        pace    = new boolean[n];
+        spin    = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            BowlerInfo b = bowlers.get(i);
+            tableNames.add(b.getName());
+            tableRoles.add(b.getRole());
+            quality[i] = getAdjWPB(b.getName());
+            pace[i]    = isPaceMedium(b.getRole());
+            spin[i]    = b.getCategory() == BowlerInfo.Category.SPIN;
+        }
+
+        // Drop the weakest quarter (keeping at least five), then rank the
+        // rest best first; both sorts are stable, as the list sorts were
+        Integer[] byQuality = new Integer[n];
+        for (int i = 0; i < n; i++) byQuality[i] = i;
+        Arrays.sort(byQuality, Comparator.comparingDouble(i -> quality[i]));
+        int exclude = Math.min((int) Math.floor(n * 0.25), Math.max(0, n - 5));
         Set<String> excluded = new HashSet<>();
-        for (int i = 0; i < exclude; i++) excluded.add(ranked.get(i).getName());
-        return excluded;
+        for (int i = 0; i < exclude; i++) excluded.add(tableNames.get(byQuality[i]));
+
+        List<Integer> eligible = new ArrayList<>();
+        for (int i = 0; i < n; i++) if (!excluded.contains(tableNames.get(i))) eligible.add(i);
+        eligible.sort((a, b) -> Double.compare(quality[b], quality[a]));
+        if (eligible.isEmpty()) for (int i = 0; i < n; i++) eligible.add(i);
+
+        order = eligible.stream().mapToInt(Integer::intValue).toArray();
+        eligibleCount = order.length;
+        currentSpell = new int[n];
+        restOvers    = new int[n];
+        requiredRest = new int[n];
     }
 
     // ── Plan generator ────────────────────────────────────────────────────
 
+    /**
+     * Greedy day-long plan. Per-bowler quality and the eligible order are
+     * cached per bowler list and pitch advice comes from PitchRecommender's
+     * per-over table, so regenerating after a pitch change only replays the
+     * 90-over walk over primitive arrays.
+     */
     public BowlingPlan generate(List<BowlerInfo> bowlers) {
         BowlingPlan plan = new BowlingPlan();
+        if (!tablesMatch(bowlers)) buildTables(bowlers);
 
-        Set<String> excluded = computeExcluded(bowlers);
-        List<BowlerInfo> eligible = bowlers.stream()
-                .filter(b -> !excluded.contains(b.getName()))
-                .sorted((a, b) -> Double.compare(getAdjWPB(b.getName()), getAdjWPB(a.getName())))
-                .collect(Collectors.toList());
-
-        if (eligible.isEmpty()) eligible = new ArrayList<>(bowlers);
-
-        Map<String, Integer> currentSpell = new HashMap<>();
-        Map<String, Integer> restOvers    = new HashMap<>();
-        Map<String, Integer> requiredRest = new HashMap<>();
-
-        for (BowlerInfo b : eligible) {
-            currentSpell.put(b.getName(), 0);
-            restOvers.put(b.getName(), 99);
-            requiredRest.put(b.getName(), 0);
+        for (int k = 0; k < eligibleCount; k++) {
+            int b = order[k];
+            currentSpell[b] = 0;
+            restOvers[b]    = 99;
+            requiredRest[b] = 0;
         }
 
-        String[] ends = new String[2];
+        int[] ends = new int[2];
 
         // Open with best two pace bowlers
-        List<BowlerInfo> openers = eligible.stream()
-                .filter(b -> isPaceMedium(b.getRole()))
-                .limit(2)
-                .collect(Collectors.toList());
-        if (openers.size() < 2) openers = eligible.stream().limit(2).collect(Collectors.toList());
-
-        ends[0] = !openers.isEmpty() ? openers.get(0).getName() : eligible.get(0).getName();
-        if (openers.size() > 1) {
-            ends[1] = openers.get(1).getName();
+        int first = -1, second = -1;
+        for (int k = 0; k < eligibleCount && second < 0; k++) {
+            if (!pace[order[k]]) continue;
+            if (first < 0) first = order[k];
+            else second = order[k];
+        }
+        if (second < 0) {
+            first  = order[0];
+            second = eligibleCount > 1 ? order[1] : -1;
+        }
+
+        ends[0] = first;
+        if (second >= 0) {
+            ends[1] = second;
         } else {
-            String firstEnd = ends[0];
-            ends[1] = eligible.stream()
-                    .filter(b -> !b.getName().equals(firstEnd))
-                    .map(BowlerInfo::getName)
-                    .findFirst().orElse(firstEnd);
+            ends[1] = first;
+            for (int k = 0; k < eligibleCount; k++) {
+                if (!tableNames.get(order[k]).equals(tableNames.get(first))) {
+                    ends[1] = order[k];
+                    break;
+                }
+            }
         }
 
         for (int over = 1; over <= 90; over++) {
             boolean isEnd1Turn = (over % 2 == 1);
-            String activeName = isEnd1Turn ? ends[0] : ends[1];
-            String otherName  = isEnd1Turn ? ends[1] : ends[0];
+            int active = isEnd1Turn ? ends[0] : ends[1];
+            int other  = isEnd1Turn ? ends[1] : ends[0];
 
-            BowlerInfo activeInfo = getInfo(activeName, eligible);
-            String role = activeInfo != null ? activeInfo.getRole() : "";
-
-            int spell   = currentSpell.getOrDefault(activeName, 0);
-            boolean hardCap = isPaceMedium(role) && spell >= 6;
+            int spell   = currentSpell[active];
+            boolean hardCap = pace[active] && spell >= 6;
 
             // Spinners hard-capped at 12 consecutive overs
-            boolean spinCap = isSpin(activeInfo) && spell >= 12;
+            boolean spinCap = spin[active] && spell >= 12;
 
             boolean needChange = hardCap || spinCap;
 
             // Pressure-based change
             if (!needChange && spell >= 3) {
-                double pressure = computePressure(activeName, role, spell, over);
+                double pressure = computePressure(active, spell, over);
                 if (pressure >= 10.0) needChange = true;
             }
 
             // Force change if pitch doesn't recommend this bowler type at this over
             if (!needChange && spell >= 2) {
-                boolean isSpinner = isSpin(activeInfo);
+                boolean isSpinner = spin[active];
                 if (isSpinner && !spinRecommendedAt(over)) needChange = true;
-                if (!isSpinner && isPaceMedium(role) && !seamRecommendedAt(over)
+                if (!isSpinner && pace[active] && !seamRecommendedAt(over)
                         && spinRecommendedAt(over) && over > 30) needChange = true;
             }
 
             if (needChange) {
-                BowlerInfo next = pickNext(eligible, activeName, otherName,
-                        currentSpell, restOvers, requiredRest, over);
-                if (next != null && !next.getName().equals(activeName)) {
-                    int spellLength = currentSpell.getOrDefault(activeName, 0);
-                    requiredRest.put(activeName, Math.max(2, spellLength / 2));
-                    restOvers.put(activeName, 0);
-                    currentSpell.put(activeName, 0);
-
-                    activeName = next.getName();
-                    currentSpell.put(activeName, 0);
+                int next = pickNext(active, other, over);
+                if (next != active) {
+                    requiredRest[active] = Math.max(2, currentSpell[active] / 2);
+                    restOvers[active]    = 0;
+                    currentSpell[active] = 0;
+
+                    active = next;
+                    currentSpell[active] = 0;
                 }
             }
 
-            plan.assign(over, activeName);
-            currentSpell.merge(activeName, 1, Integer::sum);
+            plan.assign(over, tableNames.get(active));
+            currentSpell[active]++;
 
-            for (BowlerInfo b : eligible) {
-                if (!b.getName().equals(activeName) && !b.getName().equals(otherName)) {
-                    restOvers.merge(b.getName(), 1, Integer::sum);
-                }
+            for (int k = 0; k < eligibleCount; k++) {
+                int b = order[k];
+                if (b != active && b != other) restOvers[b]++;
             }
 
-            if (isEnd1Turn) ends[0] = activeName;
-            else            ends[1] = activeName;
+            if (isEnd1Turn) ends[0] = active;
+            else            ends[1] = active;
         }
 
         return plan;
     }
 
+    // ── Simulation-backed refinement ──────────────────────────────────────
+
+    /**
+     * Runs generate() and then searches nearby plans with paired Monte Carlo
+     * (see BowlingPlanOptimizer) for up to budgetMillis. The plan is for
+     * Team A's bowling when teamABowls is true, otherwise Team B's.
+     */
+    public BowlingPlanOptimizer.Result optimize(List<BowlerInfo> bowlers, MatchConfig config,
+                                                boolean teamABowls, StatsBundle bundle,
+                                                long budgetMillis) {
+        return new BowlingPlanOptimizer(bundle, config, teamABowls, bowlers)
+                .optimize(generate(bowlers), budgetMillis);
+    }
+
     // ── Pressure score ────────────────────────────────────────────────────
 
-    private double computePressure(String name, String role, int spell, int over) {
-        double adjWPB = getAdjWPB(name);
+    private double computePressure(int bowler, int spell, int over) {
+        double adjWPB = quality[bowler];
         double wicketCredit = 5.0 * adjWPB * 6.0;
         double x = -wicketCredit;
 
-        if (isPaceMedium(role)) {
+        if (pace[bowler]) {
             x += 2.0 * spell;   // pacers tire quickly
         } else {
             x += 1.2 * spell;   // spinners also build pressure but slower (was 0.4 — too low)
         }
 
         // Pitch-aware: if pitch doesn't suit this type, increase pressure to change
-        boolean isSpinner = isSpin(getInfoByRole(role));
+        boolean isSpinner = spin[bowler];
         if (isSpinner && !spinRecommendedAt(over)) x += 4.0;
-        if (!isSpinner && isPaceMedium(role) && !seamRecommendedAt(over)) x += 2.0;
+        if (!isSpinner && pace[bowler] && !seamRecommendedAt(over)) x += 2.0;
 
         if (over < 20) x *= 0.75;
         if (x < 1) x = 1;
@@ -208,75 +268,41 @@ public class BowlingRecommender {
 
     // ── Bowler selection ──────────────────────────────────────────────────
 
-    private BowlerInfo pickNext(
-            List<BowlerInfo> eligible,
-            String currentBowler,
-            String otherEndBowler,
-            Map<String, Integer> currentSpell,
-            Map<String, Integer> restOvers,
-            Map<String, Integer> requiredRest,
-            int over
-    ) {
+    private int pickNext(int currentBowler, int otherEndBowler, int over) {
         boolean newBall = over <= 10 || over >= 81;
 
-        List<BowlerInfo> candidates = eligible.stream()
-                .filter(b -> !b.getName().equals(currentBowler))
-                .filter(b -> !b.getName().equals(otherEndBowler))
-                .filter(b -> restOvers.getOrDefault(b.getName(), 99)
-                             >= requiredRest.getOrDefault(b.getName(), 0))
-                .filter(b -> !(isPaceMedium(b.getRole())
-                             && currentSpell.getOrDefault(b.getName(), 0) >= 6))
-                .collect(Collectors.toList());
-
-        if (candidates.isEmpty()) {
-            candidates = eligible.stream()
-                    .filter(b -> !b.getName().equals(currentBowler))
-                    .filter(b -> !b.getName().equals(otherEndBowler))
-                    .collect(Collectors.toList());
-        }
-
-        if (candidates.isEmpty()) return getInfo(currentBowler, eligible);
-
-        // New ball: always prefer pace/medium
+        // Preferred type: pace with the new ball, otherwise whatever the
+        // pitch recommends alone; neither (0) = best adjWPB overall
+        int prefer = 0;
         if (newBall) {
-            List<BowlerInfo> pacers = candidates.stream()
-                    .filter(b -> isPaceMedium(b.getRole()))
-                    .collect(Collectors.toList());
-            if (!pacers.isEmpty()) candidates = pacers;
+            prefer = 1;
         } else {
-            // Use pitch to decide seam vs spin preference
-            boolean spinOk  = spinRecommendedAt(over);
-            boolean seamOk  = seamRecommendedAt(over);
-
-            if (seamOk && !spinOk) {
-                // Seam pitch — prefer pacers
-                List<BowlerInfo> pacers = candidates.stream()
-                        .filter(b -> isPaceMedium(b.getRole()))
-                        .collect(Collectors.toList());
-                if (!pacers.isEmpty()) candidates = pacers;
-            } else if (spinOk && !seamOk) {
-                // Spin pitch — prefer spinners
-                List<BowlerInfo> spinners = candidates.stream()
-                        .filter(b -> isSpin(b))
-                        .collect(Collectors.toList());
-                if (!spinners.isEmpty()) candidates = spinners;
-            }
-            // If both or neither recommended, use best adjWPB from all candidates
+            boolean spinOk = spinRecommendedAt(over);
+            boolean seamOk = seamRecommendedAt(over);
+            if (seamOk && !spinOk)      prefer = 1;
+            else if (spinOk && !seamOk) prefer = 2;
         }
 
-        return candidates.stream()
-                .max(Comparator.comparingDouble(b -> getAdjWPB(b.getName())))
-                .orElse(null);
+        // Rested bowlers under their spell cap first, else anyone free
+        int pick = bestCandidate(currentBowler, otherEndBowler, prefer, true);
+        if (pick < 0) pick = bestCandidate(currentBowler, otherEndBowler, prefer, false);
+        return pick < 0 ? currentBowler : pick;
     }
 
-    private BowlerInfo getInfo(String name, List<BowlerInfo> eligible) {
-        return eligible.stream()
-                .filter(b -> b.getName().equals(name))
-                .findFirst().orElse(null);
-    }
-
-    // Helper for pressure when we only have role string
-    private BowlerInfo getInfoByRole(String role) {
-        return new BowlerInfo("_tmp", role != null ? role : "");
+    /**
+     * Highest-quality candidate of the preferred type, or of any type when
+     * none of the preferred type qualifies; the earlier bowler wins ties.
+     */
+    private int bestCandidate(int currentBowler, int otherEndBowler, int prefer, boolean rested) {
+        int best = -1, bestPreferred = -1;
+        for (int k = 0; k < eligibleCount; k++) {
+            int b = order[k];
+            if (b == currentBowler || b == otherEndBowler) continue;
+            if (rested && (restOvers[b] < requiredRest[b] || (pace[b] && currentSpell[b] >= 6))) continue;
+            if (best < 0 || quality[b] > quality[best]) best = b;
+            boolean preferred = (prefer == 1 && pace[b]) || (prefer == 2 && spin[b]);
+            if (preferred && (bestPreferred < 0 || quality[b] > quality[bestPreferred])) bestPreferred = b;
+        }
+        return bestPreferred >= 0 ? bestPreferred : best;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package com.cricket.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.cricket.Main;
+import com.cricket.StatsBundle;
+
+/**
+ * Long Monte Carlo runs that survive a crash.
+ *
+ * The run is split into fixed ranges of RANGE_SIMS simulations. Finished
+ * ranges are merged into one aggregate SimResult and marked in a bitset.
+ * A background thread snapshots {config, seed, completed ranges, aggregate}
+ * every CHECKPOINT_INTERVAL_MILLIS. It writes a temp file and renames it
+ * over the checkpoint, so a crash mid-write leaves the previous one intact.
+ * The simulation threads only hold a lock for the merge itself.
+ *
+ * resume() reruns only the ranges the checkpoint does not cover. Each
+ * simulation is seeded from simSeed(seed, i) and merging is
+ * order-independent, so the final result is identical to an uninterrupted
+ * MonteCarloEngine.run with the same seed.
+ */
+public class CheckpointedMonteCarlo {
+
+    public static final int  RANGE_SIMS                 = 500;
+    public static final long CHECKPOINT_INTERVAL_MILLIS = 30_000;
+
+    /** Everything needed to pick a run back up. */
+    public static class Checkpoint implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public final String configJson;
+        public final int simCount;
+        public final long seed;
+        public final int rangeSims;
+        final BitSet completed = new BitSet();
+        final MonteCarloEngine.SimResult result = new MonteCarloEngine.SimResult();
+
+        Checkpoint(String configJson, int simCount, long seed, int rangeSims) {
+            this.configJson = configJson;
+            this.simCount   = simCount;
+            this.seed       = seed;
+            this.rangeSims  = rangeSims;
+        }
+
+        public int rangeCount() { return (simCount + rangeSims - 1) / rangeSims; }
+
+        int rangeFrom(int r) { return r * rangeSims; }
+        int rangeTo(int r)   { return Math.min(simCount, (r + 1) * rangeSims); }
+
+        public synchronized int simsDone() {
+            int done = 0;
+            for (int r = completed.nextSetBit(0); r >= 0; r = completed.nextSetBit(r + 1)) {
+                done += rangeTo(r) - rangeFrom(r);
+            }
+            return done;
+        }
+
+        public synchronized boolean isComplete() {
+            return completed.cardinality() == rangeCount();
+        }
+
+        synchronized void complete(int range, MonteCarloEngine.SimResult part) {
+            result.merge(part);
+            completed.set(range);
+        }
+
+        /** Serializes under the lock; the disk write happens outside it. */
+        synchronized byte[] snapshot() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(this);
+            }
+            return bytes.toByteArray();
+        }
+
+        public static Checkpoint load(Path path) throws IOException {
+            try (ObjectInputStream in = new ObjectInputStream(
+                    new java.io.BufferedInputStream(Files.newInputStream(path)))) {
+                return (Checkpoint) in.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Not a Monte Carlo checkpoint: " + path, e);
+            }
+        }
+    }
+
+    /** Starts a new run, checkpointing to the given file. */
+    public static MonteCarloEngine.SimResult run(MatchConfig config, int simCount, long seed,
+                                                 StatsBundle bundle, Path checkpointPath,
+                                                 Consumer<Integer> progressCallback) throws Exception {
+        Checkpoint cp = new Checkpoint(MatchConfigCodec.toJson(config), simCount, seed, RANGE_SIMS);
+        return execute(cp, config, bundle, checkpointPath, progressCallback);
+    }
+
+    /** Continues the run stored in a checkpoint file. */
+    public static MonteCarloEngine.SimResult resume(Path checkpointPath, StatsBundle bundle,
+                                                    Consumer<Integer> progressCallback) throws Exception {
+        Checkpoint cp = Checkpoint.load(checkpointPath);
+        MatchConfig config = MatchConfigCodec.fromJson(cp.configJson);
+        return execute(cp, config, bundle, checkpointPath, progressCallback);
+    }
+
+    private static MonteCarloEngine.SimResult execute(Checkpoint cp, MatchConfig config,
+                                                      StatsBundle bundle, Path checkpointPath,
+                                                      Consumer<Integer> progressCallback) {
+        List<Integer> pending = new ArrayList<>();
+        for (int r = 0; r < cp.rangeCount(); r++) {
+            if (!cp.completed.get(r)) pending.add(r);
+        }
+        if (pending.isEmpty()) return cp.result;
+
+        MatchupTable matchups = MatchupTable.compile(bundle, config);
+        LookaheadCaptain captain = MonteCarloEngine.newCaptain(config, bundle, matchups, cp.seed);
+        AtomicInteger done = new AtomicInteger(cp.simsDone());
+
+        ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mc-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(() -> write(cp, checkpointPath),
+                CHECKPOINT_INTERVAL_MILLIS, CHECKPOINT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        try {
+            pending.parallelStream().forEach(r -> {
+                MonteCarloEngine.SimResult part = MonteCarloEngine.simulateRange(
+                        config, bundle, matchups, cp.seed, captain, cp.rangeFrom(r), cp.rangeTo(r));
+                cp.complete(r, part);
+                int d = done.addAndGet(cp.rangeTo(r) - cp.rangeFrom(r));
+                if (progressCallback != null) progressCallback.accept(d);
+            });
+        } finally {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            write(cp, checkpointPath);
+        }
+        return cp.result;
+    }
+
+    private static void write(Checkpoint cp, Path path) {
+        try {
+            byte[] bytes = cp.snapshot();
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Checkpoint write failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Usage:
+     *   CheckpointedMonteCarlo run config.json simCount seed checkpoint [result.ser]
+     *   CheckpointedMonteCarlo resume checkpoint [result.ser]
+     */
+    public static void main(String[] args) throws Exception {
+        boolean isRun = args.length >= 5 && args[0].equals("run");
+        boolean isResume = args.length >= 2 && args[0].equals("resume");
+        if (!isRun && !isResume) {
+            System.err.println("Usage: CheckpointedMonteCarlo run <config.json> <simCount> <seed> <checkpoint> [result.ser]");
+            System.err.println("       CheckpointedMonteCarlo resume <checkpoint> [result.ser]");
+            System.exit(2);
+        }
+        StatsBundle bundle = Main.buildStats();
+        long t0 = System.currentTimeMillis();
+        MonteCarloEngine.SimResult r;
+        String out;
+        if (isRun) {
+            MatchConfig config = MatchConfigCodec.fromJson(Files.readString(Path.of(args[1])));
+            int simCount = Integer.parseInt(args[2]);
+            r = run(config, simCount, Long.parseLong(args[3]), bundle, Path.of(args[4]),
+                    d -> System.out.println("  " + d + " / " + simCount));
+            out = args.length > 5 ? args[5] : null;
+        } else {
+            r = resume(Path.of(args[1]), bundle, d -> System.out.println("  " + d));
+            out = args.length > 2 ? args[2] : null;
+        }
+        System.out.printf("Wins A %d  |  Draw %d  |  Wins B %d   (%d sims, %.1fs)%n",
+                r.teamAWins, r.draws, r.teamBWins, r.total,
+                (System.currentTimeMillis() - t0) / 1000.0);
+        if (out != null) r.save(Path.of(out));
+    }
+}
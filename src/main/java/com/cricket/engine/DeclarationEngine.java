@@ -5,12 +5,48 @@ import java.util.Random;
 
 public class DeclarationEngine {
 
-    private final Random random = new Random();
+    private final Random random;
+
+    /**
+     * Optional captain lookahead (see LookaheadCaptain). Returns true or
+     * false to decide, or null when it has no answer for this state.
+     */
+    public interface Lookahead {
+        Boolean decide(int inningsNumber, int lead, int wickets, double remainingOvers);
+    }
+
+    private Lookahead lookahead;
 
     // Baseline runs per over used to estimate what opposition can score
     // in remaining time. Roughly 3.0 rpo for test cricket.
     private static final double TEST_RPO = 3.0;
 
+    public DeclarationEngine() {
+        this(new Random());
+    }
+
+    public DeclarationEngine(Random random) {
+        this.random = random;
+    }
+
+    /** Consult a lookahead instead of the thresholds below; null restores them. */
+    public void setLookahead(Lookahead lookahead) {
+        this.lookahead = lookahead;
+    }
+
+    /** Without wickets — a lookahead, if set, sees none down. */
+    public boolean shouldDeclare(
+            int inningsNumber,
+            int inningsRuns,
+            double inningsOvers,
+            int lead,
+            double remainingOvers,
+            Map<String, Integer> batterScores
+    ) {
+        return shouldDeclare(inningsNumber, inningsRuns, inningsOvers, lead,
+                remainingOvers, 0, batterScores);
+    }
+
     /**
      * Called after every ball in a declarable innings.
      *
@@ -20,6 +56,7 @@ public class DeclarationEngine {
      * @param lead              current lead (positive = batting team ahead).
      *                          For 1st innings this is just inningsRuns (no lead yet).
      * @param remainingOvers    overs left in the match
+     * @param wickets           wickets down this innings
      * @param batterScores      map of batter name → runs scored so far this innings
      * @return true if the captain should declare
      */
@@ -29,6 +66,7 @@ public class DeclarationEngine {
             double inningsOvers,
             int lead,
             double remainingOvers,
+            int wickets,
             Map<String, Integer> batterScores
     ) {
 
@@ -47,6 +85,15 @@ public class DeclarationEngine {
             }
         }
 
+        // Lookahead captain: asked once per completed over. A state its table
+        // does not hold (null) is left to the thresholds below for this call
+        // only; the next over asks the lookahead again.
+        if (lookahead != null) {
+            if (Math.round(inningsOvers * 6) % 6 != 0) return false;
+            Boolean decision = lookahead.decide(inningsNumber, lead, wickets, remainingOvers);
+            if (decision != null) return decision;
+        }
+
         // --- Innings-specific logic ---
 
         if (inningsNumber == 1) {
@@ -0,0 +1,219 @@
+package com.cricket.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Coordinator for multi-process Monte Carlo runs.
+ *
+ * The run is cut into fixed simulation ranges; because simulation i always
+ * uses MonteCarloEngine.simSeed(seed, i), every range has exactly one
+ * possible result no matter which process computes it or how often.
+ * Work is handed out through a spool directory that any number of
+ * MonteCarloWorker JVMs on the same box can share:
+ *
+ *   spool/run.properties      seed + sim count
+ *   spool/config.json         MatchConfigCodec form of the match
+ *   spool/jobs/F-T.job        pending range [F, T)
+ *   spool/claimed/F-T.W       range taken by worker W (mtime = heartbeat)
+ *   spool/results/F-T.result  serialized partial SimResult
+ *   spool/DONE                written once everything is merged
+ *
+ * Workers claim a job with an atomic rename, so no two take the same one.
+ * If a launched worker exits, or a claim's heartbeat goes stale, the range
+ * is put back in jobs/ and re-issued. A range that ends up computed twice
+ * produces an identical file and is merged only once.
+ */
+public class DistributedMonteCarlo {
+
+    static final String JOBS_DIR    = "jobs";
+    static final String CLAIMED_DIR = "claimed";
+    static final String RESULTS_DIR = "results";
+    static final String DONE_FILE   = "DONE";
+
+    private static final long LEASE_MILLIS = 60_000;   // heartbeat older than this = worker gone
+    private static final long POLL_MILLIS  = 250;
+
+    /**
+     * Runs simCount simulations across `workers` child JVMs and merges the
+     * partial results. Blocks until done. The spool directory must be empty
+     * or absent.
+     */
+    public static MonteCarloEngine.SimResult run(MatchConfig config, int simCount, long seed,
+                                                 int workers, Path spool,
+                                                 Consumer<Integer> progressCallback) throws Exception {
+        prepareSpool(config, simCount, seed, spool);
+
+        // Aim for several ranges per worker so a dead worker costs little
+        int rangeSize = Math.max(100, (simCount + workers * 8 - 1) / (workers * 8));
+        Set<String> pending = new HashSet<>();
+        for (int from = 0; from < simCount; from += rangeSize) {
+            String range = from + "-" + Math.min(simCount, from + rangeSize);
+            Files.createFile(spool.resolve(JOBS_DIR).resolve(range + ".job"));
+            pending.add(range);
+        }
+
+        Map<String, Process> procs = new HashMap<>();
+        int launched = 0;
+        for (int w = 0; w < workers; w++) procs.put("w" + launched, launch(spool, "w" + launched++));
+        int restartBudget = workers * 3;
+
+        MonteCarloEngine.SimResult merged = new MonteCarloEngine.SimResult();
+        int simsDone = 0;
+
+        try {
+            while (!pending.isEmpty()) {
+                // ── Merge finished ranges ─────────────────────────────────
+                try (Stream<Path> files = Files.list(spool.resolve(RESULTS_DIR))) {
+                    for (Path p : files.filter(f -> f.toString().endsWith(".result")).toList()) {
+                        String range = stripSuffix(p.getFileName().toString(), ".result");
+                        if (!pending.remove(range)) continue;
+                        merged.merge(MonteCarloEngine.SimResult.load(p));
+                        int[] ft = parseRange(range);
+                        simsDone += ft[1] - ft[0];
+                        if (progressCallback != null) progressCallback.accept(simsDone);
+                    }
+                }
+                if (pending.isEmpty()) break;
+
+                // ── Re-issue work from dead workers ───────────────────────
+                for (String id : new ArrayList<>(procs.keySet())) {
+                    if (procs.get(id).isAlive()) continue;
+                    System.err.println("Monte Carlo worker " + id + " exited ("
+                            + procs.get(id).exitValue() + ") — re-issuing its ranges");
+                    procs.remove(id);
+                    requeueClaims(spool, c -> c.endsWith("." + id));
+                    if (restartBudget-- > 0) {
+                        procs.put("w" + launched, launch(spool, "w" + launched++));
+                    }
+                }
+                if (procs.isEmpty()) {
+                    throw new IOException("All Monte Carlo workers failed — see " + spool.resolve("logs"));
+                }
+
+                // ── Re-issue stale claims (external workers) ──────────────
+                long now = System.currentTimeMillis();
+                requeueClaims(spool, c -> {
+                    try {
+                        return now - Files.getLastModifiedTime(
+                                spool.resolve(CLAIMED_DIR).resolve(c)).toMillis() > LEASE_MILLIS;
+                    } catch (IOException e) {
+                        return false;
+                    }
+                });
+
+                Thread.sleep(POLL_MILLIS);
+            }
+        } finally {
+            Files.writeString(spool.resolve(DONE_FILE), "done");
+            for (Process p : procs.values()) {
+                if (!p.waitFor(5, java.util.concurrent.TimeUnit.SECONDS)) p.destroy();
+            }
+        }
+        return merged;
+    }
+
+    // ── Spool helpers ─────────────────────────────────────────────────────
+
+    private static void prepareSpool(MatchConfig config, int simCount, long seed, Path spool)
+            throws Exception {
+        if (Files.isDirectory(spool)) {
+            try (Stream<Path> s = Files.list(spool)) {
+                if (s.findAny().isPresent()) {
+                    throw new IOException("Spool directory is not empty: " + spool);
+                }
+            }
+        }
+        Files.createDirectories(spool.resolve(JOBS_DIR));
+        Files.createDirectories(spool.resolve(CLAIMED_DIR));
+        Files.createDirectories(spool.resolve(RESULTS_DIR));
+        Files.createDirectories(spool.resolve("logs"));
+
+        Files.writeString(spool.resolve("config.json"), MatchConfigCodec.toJson(config));
+        Properties props = new Properties();
+        props.setProperty("seed", Long.toString(seed));
+        props.setProperty("simCount", Integer.toString(simCount));
+        try (var out = Files.newOutputStream(spool.resolve("run.properties"))) {
+            props.store(out, "Monte Carlo run");
+        }
+    }
+
+    /** Moves matching claims back to jobs/, unless the range already has a result. */
+    private static void requeueClaims(Path spool, java.util.function.Predicate<String> match)
+            throws IOException {
+        Path claimed = spool.resolve(CLAIMED_DIR);
+        try (Stream<Path> files = Files.list(claimed)) {
+            for (Path c : files.toList()) {
+                String name = c.getFileName().toString();
+                if (!match.test(name)) continue;
+                String range = name.substring(0, name.lastIndexOf('.'));
+                if (Files.exists(spool.resolve(RESULTS_DIR).resolve(range + ".result"))) {
+                    Files.deleteIfExists(c);
+                    continue;
+                }
+                try {
+                    Files.move(c, spool.resolve(JOBS_DIR).resolve(range + ".job"),
+                            StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException ignored) {
+                    // Worker finished or released it in the meantime
+                }
+            }
+        }
+    }
+
+    private static Process launch(Path spool, String workerId) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        ProcessBuilder pb = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                MonteCarloWorker.class.getName(),
+                spool.toAbsolutePath().toString(), workerId);
+        File log = spool.resolve("logs").resolve(workerId + ".log").toFile();
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(log);
+        return pb.start();
+    }
+
+    static int[] parseRange(String range) {
+        int dash = range.indexOf('-');
+        return new int[]{
+                Integer.parseInt(range.substring(0, dash)),
+                Integer.parseInt(range.substring(dash + 1))};
+    }
+
+    static String stripSuffix(String name, String suffix) {
+        return name.substring(0, name.length() - suffix.length());
+    }
+
+    /**
+     * Usage: DistributedMonteCarlo config.json simCount seed workers spoolDir [result.ser]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("Usage: DistributedMonteCarlo <config.json> <simCount> <seed> "
+                    + "<workers> <spoolDir> [result.ser]");
+            System.exit(2);
+        }
+        MatchConfig config = MatchConfigCodec.fromJson(Files.readString(Path.of(args[0])));
+        int simCount = Integer.parseInt(args[1]);
+        long t0 = System.currentTimeMillis();
+        MonteCarloEngine.SimResult r = run(config, simCount, Long.parseLong(args[2]),
+                Integer.parseInt(args[3]), Path.of(args[4]),
+                done -> System.out.println("  " + done + " / " + simCount));
+        System.out.printf("%s %d  |  Draw %d  |  %s %d   (%d sims, %.1fs)%n",
+                config.teamAName, r.teamAWins, r.draws, config.teamBName, r.teamBWins,
+                r.total, (System.currentTimeMillis() - t0) / 1000.0);
+        if (args.length > 5) r.save(Path.of(args[5]));
+    }
+}
@@ -1,6 +1,8 @@
 package com.cricket.engine;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -11,12 +13,19 @@ public class InningsEngine {
 
     private final BallEngine ballEngine;
     private final PlayerRoleLoader roleLoader;
-    private final Random random = new Random();
+    private final Random random;
 
     public InningsEngine(BallEngine ballEngine,
                          PlayerRoleLoader roleLoader) {
+        this(ballEngine, roleLoader, new Random());
+    }
+
+    public InningsEngine(BallEngine ballEngine,
+                         PlayerRoleLoader roleLoader,
+                         Random random) {
         this.ballEngine = ballEngine;
         this.roleLoader = roleLoader;
+        this.random = random;
     }
 
     /**
@@ -72,6 +81,16 @@ public class InningsEngine {
             batterScores.put(batter, 0);
         }
 
+        // Scorecard — batters are added as they reach the crease,
+        // bowlers in the order they first bowl
+        BatterRecord[] batterCards = new BatterRecord[battingOrder.size()];
+        Map<String, BowlerRecord> bowlerCards = new LinkedHashMap<>();
+        List<BatterRecord> battingCard = new ArrayList<>();
+        battingCard.add(batterCards[0] = new BatterRecord(battingOrder.get(0)));
+        if (battingOrder.size() > 1) {
+            battingCard.add(batterCards[1] = new BatterRecord(battingOrder.get(1)));
+        }
+
         boolean declared = false;
 
         while (wickets < 10 && balls < maxBalls) {
@@ -106,6 +125,7 @@ public class InningsEngine {
                         inningsOvers,
                         lead,
                         remainingOvers,
+                        wickets,
                         batterScores
                 )) {
                     declared = true;
@@ -123,9 +143,18 @@ public class InningsEngine {
             balls++;
             spellBalls++;
 
+            BowlerRecord bowlerCard = bowlerCards.get(bowler);
+            if (bowlerCard == null) {
+                bowlerCard = new BowlerRecord(bowler);
+                bowlerCards.put(bowler, bowlerCard);
+            }
+
             if (outcome.isWicket()) {
 
                 wickets++;
+                batterCards[strikerIndex].record(0, true);
+                batterCards[strikerIndex].dismissalInfo = "b " + bowler;
+                bowlerCard.record(0, true);
 
                 // Last wicket fragility
                 if (wickets == 9 && random.nextDouble() < 0.15) {
@@ -135,6 +164,8 @@ public class InningsEngine {
                 if (nextBatterIndex < battingOrder.size()) {
                     strikerIndex = nextBatterIndex;
                     nextBatterIndex++;
+                    battingCard.add(batterCards[strikerIndex] =
+                            new BatterRecord(battingOrder.get(strikerIndex)));
                 } else {
                     break;
                 }
@@ -160,6 +191,8 @@ public class InningsEngine {
                 }
 
                 totalRuns += runs;
+                batterCards[strikerIndex].record(runs, false);
+                bowlerCard.record(runs, false);
 
                 // Update individual batter score
                 batterScores.merge(striker, runs, Integer::sum);
@@ -193,7 +226,9 @@ public class InningsEngine {
             }
         }
 
-        return new InningsResult(totalRuns, wickets, balls, declared);
+        return new InningsResult(totalRuns, wickets, balls, declared,
+                battingCard, new ArrayList<>(bowlerCards.values()),
+                new ArrayList<>(), new ArrayList<>());
     }
 
     public void setPitch(PitchProfile pitch) {
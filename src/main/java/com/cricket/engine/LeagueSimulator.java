@@ -0,0 +1,262 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Round-robin championship simulator (built for 10–18 teams): every pair meets once
+ * per leg at the home side's pitch, points from a configurable table.
+ *
+ * Two stages:
+ *   1. Each fixture is simulated matchesPerFixture times with
+ *      MonteCarloEngine (SilentMatchEngine underneath) to get its win /
+ *      draw / loss probabilities. Fixtures are the same every season and
+ *      matches do not affect each other, so this is done once.
+ *   2. Seasons draw every fixture's result from those probabilities.
+ *      They are sharded across cores; season i is seeded from
+ *      MonteCarloEngine.simSeed(seed, i), so the result does not depend
+ *      on the split.
+ *
+ * Each season keeps a compact record — points and final rank per team —
+ * and the shards add into a position-probability matrix and points
+ * histograms. 100,000 seasons of 18 teams is a few seconds once stage 1
+ * is done; stage 1 is (teams × (teams − 1) × legs / 2) ordinary Monte
+ * Carlo runs.
+ */
+public class LeagueSimulator {
+
+    /** One side: XI, the plan it bowls with, and its home pitch. */
+    public static class Team {
+        public final String name;
+        public final List<String> xi;
+        public final BowlingPlan plan;
+        public final PitchProfile homePitch;
+
+        public Team(String name, List<String> xi, BowlingPlan plan, PitchProfile homePitch) {
+            this.name      = name;
+            this.xi        = List.copyOf(xi);
+            this.plan      = plan;
+            this.homePitch = homePitch != null ? homePitch : PitchProfile.neutral();
+        }
+    }
+
+    /** Points per result. Ties on points are split by wins, then drawn at random. */
+    public static class PointsTable {
+        public final int win;
+        public final int draw;
+        public final int loss;
+
+        public PointsTable(int win, int draw, int loss) {
+            this.win  = win;
+            this.draw = draw;
+            this.loss = loss;
+        }
+
+        /** Six for a win, one for a draw, nothing for a loss. */
+        public static PointsTable standard() { return new PointsTable(6, 1, 0); }
+    }
+
+    /** Fixture probabilities, standings distribution, and per-season records. */
+    public static class LeagueResult {
+        public final List<String> teams;
+        public final int seasons;
+        public final double[][] fixtureProbs;   // per fixture: {home win, draw, away win}
+        public final int[][] fixtures;          // per fixture: {home, away}
+        public final long[][] positionCounts;   // [team][final position, 0 = champions]
+        public final ScoreHistogram[] points;   // per team, distribution of season points
+
+        // Compact per-season record: [season * teams + team]
+        private final short[] seasonPoints;
+        private final byte[]  seasonRanks;
+
+        LeagueResult(List<String> teams, int seasons, int[][] fixtures, double[][] fixtureProbs,
+                     int maxPoints) {
+            this.teams        = teams;
+            this.seasons      = seasons;
+            this.fixtures     = fixtures;
+            this.fixtureProbs = fixtureProbs;
+            int n = teams.size();
+            positionCounts = new long[n][n];
+            points = new ScoreHistogram[n];
+            for (int t = 0; t < n; t++) points[t] = new ScoreHistogram(maxPoints);
+            seasonPoints = new short[seasons * n];
+            seasonRanks  = new byte[seasons * n];
+        }
+
+        /** Probability that team finishes in position (0 = first). */
+        public double positionProb(String team, int position) {
+            int t = teams.indexOf(team);
+            return t < 0 || seasons == 0 ? 0.0 : positionCounts[t][position] / (double) seasons;
+        }
+
+        /** [team][position] probabilities, rows in teams order. */
+        public double[][] positionMatrix() {
+            int n = teams.size();
+            double[][] m = new double[n][n];
+            for (int t = 0; t < n; t++) {
+                for (int p = 0; p < n; p++) m[t][p] = seasons == 0 ? 0 : positionCounts[t][p] / (double) seasons;
+            }
+            return m;
+        }
+
+        public double titleProb(String team) { return positionProb(team, 0); }
+
+        public double meanPoints(String team) {
+            int t = teams.indexOf(team);
+            return t < 0 ? 0.0 : points[t].mean();
+        }
+
+        public int seasonPoints(int season, int team) { return seasonPoints[season * teams.size() + team]; }
+        public int seasonRank(int season, int team)   { return seasonRanks[season * teams.size() + team]; }
+    }
+
+    private final StatsBundle bundle;
+    private final List<Team> teams;
+    private PointsTable pointsTable = PointsTable.standard();
+    private int legs = 2;
+    private int matchesPerFixture = 500;
+    private long seed = new Random().nextLong();
+
+    public LeagueSimulator(StatsBundle bundle, List<Team> teams) {
+        if (teams.size() < 2 || teams.size() > 127) {
+            throw new IllegalArgumentException("A league needs 2–127 teams, got " + teams.size());
+        }
+        this.bundle = bundle;
+        this.teams  = List.copyOf(teams);
+    }
+
+    public LeagueSimulator pointsTable(PointsTable table) { this.pointsTable = table; return this; }
+    public LeagueSimulator legs(int legs)                  { this.legs = legs;         return this; }
+    public LeagueSimulator matchesPerFixture(int n)        { this.matchesPerFixture = n; return this; }
+    public LeagueSimulator seed(long seed)                 { this.seed = seed;         return this; }
+
+    /** Progress messages go to the consumer (may be null). */
+    public LeagueResult run(int seasons, Consumer<String> progress) {
+        int[][] fixtures = fixtures();
+        double[][] probs = fixtureProbabilities(fixtures, progress);
+
+        int n = teams.size();
+        int maxPoints = (n - 1) * legs * Math.max(pointsTable.win, Math.max(pointsTable.draw, pointsTable.loss));
+        if (maxPoints > Short.MAX_VALUE) throw new IllegalArgumentException("Points do not fit a season record");
+        List<String> names = new ArrayList<>();
+        for (Team t : teams) names.add(t.name);
+        LeagueResult result = new LeagueResult(List.copyOf(names), seasons, fixtures, probs, maxPoints);
+
+        int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), seasons));
+        List<LeagueResult> partials = IntStream.range(0, workers).parallel()
+                .mapToObj(w -> {
+                    LeagueResult part = new LeagueResult(result.teams, 0, fixtures, probs, maxPoints);
+                    int from = (int) ((long) seasons * w / workers);
+                    int to   = (int) ((long) seasons * (w + 1) / workers);
+                    playSeasons(from, to, fixtures, probs, result, part);
+                    return part;
+                })
+                .toList();
+
+        for (LeagueResult part : partials) {
+            for (int t = 0; t < n; t++) {
+                for (int p = 0; p < n; p++) result.positionCounts[t][p] += part.positionCounts[t][p];
+                result.points[t].merge(part.points[t]);
+            }
+        }
+        if (progress != null) progress.accept("Simulated " + seasons + " seasons");
+        return result;
+    }
+
+    // ── Stage 1: fixtures ─────────────────────────────────────────────────
+
+    /** {home, away} for every match of a season. */
+    private int[][] fixtures() {
+        List<int[]> out = new ArrayList<>();
+        for (int leg = 0; leg < legs; leg++) {
+            for (int i = 0; i < teams.size(); i++) {
+                for (int j = i + 1; j < teams.size(); j++) {
+                    out.add(leg % 2 == 0 ? new int[] { i, j } : new int[] { j, i });
+                }
+            }
+        }
+        return out.toArray(new int[0][]);
+    }
+
+    private double[][] fixtureProbabilities(int[][] fixtures, Consumer<String> progress) {
+        List<String> everyone = new ArrayList<>();
+        for (Team t : teams) everyone.addAll(t.xi);
+        MatchupTable matchups = MatchupTable.compile(bundle, everyone);
+
+        double[][] probs = new double[fixtures.length][];
+        for (int f = 0; f < fixtures.length; f++) {
+            Team home = teams.get(fixtures[f][0]);
+            Team away = teams.get(fixtures[f][1]);
+            MatchConfig c = new MatchConfig();
+            c.teamAName = home.name;  c.teamAXI = home.xi;  c.teamABowlingPlan = home.plan;
+            c.teamBName = away.name;  c.teamBXI = away.xi;  c.teamBBowlingPlan = away.plan;
+            c.pitchProfile = home.homePitch;
+
+            MonteCarloEngine.SimResult r = MonteCarloEngine.run(c, matchesPerFixture, bundle,
+                    matchups, MonteCarloEngine.simSeed(seed, f), null);
+            double total = Math.max(1, r.total);
+            probs[f] = new double[] { r.teamAWins / total, r.draws / total, r.teamBWins / total };
+            if (progress != null) {
+                progress.accept("Fixture " + (f + 1) + " / " + fixtures.length
+                        + ": " + home.name + " v " + away.name);
+            }
+        }
+        return probs;
+    }
+
+    // ── Stage 2: seasons ──────────────────────────────────────────────────
+
+    private void playSeasons(int from, int to, int[][] fixtures, double[][] probs,
+                             LeagueResult records, LeagueResult part) {
+        int n = teams.size();
+        Random rng = new Random();
+        int[] pts = new int[n];
+        int[] wins = new int[n];
+        double[] tieBreak = new double[n];
+        Integer[] order = new Integer[n];
+
+        for (int s = from; s < to; s++) {
+            rng.setSeed(MonteCarloEngine.simSeed(seed, s));
+            Arrays.fill(pts, 0);
+            Arrays.fill(wins, 0);
+
+            for (int f = 0; f < fixtures.length; f++) {
+                int home = fixtures[f][0], away = fixtures[f][1];
+                double u = rng.nextDouble();
+                if (u < probs[f][0]) {
+                    pts[home] += pointsTable.win;  wins[home]++;
+                    pts[away] += pointsTable.loss;
+                } else if (u < probs[f][0] + probs[f][1]) {
+                    pts[home] += pointsTable.draw;
+                    pts[away] += pointsTable.draw;
+                } else {
+                    pts[away] += pointsTable.win;  wins[away]++;
+                    pts[home] += pointsTable.loss;
+                }
+            }
+
+            for (int t = 0; t < n; t++) {
+                order[t] = t;
+                tieBreak[t] = rng.nextDouble();
+            }
+            Arrays.sort(order, (a, b) -> pts[a] != pts[b] ? pts[b] - pts[a]
+                    : wins[a] != wins[b] ? wins[b] - wins[a]
+                    : Double.compare(tieBreak[a], tieBreak[b]));
+
+            int base = s * n;
+            for (int rank = 0; rank < n; rank++) {
+                int t = order[rank];
+                records.seasonPoints[base + t] = (short) pts[t];
+                records.seasonRanks[base + t]  = (byte) rank;
+                part.positionCounts[t][rank]++;
+                part.points[t].record(pts[t]);
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.cricket.engine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Declaration and follow-on calls made by nested Monte Carlo instead of
+ * DeclarationEngine's thresholds and the automatic follow-on.
+ *
+ * At a decision point each option (declare now / bat on for BAT_ON_OVERS
+ * overs; enforce the follow-on / bat again) is played out simsPerOption
+ * times with the default rules, on the same seeds, and the option with the
+ * more wins for the deciding side is taken (fewer losses breaks a tie;
+ * a dead heat keeps batting, or keeps the follow-on).
+ *
+ * Decisions are memoized by a bucketed state key: lead (25-run buckets),
+ * overs left (10-over buckets), wickets down and pitch wear (innings
+ * completed), plus which side is deciding. Each bucket is simulated from
+ * a canonical state built from the key and seeded from it, so a decision
+ * depends only on the key — not on which match reached the bucket first.
+ *
+ * Which buckets get a decision must not depend on thread scheduling
+ * either, so the table is built before any outer match is answered. On
+ * first use the captain plays the run's own seeded matches 0, 1, 2, ...
+ * one at a time, deciding every new bucket they reach (the nested
+ * simulations for one decision run in parallel), until the hard budget
+ * of nested simulations or warmUpSims matches is used up. After that the
+ * table is frozen: states in it get its decision, any other state gets
+ * null and the callers fall back to the default rules. The answers are
+ * therefore a pure function of config, seed, budget and warmUpSims — two
+ * captains built alike answer identically, and a run split into ranges,
+ * chunks or worker processes merges to exactly the single-run result.
+ *
+ * Building the table is the expensive part, so create one instance per
+ * run (MonteCarloEngine.newCaptain) and pass it to every range of that
+ * run. It is thread-safe.
+ */
+public class LookaheadCaptain {
+
+    private static final int LEAD_BUCKET  = 25;
+    private static final int OVERS_BUCKET = 10;
+    private static final int BAT_ON_OVERS = 10;
+    private static final int FOLLOW_ON_LEAD = 200;
+
+    // Below these a declaration is not worth simulating
+    private static final int    MIN_FIRST_INNINGS_RUNS = 350;
+    private static final int    MIN_LEAD               = 100;
+    private static final double MIN_OVERS_LEFT         = 15;
+
+    private final MatchConfig config;
+    private final StatsBundle bundle;
+    private final MatchupTable matchups;
+    private final long seed;
+
+    private int simsPerOption = 24;
+    private long budget = 20_000;
+    private int warmUpSims = 500;
+
+    // Written only by the warm-up thread, then read-only once `ready` is set
+    private final Map<String, Boolean> memo = new HashMap<>();
+    private long spent;
+    private boolean warming;
+    private volatile boolean ready;
+    private final AtomicLong lookups = new AtomicLong();
+
+    public LookaheadCaptain(MatchConfig config, StatsBundle bundle,
+                            MatchupTable matchups, long seed) {
+        this.config   = config;
+        this.bundle   = bundle;
+        this.matchups = matchups;
+        this.seed     = seed;
+    }
+
+    public LookaheadCaptain simsPerOption(int sims) { this.simsPerOption = sims; return this; }
+    public LookaheadCaptain budget(long nestedSims) { this.budget = nestedSims;  return this; }
+    public LookaheadCaptain warmUpSims(int sims)    { this.warmUpSims = sims;    return this; }
+
+    // Table statistics read 0 until the table has been built
+    public long nestedSimsUsed()  { return ready ? spent : 0; }
+    public int  statesMemoized()  { return ready ? memo.size() : 0; }
+    public long decisionsServed() { return lookups.get(); }
+
+    // ── Decision table ────────────────────────────────────────────────────
+
+    /**
+     * Builds the decision table if it has not been built yet. Called on
+     * first use; other threads wait for it. Idempotent.
+     */
+    public synchronized void prepare() {
+        if (ready || warming) return;
+        warming = true;
+        try {
+            for (int i = 0; i < warmUpSims && spent + 2L * simsPerOption <= budget; i++) {
+                Random rng = new Random(MonteCarloEngine.simSeed(seed, i));
+                SilentMatchEngine engine = engine(rng);
+                engine.setCaptain(this);
+                try {
+                    engine.simulate(config.teamAName, config.teamAXI,
+                            config.teamBName, config.teamBXI,
+                            config.teamABowlingPlan, config.teamBBowlingPlan);
+                } catch (Exception e) {
+                    // Failed matches are skipped by the run as well
+                }
+            }
+        } finally {
+            warming = false;
+            ready = true;
+        }
+    }
+
+    /** During warm-up: decide and record the key. Afterwards: the table's answer or null. */
+    private Boolean lookup(String key, BooleanSupplier decide) {
+        lookups.incrementAndGet();
+        if (!ready) prepare();
+        Boolean known = memo.get(key);
+        if (known != null || !warming) return known;
+        long need = 2L * simsPerOption;
+        if (spent + need > budget) return null;
+        spent += need;
+        boolean decision = decide.getAsBoolean();
+        memo.put(key, decision);
+        return decision;
+    }
+
+    // ── Decisions ─────────────────────────────────────────────────────────
+
+    /**
+     * @param batting  side that would declare
+     * @param followOn true if this is the third innings of a follow-on
+     * @return true to declare, false to bat on, null when out of budget
+     */
+    public Boolean shouldDeclare(String batting, int inningsNumber, boolean followOn,
+                                 int lead, int wickets, double remainingOvers) {
+        if (inningsNumber >= 4 || remainingOvers < MIN_OVERS_LEFT) return false;
+        if (inningsNumber == 1 ? lead < MIN_FIRST_INNINGS_RUNS : lead < MIN_LEAD) return false;
+
+        int leadBucket  = Math.floorDiv(lead, LEAD_BUCKET);
+        int oversBucket = (int) (remainingOvers / OVERS_BUCKET);
+        int wear = inningsNumber - 1;
+        String key = "D|" + batting + "|" + inningsNumber + "|" + followOn + "|"
+                + leadBucket + "|" + oversBucket + "|" + wickets + "|" + wear;
+        return lookup(key, () -> decideDeclaration(key, batting, inningsNumber, followOn,
+                leadBucket, oversBucket, wickets));
+    }
+
+    private boolean decideDeclaration(String key, String batting, int inningsNumber,
+                                      boolean followOn, int leadBucket, int oversBucket,
+                                      int wickets) {
+        // Canonical state for the bucket. Only the lead matters to the rest
+        // of the match, so earlier innings are set to make it come out right.
+        int rep = centre(leadBucket, LEAD_BUCKET);
+        int usedBalls = usedBalls(oversBucket);
+        boolean firstBats = inningsNumber == 1 || (inningsNumber == 3 && !followOn);
+        String other = other(batting);
+        String first  = firstBats ? batting : other;
+        String second = firstBats ? other : batting;
+
+        int[] runs = new int[4];
+        int partial = rep;
+        if (inningsNumber == 3 && followOn) {
+            runs[0] = FOLLOW_ON_LEAD;
+            partial = rep + FOLLOW_ON_LEAD;
+        }
+        Boolean enforced = inningsNumber == 3 ? followOn : null;
+
+        long keySeed = MonteCarloEngine.simSeed(seed, key.hashCode());
+        int finalPartial = partial;
+        String[] declare = new String[simsPerOption], batOn = new String[simsPerOption];
+        IntStream.range(0, simsPerOption).parallel().forEach(j -> {
+            declare[j] = nested(keySeed, j).resumeDeclaration(
+                    first, xi(first), plan(first), second, xi(second), plan(second),
+                    runs.clone(), inningsNumber - 1, enforced, usedBalls, finalPartial, wickets, 0);
+            batOn[j] = nested(keySeed, j).resumeDeclaration(
+                    first, xi(first), plan(first), second, xi(second), plan(second),
+                    runs.clone(), inningsNumber - 1, enforced, usedBalls, finalPartial, wickets,
+                    BAT_ON_OVERS);
+        });
+        return better(tally(declare, batting), tally(batOn, batting));
+    }
+
+    /**
+     * @param leading side that batted first and leads by at least 200
+     * @return true to enforce, false to bat again, null when out of budget
+     */
+    public Boolean shouldEnforceFollowOn(String leading, int lead, double remainingOvers) {
+        int leadBucket  = Math.floorDiv(lead, LEAD_BUCKET);
+        int oversBucket = (int) (remainingOvers / OVERS_BUCKET);
+        String key = "F|" + leading + "|" + leadBucket + "|" + oversBucket + "|2";
+        return lookup(key, () -> decideFollowOn(key, leading, leadBucket, oversBucket));
+    }
+
+    private boolean decideFollowOn(String key, String leading, int leadBucket, int oversBucket) {
+        int[] runs = { Math.max(FOLLOW_ON_LEAD, centre(leadBucket, LEAD_BUCKET)), 0, 0, 0 };
+        int usedBalls = usedBalls(oversBucket);
+        String other = other(leading);
+
+        long keySeed = MonteCarloEngine.simSeed(seed, key.hashCode());
+        String[] enforceIt = new String[simsPerOption], batAgain = new String[simsPerOption];
+        IntStream.range(0, simsPerOption).parallel().forEach(j -> {
+            enforceIt[j] = nested(keySeed, j).resumeAfterSecondInnings(
+                    leading, xi(leading), plan(leading), other, xi(other), plan(other),
+                    runs.clone(), true, usedBalls);
+            batAgain[j] = nested(keySeed, j).resumeAfterSecondInnings(
+                    leading, xi(leading), plan(leading), other, xi(other), plan(other),
+                    runs.clone(), false, usedBalls);
+        });
+        // Enforcing is the default, so it keeps a dead heat
+        return !better(tally(batAgain, leading), tally(enforceIt, leading));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    /** {wins, losses} for side over the nested outcomes. */
+    private static int[] tally(String[] outcomes, String side) {
+        int[] winsLosses = new int[2];
+        for (String outcome : outcomes) {
+            if (outcome.startsWith(side + " wins"))             winsLosses[0]++;
+            else if (!outcome.equals(SilentMatchEngine.DRAWN))  winsLosses[1]++;
+        }
+        return winsLosses;
+    }
+
+    /** More wins, then fewer losses; a dead heat is not better. */
+    private static boolean better(int[] a, int[] b) {
+        return a[0] != b[0] ? a[0] > b[0] : a[1] < b[1];
+    }
+
+    /** Fresh engine for nested simulation j; it uses the default rules (no captain). */
+    private SilentMatchEngine nested(long keySeed, int j) {
+        return engine(new Random(MonteCarloEngine.simSeed(keySeed, j)));
+    }
+
+    private SilentMatchEngine engine(Random rng) {
+        BallEngine ballEngine = new BallEngine(bundle.batterStats, bundle.bowlerStats,
+                bundle.baselineCalculator, config.pitchProfile, matchups, rng);
+        InningsEngine inningsEngine = new InningsEngine(ballEngine, bundle.roleLoader, rng);
+        return new SilentMatchEngine(inningsEngine, config.pitchProfile, rng);
+    }
+
+    private static int centre(int bucket, int width) {
+        return bucket * width + width / 2;
+    }
+
+    private static int usedBalls(int oversBucket) {
+        int oversLeft = centre(oversBucket, OVERS_BUCKET);
+        return Math.max(0, SilentMatchEngine.MAX_MATCH_BALLS - oversLeft * 6);
+    }
+
+    private String other(String team) {
+        return team.equals(config.teamAName) ? config.teamBName : config.teamAName;
+    }
+
+    private List<String> xi(String team) {
+        return team.equals(config.teamAName) ? config.teamAXI : config.teamBXI;
+    }
+
+    /** The plan the given side bowls with. */
+    private BowlingPlan plan(String team) {
+        return team.equals(config.teamAName) ? config.teamABowlingPlan : config.teamBBowlingPlan;
+    }
+}
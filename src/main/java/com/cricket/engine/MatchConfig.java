@@ -22,6 +22,24 @@ public class MatchConfig {
     // Pitch
     public PitchProfile pitchProfile = null;
 
+    // Declarations and follow-on by nested lookahead (LookaheadCaptain) in Monte Carlo
+    public boolean lookaheadCaptains = false;
+
     // Primary stage (for showing scorecard in same window)
     public javafx.stage.Stage primaryStage = null;
+
+    /** Copy with its own XI lists; plans and pitch are shared (treated as read-only). */
+    public MatchConfig copy() {
+        MatchConfig c = new MatchConfig();
+        c.teamAName        = teamAName;
+        c.teamAXI          = new ArrayList<>(teamAXI);
+        c.teamBName        = teamBName;
+        c.teamBXI          = new ArrayList<>(teamBXI);
+        c.teamABowlingPlan = teamABowlingPlan;
+        c.teamBBowlingPlan = teamBBowlingPlan;
+        c.pitchProfile     = pitchProfile;
+        c.lookaheadCaptains = lookaheadCaptains;
+        c.primaryStage     = primaryStage;
+        return c;
+    }
 }
\ No newline at end of file
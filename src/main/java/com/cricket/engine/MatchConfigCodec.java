@@ -0,0 +1,95 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON form of a MatchConfig, for handing a run to another process or
+ * storing it next to results. Bowling plans are embedded in the same
+ * shape BowlingPlan.toJson() writes; the GUI stage is not persisted.
+ *
+ * {
+ *   "teamAName": "India", "teamAXI": [ ... ],
+ *   "teamBName": "Australia", "teamBXI": [ ... ],
+ *   "teamABowlingPlan": { "overs": [ ... ] } | null,
+ *   "teamBBowlingPlan": { "overs": [ ... ] } | null,
+ *   "pitch": { "green": 1.0, "dry": 1.0, "bounce": 1.0, "flat": 1.0, "boundary": 1.0 } | null,
+ *   "lookaheadCaptains": false
+ * }
+ */
+public class MatchConfigCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static String toJson(MatchConfig config) throws Exception {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.put("teamAName", config.teamAName);
+        root.set("teamAXI", names(config.teamAXI));
+        root.put("teamBName", config.teamBName);
+        root.set("teamBXI", names(config.teamBXI));
+        root.set("teamABowlingPlan", config.teamABowlingPlan == null
+                ? MAPPER.nullNode() : MAPPER.readTree(config.teamABowlingPlan.toJson()));
+        root.set("teamBBowlingPlan", config.teamBBowlingPlan == null
+                ? MAPPER.nullNode() : MAPPER.readTree(config.teamBBowlingPlan.toJson()));
+        root.set("pitch", config.pitchProfile == null
+                ? MAPPER.nullNode() : pitchToJson(config.pitchProfile));
+        root.put("lookaheadCaptains", config.lookaheadCaptains);
+        return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+    }
+
+    public static MatchConfig fromJson(String json) throws Exception {
+        JsonNode root = MAPPER.readTree(json);
+        MatchConfig c = new MatchConfig();
+        c.teamAName = root.path("teamAName").asText("");
+        c.teamAXI   = names(root.get("teamAXI"));
+        c.teamBName = root.path("teamBName").asText("");
+        c.teamBXI   = names(root.get("teamBXI"));
+        c.teamABowlingPlan = plan(root.get("teamABowlingPlan"));
+        c.teamBBowlingPlan = plan(root.get("teamBBowlingPlan"));
+        JsonNode pitch = root.get("pitch");
+        c.pitchProfile = pitch == null || pitch.isNull() ? null : pitchFromJson(pitch);
+        c.lookaheadCaptains = root.path("lookaheadCaptains").asBoolean(false);
+        return c;
+    }
+
+    public static ObjectNode pitchToJson(PitchProfile p) {
+        ObjectNode n = MAPPER.createObjectNode();
+        n.put("green",    p.getGreen());
+        n.put("dry",      p.getDry());
+        n.put("bounce",   p.getBounce());
+        n.put("flat",     p.getFlat());
+        n.put("boundary", p.getBoundary());
+        return n;
+    }
+
+    /** Missing dimensions default to a neutral 1.0. */
+    public static PitchProfile pitchFromJson(JsonNode n) {
+        return new PitchProfile(
+                n.path("green").asDouble(1.0),
+                n.path("dry").asDouble(1.0),
+                n.path("bounce").asDouble(1.0),
+                n.path("flat").asDouble(1.0),
+                n.path("boundary").asDouble(1.0));
+    }
+
+    private static ArrayNode names(List<String> players) {
+        ArrayNode arr = MAPPER.createArrayNode();
+        for (String p : players) arr.add(p);
+        return arr;
+    }
+
+    private static List<String> names(JsonNode arr) {
+        List<String> out = new ArrayList<>();
+        if (arr != null) for (JsonNode n : arr) out.add(n.asText());
+        return out;
+    }
+
+    private static BowlingPlan plan(JsonNode n) {
+        return n == null || n.isNull() ? null : BowlingPlan.fromJson(n);
+    }
+}
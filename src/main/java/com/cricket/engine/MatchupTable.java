@@ -0,0 +1,95 @@
+package com.cricket.engine;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Compiled stats snapshot for a fixed pool of players: the pitch-neutral
+ * runs-per-ball and wickets-per-ball of every batter-vs-bowler pairing,
+ * blended once from the StatsBundle instead of on every ball.
+ *
+ * Read-only after compile(), so one table can be shared by every
+ * simulation thread. Pitch modifiers are still applied per ball by
+ * BallEngine, so the same table stays valid when only the pitch changes.
+ */
+public class MatchupTable {
+
+    /** Blended pre-pitch rates for one batter facing one bowler. */
+    public static final class Matchup {
+        final String bowlRole;
+        final String batterHand;
+        final double rpb;
+        final double wpb;
+
+        Matchup(String bowlRole, String batterHand, double rpb, double wpb) {
+            this.bowlRole   = bowlRole;
+            this.batterHand = batterHand;
+            this.rpb        = rpb;
+            this.wpb        = wpb;
+        }
+
+        public double getRunsPerBall()    { return rpb; }
+        public double getWicketsPerBall() { return wpb; }
+    }
+
+    // batter → bowler → matchup
+    private final Map<String, Map<String, Matchup>> table = new HashMap<>();
+    private final Set<String> players;
+
+    private MatchupTable(Set<String> players) {
+        this.players = players;
+    }
+
+    /**
+     * Blends every pairing among the given players. Roles are resolved the
+     * same way InningsEngine does, including its RF / RHB fallbacks.
+     */
+    public static MatchupTable compile(StatsBundle bundle, Collection<String> players) {
+        MatchupTable t = new MatchupTable(new LinkedHashSet<>(players));
+        for (String batter : t.players) {
+            String hand = bundle.roleLoader.getBatRole(batter);
+            if (hand == null || hand.isBlank()) hand = "RHB";
+
+            Map<String, Matchup> row = new HashMap<>();
+            for (String bowler : t.players) {
+                String role = bundle.roleLoader.getBowlRole(bowler);
+                if (role == null || role.isBlank()) role = "RF";
+                row.put(bowler, BallEngine.blendRates(
+                        bundle.batterStats, bundle.bowlerStats,
+                        bundle.baselineCalculator, batter, bowler, role, hand));
+            }
+            t.table.put(batter, row);
+        }
+        return t;
+    }
+
+    /** Compiles the union of both XIs in a config. */
+    public static MatchupTable compile(StatsBundle bundle, MatchConfig config) {
+        Set<String> players = new LinkedHashSet<>(config.teamAXI);
+        players.addAll(config.teamBXI);
+        return compile(bundle, players);
+    }
+
+    /**
+     * Returns the compiled pairing, or null if either player is outside the
+     * table or the roles differ from the ones it was compiled with.
+     */
+    public Matchup get(String batter, String bowler, String bowlRole, String batterHand) {
+        Map<String, Matchup> row = table.get(batter);
+        if (row == null) return null;
+        Matchup m = row.get(bowler);
+        if (m == null || !m.bowlRole.equals(bowlRole) || !m.batterHand.equals(batterHand)) return null;
+        return m;
+    }
+
+    public boolean covers(Collection<String> names) {
+        return players.containsAll(names);
+    }
+
+    public int size() { return players.size(); }
+}
@@ -1,36 +1,113 @@
 package com.cricket.engine;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import com.cricket.Main;
 import com.cricket.StatsBundle;
 
 public class MonteCarloEngine {
 
-    public static class SimResult {
+    /**
+     * Totals for a batch of simulated matches. Serialized for worker
+     * partials, checkpoints and the result cache, so the maps are declared
+     * as HashMap rather than Map.
+     */
+    public static class SimResult implements Serializable {
+        // 2: map fields declared as HashMap
+        private static final long serialVersionUID = 2L;
+
         public int teamAWins = 0;
         public int teamBWins = 0;
         public int draws     = 0;
-        public int total     = 0;
+        public int total     = 0;   // simulations that completed
+        public int simulated = 0;   // simulations attempted, failed ones included
 
         // ── Batting aggregates ─────────────────────────────────────────────
-        public Map<String, Long>    batRuns        = new HashMap<>();
-        public Map<String, Integer> batInnings     = new HashMap<>();
-        public Map<String, Long>    batBalls       = new HashMap<>();
-        public Map<String, Integer> batHundreds    = new HashMap<>();
-        public Map<String, Integer> batFifties     = new HashMap<>();
-        public Map<String, Integer> batHighest     = new HashMap<>(); // highest in a single innings
+        public HashMap<String, Long>           batRuns         = new HashMap<>();
+        public HashMap<String, Integer>        batInnings      = new HashMap<>();
+        public HashMap<String, Long>           batBalls        = new HashMap<>();
+        public HashMap<String, Integer>        batHundreds     = new HashMap<>();
+        public HashMap<String, Integer>        batFifties      = new HashMap<>();
+        public HashMap<String, Integer>        batHighest      = new HashMap<>(); // highest in a single innings
 
         // ── Bowling aggregates ─────────────────────────────────────────────
-        public Map<String, Integer> bowlInnings    = new HashMap<>();
-        public Map<String, Long>    bowlWickets    = new HashMap<>();
-        public Map<String, Long>    bowlRuns       = new HashMap<>();
-        public Map<String, Long>    bowlBalls      = new HashMap<>();
-        public Map<String, Integer> bowlFifers     = new HashMap<>(); // 5wi in an innings
-        public Map<String, Integer> bowlTenFor     = new HashMap<>(); // 10wm in a match
+        public HashMap<String, Integer>        bowlInnings     = new HashMap<>();
+        public HashMap<String, Long>           bowlWickets     = new HashMap<>();
+        public HashMap<String, Long>           bowlRuns        = new HashMap<>();
+        public HashMap<String, Long>           bowlBalls       = new HashMap<>();
+        public HashMap<String, Integer>        bowlFifers      = new HashMap<>(); // 5wi in an innings
+        public HashMap<String, Integer>        bowlTenFor      = new HashMap<>(); // 10wm in a match
         // Best bowling: store as "W-R" string, pick best
-        public Map<String, int[]>   bowlBest       = new HashMap<>(); // [wickets, runs]
+        public HashMap<String, int[]>          bowlBest        = new HashMap<>(); // [wickets, runs]
+
+        // ── Distributions (fixed-size, one per player / team) ─────────────
+        public HashMap<String, ScoreHistogram> batRunsDist     = new HashMap<>(); // runs per innings
+        public HashMap<String, ScoreHistogram> bowlWicketsDist = new HashMap<>(); // wickets per innings
+        public HashMap<String, ScoreHistogram> teamRunsDist    = new HashMap<>(); // team innings totals
+        public HashMap<String, ScoreHistogram> teamWicketsDist = new HashMap<>(); // wickets lost per innings
+
+        /**
+         * Adds another worker's partial result into this one. Every field is a
+         * sum, max or histogram, so the merge order does not matter.
+         */
+        public void merge(SimResult other) {
+            teamAWins += other.teamAWins;
+            teamBWins += other.teamBWins;
+            draws     += other.draws;
+            total     += other.total;
+            simulated += other.simulated;
+
+            other.batRuns.forEach((k, v)     -> batRuns.merge(k, v, Long::sum));
+            other.batInnings.forEach((k, v)  -> batInnings.merge(k, v, Integer::sum));
+            other.batBalls.forEach((k, v)    -> batBalls.merge(k, v, Long::sum));
+            other.batHundreds.forEach((k, v) -> batHundreds.merge(k, v, Integer::sum));
+            other.batFifties.forEach((k, v)  -> batFifties.merge(k, v, Integer::sum));
+            other.batHighest.forEach((k, v)  -> batHighest.merge(k, v, Integer::max));
+
+            other.bowlInnings.forEach((k, v) -> bowlInnings.merge(k, v, Integer::sum));
+            other.bowlWickets.forEach((k, v) -> bowlWickets.merge(k, v, Long::sum));
+            other.bowlRuns.forEach((k, v)    -> bowlRuns.merge(k, v, Long::sum));
+            other.bowlBalls.forEach((k, v)   -> bowlBalls.merge(k, v, Long::sum));
+            other.bowlFifers.forEach((k, v)  -> bowlFifers.merge(k, v, Integer::sum));
+            other.bowlTenFor.forEach((k, v)  -> bowlTenFor.merge(k, v, Integer::sum));
+            other.bowlBest.forEach((k, v)    -> updateBest(k, v[0], v[1]));
+
+            mergeDists(batRunsDist,     other.batRunsDist);
+            mergeDists(bowlWicketsDist, other.bowlWicketsDist);
+            mergeDists(teamRunsDist,    other.teamRunsDist);
+            mergeDists(teamWicketsDist, other.teamWicketsDist);
+        }
+
+        private static void mergeDists(Map<String, ScoreHistogram> into,
+                                       Map<String, ScoreHistogram> from) {
+            for (Map.Entry<String, ScoreHistogram> e : from.entrySet()) {
+                ScoreHistogram h = into.get(e.getKey());
+                if (h == null) {
+                    h = new ScoreHistogram(e.getValue().getMaxValue());
+                    into.put(e.getKey(), h);
+                }
+                h.merge(e.getValue());
+            }
+        }
+
+        void updateBest(String name, int wickets, int runs) {
+            int[] curr = bowlBest.get(name);
+            if (curr == null || wickets > curr[0]
+                    || (wickets == curr[0] && runs < curr[1])) {
+                bowlBest.put(name, new int[]{wickets, runs});
+            }
+        }
 
         // ── Display helpers ───────────────────────────────────────────────
         public String topRunScorer() {
@@ -51,6 +128,23 @@ public class MonteCarloEngine {
                     .orElse("N/A");
         }
 
+        // ── Persistence (partial results from workers, checkpoints) ───────
+        public void save(Path path) throws IOException {
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new java.io.BufferedOutputStream(Files.newOutputStream(path)))) {
+                out.writeObject(this);
+            }
+        }
+
+        public static SimResult load(Path path) throws IOException {
+            try (ObjectInputStream in = new ObjectInputStream(
+                    new java.io.BufferedInputStream(Files.newInputStream(path)))) {
+                return (SimResult) in.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Not a SimResult: " + path, e);
+            }
+        }
+
         // Convenience for ReviewScreen (was totalRuns/totalWickets/inningsPlayed)
         public Map<String, Long>    getTotalRuns()     { return batRuns; }
         public Map<String, Long>    getTotalWickets()  { return bowlWickets; }
@@ -59,85 +153,231 @@ public class MonteCarloEngine {
 
     public static SimResult run(MatchConfig config, int simCount,
                                  java.util.function.Consumer<Integer> progressCallback) {
-        SimResult result = new SimResult();
-
         StatsBundle bundle;
         try {
             bundle = Main.buildStats();
         } catch (Exception e) {
             System.err.println("Monte Carlo: failed to load stats: " + e.getMessage());
-            return result;
+            return new SimResult();
         }
+        return run(config, simCount, bundle, MatchupTable.compile(bundle, config), progressCallback);
+    }
 
-        // Track match-level wickets per bowler for 10-wm detection
-        for (int i = 0; i < simCount; i++) {
-            try {
-                BallEngine ballEngine = new BallEngine(
-                        bundle.batterStats, bundle.bowlerStats,
-                        bundle.baselineCalculator, config.pitchProfile);
-                InningsEngine inningsEngine = new InningsEngine(ballEngine, bundle.roleLoader);
-                SilentMatchEngine engine = new SilentMatchEngine(inningsEngine, config.pitchProfile);
-
-                String outcome = engine.simulate(
-                        config.teamAName, config.teamAXI,
-                        config.teamBName, config.teamBXI,
-                        config.teamABowlingPlan, config.teamBBowlingPlan);
-
-                if      (outcome.contains(config.teamAName + " wins")) result.teamAWins++;
-                else if (outcome.contains(config.teamBName + " wins")) result.teamBWins++;
-                else result.draws++;
-
-                // Per-match bowling wicket totals for 10wm
-                Map<String, Integer> matchWickets = new HashMap<>();
-
-                for (InningsResult ir : engine.getAllInnings()) {
-                    // ── Batting ────────────────────────────────────────────
-                    for (BatterRecord b : ir.getBattingCard()) {
-                        if (b.balls == 0) continue;
-                        result.batRuns.merge(b.name,  (long) b.runs, Long::sum);
-                        result.batBalls.merge(b.name, (long) b.balls, Long::sum);
-                        result.batInnings.merge(b.name, 1, Integer::sum);
-                        if (b.runs >= 100) result.batHundreds.merge(b.name, 1, Integer::sum);
-                        else if (b.runs >= 50) result.batFifties.merge(b.name, 1, Integer::sum);
-                        result.batHighest.merge(b.name, b.runs, Integer::max);
-                    }
+    /**
+     * Runs against an already-loaded stats bundle and compiled matchup table,
+     * so callers running many configs (scenario sweeps, optimisers) pay the
+     * stats-loading cost once. Uses a fresh random seed.
+     */
+    public static SimResult run(MatchConfig config, int simCount,
+                                StatsBundle bundle, MatchupTable matchups,
+                                java.util.function.Consumer<Integer> progressCallback) {
+        return run(config, simCount, bundle, matchups, new Random().nextLong(), progressCallback);
+    }
+
+    /**
+     * Seeded run. Simulation i always draws from simSeed(seed, i), so the
+     * result depends only on (config, simCount, seed) — not on how the
+     * range is split between threads or processes.
+     */
+    public static SimResult run(MatchConfig config, int simCount,
+                                StatsBundle bundle, MatchupTable matchups, long seed,
+                                java.util.function.Consumer<Integer> progressCallback) {
+        return runRange(config, 0, simCount, bundle, matchups, seed, progressCallback);
+    }
+
+    /**
+     * Simulations [start, end) of a seeded run, split across cores. Merged
+     * with a result for [0, start) it equals run(config, end, ...) — used
+     * to top up a cached result. progressCallback counts from start.
+     */
+    public static SimResult runRange(MatchConfig config, int start, int end,
+                                     StatsBundle bundle, MatchupTable matchups, long seed,
+                                     java.util.function.Consumer<Integer> progressCallback) {
+        return runRange(config, start, end, bundle, matchups, seed, null, progressCallback);
+    }
+
+    /**
+     * As above, additionally writing one record per simulation to records
+     * (null = none). Each worker buffers its own batch; the sink's writer
+     * thread does the I/O. The caller owns the sink and closes it.
+     */
+    public static SimResult runRange(MatchConfig config, int start, int end,
+                                     StatsBundle bundle, MatchupTable matchups, long seed,
+                                     SimRecordSink records,
+                                     java.util.function.Consumer<Integer> progressCallback) {
+        return runRange(config, start, end, bundle, matchups, seed,
+                newCaptain(config, bundle, matchups, seed), records, progressCallback);
+    }
+
+    /**
+     * As above with the run's captain supplied by the caller (see
+     * newCaptain) — pass the same one to every range of a run.
+     */
+    public static SimResult runRange(MatchConfig config, int start, int end,
+                                     StatsBundle bundle, MatchupTable matchups, long seed,
+                                     LookaheadCaptain captain, SimRecordSink records,
+                                     java.util.function.Consumer<Integer> progressCallback) {
+        // Split the run across cores — each worker fills its own SimResult
+        // and the partials are merged once every worker has finished
+        int simCount = Math.max(0, end - start);
+        int workers = Math.max(1, Math.min(
+                Runtime.getRuntime().availableProcessors(), simCount));
+        AtomicInteger completed = new AtomicInteger(start);
+        if (captain != null) captain.prepare();
 
-                    // ── Bowling ────────────────────────────────────────────
-                    for (BowlerRecord b : ir.getBowlingCard()) {
-                        if (b.ballsBowled == 0) continue;
-                        result.bowlInnings.merge(b.name, 1, Integer::sum);
-                        result.bowlWickets.merge(b.name, (long) b.wickets, Long::sum);
-                        result.bowlRuns.merge(b.name,   (long) b.runsConceded, Long::sum);
-                        result.bowlBalls.merge(b.name,  (long) b.ballsBowled, Long::sum);
-
-                        // 5-wicket haul
-                        if (b.wickets >= 5) result.bowlFifers.merge(b.name, 1, Integer::sum);
-
-                        // Best bowling figures
-                        int[] curr = result.bowlBest.get(b.name);
-                        if (curr == null || b.wickets > curr[0]
-                                || (b.wickets == curr[0] && b.runsConceded < curr[1])) {
-                            result.bowlBest.put(b.name, new int[]{b.wickets, b.runsConceded});
-                        }
-
-                        // Accumulate match wickets
-                        matchWickets.merge(b.name, b.wickets, Integer::sum);
+        List<SimResult> partials = IntStream.range(0, workers).parallel()
+                .mapToObj(w -> {
+                    SimResult part = new SimResult();
+                    Random rng = new Random();
+                    SimRecordSink.Batch batch = records == null ? null : records.newBatch();
+                    int from = start + (int) ((long) simCount * w / workers);
+                    int to   = start + (int) ((long) simCount * (w + 1) / workers);
+                    for (int i = from; i < to; i++) {
+                        rng.setSeed(simSeed(seed, i));
+                        simulateOne(config, bundle, matchups, captain, rng, part, i, batch);
+                        int done = completed.incrementAndGet();
+                        if (progressCallback != null && done % 50 == 0) progressCallback.accept(done);
                     }
-                }
+                    if (batch != null) batch.flush();
+                    return part;
+                })
+                .toList();
+
+        SimResult result = new SimResult();
+        for (SimResult part : partials) result.merge(part);
+        return result;
+    }
 
-                // 10-wicket match
-                for (Map.Entry<String, Integer> e : matchWickets.entrySet()) {
-                    if (e.getValue() >= 10) result.bowlTenFor.merge(e.getKey(), 1, Integer::sum);
+    /**
+     * Runs simulations [from, to) of a seeded run on the calling thread.
+     * Building block for schedulers that do their own work splitting —
+     * merging the results of disjoint ranges gives the same SimResult as
+     * one run over the whole range.
+     */
+    public static SimResult simulateRange(MatchConfig config, StatsBundle bundle,
+                                          MatchupTable matchups, long seed,
+                                          int from, int to) {
+        return simulateRange(config, bundle, matchups, seed,
+                newCaptain(config, bundle, matchups, seed), from, to);
+    }
+
+    /**
+     * As above with the run's captain supplied by the caller. Callers that
+     * split one run into many ranges should create it once (newCaptain) and
+     * pass it to each; a fresh captain per range gives the same answers but
+     * rebuilds its decision table every time.
+     */
+    public static SimResult simulateRange(MatchConfig config, StatsBundle bundle,
+                                          MatchupTable matchups, long seed,
+                                          LookaheadCaptain captain, int from, int to) {
+        SimResult result = new SimResult();
+        Random rng = new Random();
+        for (int i = from; i < to; i++) {
+            rng.setSeed(simSeed(seed, i));
+            simulateOne(config, bundle, matchups, captain, rng, result, i, null);
+        }
+        return result;
+    }
+
+    /** SplitMix64 of (seed, index) — decorrelated per-simulation seeds. */
+    public static long simSeed(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The captain for a seeded run of config, or null when lookahead is
+     * off. Its answers depend only on config and seed (see
+     * LookaheadCaptain), so every range of a run may share it.
+     */
+    public static LookaheadCaptain newCaptain(MatchConfig config, StatsBundle bundle,
+                                              MatchupTable matchups, long seed) {
+        return config.lookaheadCaptains
+                ? new LookaheadCaptain(config, bundle, matchups, seed) : null;
+    }
+
+    private static void simulateOne(MatchConfig config, StatsBundle bundle,
+                                    MatchupTable matchups, LookaheadCaptain captain,
+                                    Random rng, SimResult result,
+                                    int index, SimRecordSink.Batch records) {
+        result.simulated++;
+        try {
+            BallEngine ballEngine = new BallEngine(
+                    bundle.batterStats, bundle.bowlerStats,
+                    bundle.baselineCalculator, config.pitchProfile, matchups, rng);
+            InningsEngine inningsEngine = new InningsEngine(ballEngine, bundle.roleLoader, rng);
+            SilentMatchEngine engine = new SilentMatchEngine(inningsEngine, config.pitchProfile, rng);
+            engine.setCaptain(captain);
+
+            String outcome = engine.simulate(
+                    config.teamAName, config.teamAXI,
+                    config.teamBName, config.teamBXI,
+                    config.teamABowlingPlan, config.teamBBowlingPlan);
+
+            if      (outcome.contains(config.teamAName + " wins")) result.teamAWins++;
+            else if (outcome.contains(config.teamBName + " wins")) result.teamBWins++;
+            else result.draws++;
+
+            // Per-match bowling wicket totals for 10wm
+            Map<String, Integer> matchWickets = new HashMap<>();
+
+            List<InningsResult> innings = engine.getAllInnings();
+            for (int n = 0; n < innings.size(); n++) {
+                InningsResult ir = innings.get(n);
+
+                // ── Team innings ───────────────────────────────────────────
+                String battingTeam = engine.getBattingTeams().get(n);
+                result.teamRunsDist.computeIfAbsent(battingTeam, k -> ScoreHistogram.forRuns())
+                        .record(ir.getRuns());
+                result.teamWicketsDist.computeIfAbsent(battingTeam, k -> ScoreHistogram.forWickets())
+                        .record(ir.getWickets());
+
+                // ── Batting ────────────────────────────────────────────────
+                for (BatterRecord b : ir.getBattingCard()) {
+                    if (b.balls == 0) continue;
+                    result.batRuns.merge(b.name,  (long) b.runs, Long::sum);
+                    result.batBalls.merge(b.name, (long) b.balls, Long::sum);
+                    result.batInnings.merge(b.name, 1, Integer::sum);
+                    if (b.runs >= 100) result.batHundreds.merge(b.name, 1, Integer::sum);
+                    else if (b.runs >= 50) result.batFifties.merge(b.name, 1, Integer::sum);
+                    result.batHighest.merge(b.name, b.runs, Integer::max);
+                    result.batRunsDist.computeIfAbsent(b.name, k -> ScoreHistogram.forRuns())
+                            .record(b.runs);
                 }
 
-                result.total++;
-                if (progressCallback != null && i % 50 == 0) progressCallback.accept(i);
+                // ── Bowling ────────────────────────────────────────────────
+                for (BowlerRecord b : ir.getBowlingCard()) {
+                    if (b.ballsBowled == 0) continue;
+                    result.bowlInnings.merge(b.name, 1, Integer::sum);
+                    result.bowlWickets.merge(b.name, (long) b.wickets, Long::sum);
+                    result.bowlRuns.merge(b.name,   (long) b.runsConceded, Long::sum);
+                    result.bowlBalls.merge(b.name,  (long) b.ballsBowled, Long::sum);
+                    result.bowlWicketsDist.computeIfAbsent(b.name, k -> ScoreHistogram.forWickets())
+                            .record(b.wickets);
+
+                    // 5-wicket haul
+                    if (b.wickets >= 5) result.bowlFifers.merge(b.name, 1, Integer::sum);
+
+                    // Best bowling figures
+                    result.updateBest(b.name, b.wickets, b.runsConceded);
 
-            } catch (Exception e) {
-                // Skip failed simulations silently
+                    // Accumulate match wickets
+                    matchWickets.merge(b.name, b.wickets, Integer::sum);
+                }
             }
-        }
 
-        return result;
+            // 10-wicket match
+            for (Map.Entry<String, Integer> e : matchWickets.entrySet()) {
+                if (e.getValue() >= 10) result.bowlTenFor.merge(e.getKey(), 1, Integer::sum);
+            }
+
+            if (records != null) records.add(index, outcome, engine);
+            result.total++;
+
+        } catch (Exception e) {
+            // Skip failed simulations silently
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.cricket.engine;
+
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import com.cricket.Main;
+import com.cricket.StatsBundle;
+
+/**
+ * Worker process for DistributedMonteCarlo.
+ *
+ * Usage: MonteCarloWorker spoolDir [workerId]
+ *
+ * Loads the stats once, then keeps claiming ranges from the spool's jobs/
+ * directory until the coordinator writes DONE. The claim file's mtime is
+ * set when the range is claimed and touched between chunks as a heartbeat. Results are written to a temp
+ * file and renamed into results/ so the coordinator never reads a partial
+ * file. Workers can be started by hand on the same box to add capacity.
+ */
+public class MonteCarloWorker {
+
+    private static final int  HEARTBEAT_SIMS = 50;
+    private static final long IDLE_MILLIS    = 200;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: MonteCarloWorker <spoolDir> [workerId]");
+            System.exit(2);
+        }
+        Path spool = Path.of(args[0]);
+        String workerId = args.length > 1 ? args[1] : "p" + ProcessHandle.current().pid();
+
+        MatchConfig config = MatchConfigCodec.fromJson(Files.readString(spool.resolve("config.json")));
+        Properties props = new Properties();
+        try (var in = new FileInputStream(spool.resolve("run.properties").toFile())) {
+            props.load(in);
+        }
+        long seed = Long.parseLong(props.getProperty("seed"));
+
+        StatsBundle bundle = Main.buildStats();
+        MatchupTable matchups = MatchupTable.compile(bundle, config);
+        LookaheadCaptain captain = MonteCarloEngine.newCaptain(config, bundle, matchups, seed);
+        // Build the decision table now: inside the first chunk it would
+        // hold up the first heartbeat for minutes
+        if (captain != null) captain.prepare();
+        System.out.println("Worker " + workerId + " ready");
+
+        Path jobs    = spool.resolve(DistributedMonteCarlo.JOBS_DIR);
+        Path claimed = spool.resolve(DistributedMonteCarlo.CLAIMED_DIR);
+        Path results = spool.resolve(DistributedMonteCarlo.RESULTS_DIR);
+
+        while (!Files.exists(spool.resolve(DistributedMonteCarlo.DONE_FILE))) {
+            String range = null;
+            Path claim = null;
+
+            // ── Claim a job ───────────────────────────────────────────────
+            List<Path> pending;
+            try (Stream<Path> s = Files.list(jobs)) {
+                pending = s.sorted().toList();
+            }
+            for (Path job : pending) {
+                String r = DistributedMonteCarlo.stripSuffix(job.getFileName().toString(), ".job");
+                Path target = claimed.resolve(r + "." + workerId);
+                try {
+                    Files.move(job, target, StandardCopyOption.ATOMIC_MOVE);
+                    // The move keeps the job file's mtime from spool creation;
+                    // start the lease now or the claim already looks stale
+                    Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                    range = r;
+                    claim = target;
+                    break;
+                } catch (java.io.IOException lost) {
+                    // Another worker got there first, or the lease lapsed before the touch
+                }
+            }
+            if (range == null) {
+                Thread.sleep(IDLE_MILLIS);
+                continue;
+            }
+
+            // ── Run it ────────────────────────────────────────────────────
+            int[] ft = DistributedMonteCarlo.parseRange(range);
+            long start = System.currentTimeMillis();
+            MonteCarloEngine.SimResult result = new MonteCarloEngine.SimResult();
+            for (int from = ft[0]; from < ft[1]; from += HEARTBEAT_SIMS) {
+                int to = Math.min(ft[1], from + HEARTBEAT_SIMS);
+                result.merge(MonteCarloEngine.simulateRange(config, bundle, matchups, seed,
+                        captain, from, to));
+                try {
+                    Files.setLastModifiedTime(claim, FileTime.fromMillis(System.currentTimeMillis()));
+                } catch (java.io.IOException reissued) {
+                    // Coordinator took the range back; finish anyway — the result is identical
+                }
+            }
+
+            Path tmp = results.resolve(range + "." + workerId + ".tmp");
+            result.save(tmp);
+            Files.move(tmp, results.resolve(range + ".result"),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(claim);
+            System.out.printf("Worker %s finished %s in %.1fs%n",
+                    workerId, range, (System.currentTimeMillis() - start) / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,608 @@
+package com.cricket.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import com.cricket.Stats;
+import com.cricket.StatsBundle;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Instant win / draw / loss estimate for a MatchConfig, learned offline
+ * from Monte Carlo runs so ReviewScreen does not have to simulate on
+ * every visit.
+ *
+ * Features (FEATURES, 11 of them):
+ *   - each side's batting against the other's attack: runs per wicket and
+ *     run rate of its top seven, blended from the StatsBundle the way
+ *     BallEngine does and weighted by the attack's planned overs
+ *   - the five pitch dimensions
+ *   - the share of each plan's overs bowled by spinners
+ *
+ * The model is ridge regression on those features, standardised, with all
+ * squares and pairwise products — one fit for Team A's win probability
+ * and one for the draw. Training (Trainer) draws its configs from a
+ * Latin hypercube over side strength, pitch and spin share, and runs
+ * MonteCarloEngine on each.
+ *
+ * Every estimate carries a standard error from the fit's residual spread
+ * and the config's leverage. A config is outside the envelope when a
+ * feature leaves the training range or its leverage is well beyond any
+ * training point's; reliable() is false there and callers should
+ * simulate instead.
+ */
+public class OutcomeSurrogate {
+
+    public static final String[] FEATURES = {
+            "aRunsPerWicket", "aRunRate", "bRunsPerWicket", "bRunRate",
+            "green", "dry", "bounce", "flat", "boundary",
+            "aSpinShare", "bSpinShare" };
+
+    /** Above this standard error an estimate is flagged as uncertain. */
+    public static final double MAX_STD_ERROR = 0.06;
+
+    private static final int TOP_ORDER = 7;
+    private static final double LEVERAGE_SLACK = 1.5;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** One instant estimate, from Team A's side. */
+    public static class Estimate {
+        public final double teamAWin;
+        public final double draw;
+        public final double teamBWin;
+        public final double stdError;       // of the win probability
+        public final boolean inEnvelope;
+
+        Estimate(double teamAWin, double draw, double teamBWin, double stdError, boolean inEnvelope) {
+            this.teamAWin   = teamAWin;
+            this.draw       = draw;
+            this.teamBWin   = teamBWin;
+            this.stdError   = stdError;
+            this.inEnvelope = inEnvelope;
+        }
+
+        /** Inside the training envelope and tight enough to show instead of simulating. */
+        public boolean reliable() { return inEnvelope && stdError <= MAX_STD_ERROR; }
+    }
+
+    private final double[] mean, scale, min, max;   // per raw feature
+    private final double[] winCoef, drawCoef;       // per expanded term
+    private final double[][] inverse;               // (XᵀX + λI)⁻¹ over expanded terms
+    private final double winSigma, drawSigma;       // residual standard deviation
+    private final double winNoise;                  // mean Monte Carlo variance of the training targets
+    private final double maxLeverage;
+    public final int samples;
+    public final int simsPerSample;
+
+    private OutcomeSurrogate(double[] mean, double[] scale, double[] min, double[] max,
+                             double[] winCoef, double[] drawCoef, double[][] inverse,
+                             double winSigma, double drawSigma, double winNoise,
+                             double maxLeverage, int samples, int simsPerSample) {
+        this.mean          = mean;
+        this.scale         = scale;
+        this.min           = min;
+        this.max           = max;
+        this.winCoef       = winCoef;
+        this.drawCoef      = drawCoef;
+        this.inverse       = inverse;
+        this.winSigma      = winSigma;
+        this.drawSigma     = drawSigma;
+        this.winNoise      = winNoise;
+        this.maxLeverage   = maxLeverage;
+        this.samples       = samples;
+        this.simsPerSample = simsPerSample;
+    }
+
+    /** Where the GUI looks for a trained model. */
+    public static Path defaultPath() {
+        return PathResolver.getBaseDir().toPath().resolve("cache").resolve("outcome-surrogate.json");
+    }
+
+    // ── Runtime ───────────────────────────────────────────────────────────
+
+    public Estimate estimate(StatsBundle bundle, MatchConfig config) {
+        double[] x = features(bundle, config);
+        boolean inside = true;
+        for (int f = 0; f < x.length; f++) {
+            if (x[f] < min[f] || x[f] > max[f]) inside = false;
+        }
+        double[] t = terms(standardise(x));
+        double leverage = quadratic(inverse, t);
+        if (leverage > LEVERAGE_SLACK * maxLeverage) inside = false;
+
+        double win  = clamp01(dot(winCoef, t));
+        double draw = clamp01(dot(drawCoef, t));
+        if (win + draw > 1.0) {
+            double sum = win + draw;
+            win /= sum;
+            draw /= sum;
+        }
+        // Residuals include the training runs' own sampling noise; only the
+        // rest is model error, plus coefficient uncertainty at this point
+        double winVar = winSigma * winSigma;
+        double se = Math.sqrt(Math.max(0.0, winVar - winNoise) + winVar * leverage);
+        return new Estimate(win, draw, 1.0 - win - draw, se, inside);
+    }
+
+    /** The raw feature vector, in FEATURES order. */
+    public static double[] features(StatsBundle bundle, MatchConfig config) {
+        PitchProfile p = config.pitchProfile != null ? config.pitchProfile : PitchProfile.neutral();
+        double[] a = batting(bundle, config.teamAXI, config.teamBXI, config.teamBBowlingPlan);
+        double[] b = batting(bundle, config.teamBXI, config.teamAXI, config.teamABowlingPlan);
+        return new double[] {
+                a[0], a[1], b[0], b[1],
+                p.getGreen(), p.getDry(), p.getBounce(), p.getFlat(), p.getBoundary(),
+                spinShare(bundle, config.teamAXI, config.teamABowlingPlan),
+                spinShare(bundle, config.teamBXI, config.teamBBowlingPlan) };
+    }
+
+    /** {runs per wicket, runs per over} of the top order against an attack. */
+    private static double[] batting(StatsBundle bundle, List<String> xi, List<String> attackXI,
+                                    BowlingPlan attackPlan) {
+        Map<String, Integer> overs = attackPlan != null ? attackPlan.getOverCounts() : Map.of();
+        List<String> attack = new ArrayList<>();
+        List<Integer> weight = new ArrayList<>();
+        for (String bowler : attackXI) {
+            int w = overs.isEmpty() ? 1 : overs.getOrDefault(bowler, 0);
+            if (w > 0) { attack.add(bowler); weight.add(w); }
+        }
+        if (attack.isEmpty()) {
+            attack.addAll(attackXI);
+            for (int i = 0; i < attackXI.size(); i++) weight.add(1);
+        }
+
+        double rpb = 0, wpb = 0, total = 0;
+        for (String batter : xi.subList(0, Math.min(TOP_ORDER, xi.size()))) {
+            String hand = bundle.roleLoader.getBatRole(batter);
+            if (hand == null || hand.isBlank()) hand = "RHB";
+            for (int i = 0; i < attack.size(); i++) {
+                String role = bundle.roleLoader.getBowlRole(attack.get(i));
+                if (role == null || role.isBlank()) role = "RF";
+                MatchupTable.Matchup m = BallEngine.blendRates(bundle.batterStats, bundle.bowlerStats,
+                        bundle.baselineCalculator, batter, attack.get(i), role, hand);
+                int w = weight.get(i);
+                rpb   += w * m.getRunsPerBall();
+                wpb   += w * m.getWicketsPerBall();
+                total += w;
+            }
+        }
+        if (total == 0) return new double[] { 0, 0 };
+        return new double[] { wpb > 0 ? rpb / wpb : 0, 6.0 * rpb / total };
+    }
+
+    /** Share of planned overs bowled by spinners; with no plan, spinners in the XI. */
+    private static double spinShare(StatsBundle bundle, List<String> xi, BowlingPlan plan) {
+        Map<String, Integer> overs = plan != null ? plan.getOverCounts() : Map.of();
+        double spin = 0, total = 0;
+        for (String name : xi) {
+            int w = overs.isEmpty() ? 1 : overs.getOrDefault(name, 0);
+            if (isSpin(bundle, name)) spin += w;
+            total += w;
+        }
+        return total == 0 ? 0 : spin / total;
+    }
+
+    private static boolean isSpin(StatsBundle bundle, String name) {
+        String role = bundle.roleLoader.getBowlRole(name);
+        return new BowlerInfo(name, role == null ? "" : role).getCategory() == BowlerInfo.Category.SPIN;
+    }
+
+    // ── Model algebra ─────────────────────────────────────────────────────
+
+    private double[] standardise(double[] x) {
+        double[] z = new double[x.length];
+        for (int f = 0; f < x.length; f++) z[f] = (x[f] - mean[f]) / scale[f];
+        return z;
+    }
+
+    /** 1, every feature, then every square and pairwise product. */
+    private static double[] terms(double[] z) {
+        int n = z.length;
+        double[] t = new double[1 + n + n * (n + 1) / 2];
+        int k = 0;
+        t[k++] = 1.0;
+        for (double v : z) t[k++] = v;
+        for (int i = 0; i < n; i++) {
+            for (int j = i; j < n; j++) t[k++] = z[i] * z[j];
+        }
+        return t;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) s += a[i] * b[i];
+        return s;
+    }
+
+    private static double quadratic(double[][] m, double[] v) {
+        double s = 0;
+        for (int i = 0; i < v.length; i++) {
+            double row = 0;
+            for (int j = 0; j < v.length; j++) row += m[i][j] * v[j];
+            s += v[i] * row;
+        }
+        return s;
+    }
+
+    private static double clamp01(double v) { return Math.max(0.0, Math.min(1.0, v)); }
+
+    /** Inverse of a symmetric positive-definite matrix by Cholesky. */
+    private static double[][] invertSpd(double[][] a) {
+        int n = a.length;
+        double[][] l = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double s = a[i][j];
+                for (int k = 0; k < j; k++) s -= l[i][k] * l[j][k];
+                if (i == j) {
+                    if (s <= 0) throw new IllegalStateException("Surrogate fit is singular");
+                    l[i][i] = Math.sqrt(s);
+                } else {
+                    l[i][j] = s / l[j][j];
+                }
+            }
+        }
+        double[][] inv = new double[n][n];
+        for (int c = 0; c < n; c++) {
+            // Solve L y = e_c, then Lᵀ x = y
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                double s = i == c ? 1.0 : 0.0;
+                for (int k = 0; k < i; k++) s -= l[i][k] * y[k];
+                y[i] = s / l[i][i];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                double s = y[i];
+                for (int k = i + 1; k < n; k++) s -= l[k][i] * inv[k][c];
+                inv[i][c] = s / l[i][i];
+            }
+        }
+        return inv;
+    }
+
+    // ── Persistence ───────────────────────────────────────────────────────
+
+    public void save(Path path) throws IOException {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.set("features", array(FEATURES));
+        root.put("samples", samples);
+        root.put("simsPerSample", simsPerSample);
+        root.set("mean", array(mean));
+        root.set("scale", array(scale));
+        root.set("min", array(min));
+        root.set("max", array(max));
+        root.set("winCoef", array(winCoef));
+        root.set("drawCoef", array(drawCoef));
+        root.put("winSigma", winSigma);
+        root.put("drawSigma", drawSigma);
+        root.put("winNoise", winNoise);
+        root.put("maxLeverage", maxLeverage);
+        ArrayNode rows = root.putArray("inverse");
+        for (double[] row : inverse) rows.add(array(row));
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        MAPPER.writeValue(path.toFile(), root);
+    }
+
+    /** Returns null if the file is missing or was written for a different feature set. */
+    public static OutcomeSurrogate load(Path path) {
+        if (!Files.exists(path)) return null;
+        try {
+            JsonNode root = MAPPER.readTree(path.toFile());
+            JsonNode names = root.path("features");
+            if (names.size() != FEATURES.length) return null;
+            for (int f = 0; f < FEATURES.length; f++) {
+                if (!FEATURES[f].equals(names.get(f).asText())) return null;
+            }
+            JsonNode rows = root.path("inverse");
+            double[][] inverse = new double[rows.size()][];
+            for (int i = 0; i < rows.size(); i++) inverse[i] = doubles(rows.get(i));
+            return new OutcomeSurrogate(
+                    doubles(root.path("mean")), doubles(root.path("scale")),
+                    doubles(root.path("min")), doubles(root.path("max")),
+                    doubles(root.path("winCoef")), doubles(root.path("drawCoef")), inverse,
+                    root.path("winSigma").asDouble(), root.path("drawSigma").asDouble(),
+                    root.path("winNoise").asDouble(), root.path("maxLeverage").asDouble(),
+                    root.path("samples").asInt(), root.path("simsPerSample").asInt());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Outcome surrogate unreadable, ignoring it: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static ArrayNode array(double[] values) {
+        ArrayNode a = MAPPER.createArrayNode();
+        for (double v : values) a.add(v);
+        return a;
+    }
+
+    private static ArrayNode array(String[] values) {
+        ArrayNode a = MAPPER.createArrayNode();
+        for (String v : values) a.add(v);
+        return a;
+    }
+
+    private static double[] doubles(JsonNode a) {
+        double[] out = new double[a.size()];
+        for (int i = 0; i < out.length; i++) out[i] = a.get(i).asDouble();
+        return out;
+    }
+
+    // ── Training ──────────────────────────────────────────────────────────
+
+    /**
+     * Offline training run. Each of `samples` configs is one row of a Latin
+     * hypercube over nine design dimensions: the strength rank of each
+     * side, the five pitch dimensions (0.5–2.0) and each plan's spin share.
+     *
+     * Sides are drawn from a pool of random XIs — six batters and five
+     * bowlers, at least one of them a spinner when the pool allows — and
+     * the hypercube picks by quantile of the pool's batting strength, since
+     * strength cannot be set directly. Plans are built to the sampled spin
+     * share. The fit uses the features each config actually has, so a
+     * side with no spinner simply lands at share 0.
+     */
+    public static class Trainer {
+
+        private static final int DESIGN_DIMS = 9;
+        private static final int POOL_PER_SAMPLE = 4;
+        private static final int MIN_BALLS = 600;
+
+        private final StatsBundle bundle;
+        private final List<PlayerRecord> players;
+        private int samples = 400;
+        private int simsPerSample = 200;
+        private double lambda = 1.0;
+        private long seed = 40L;
+
+        public Trainer(StatsBundle bundle, List<PlayerRecord> players) {
+            this.bundle  = bundle;
+            this.players = List.copyOf(players);
+        }
+
+        public Trainer samples(int n)        { this.samples = n;       return this; }
+        public Trainer simsPerSample(int n)  { this.simsPerSample = n; return this; }
+        public Trainer lambda(double l)      { this.lambda = l;        return this; }
+        public Trainer seed(long seed)       { this.seed = seed;       return this; }
+
+        public OutcomeSurrogate train(Consumer<String> progress) {
+            Random rng = new Random(seed);
+            List<List<String>> pool = sidePool(rng, samples * POOL_PER_SAMPLE);
+            pool.sort(Comparator.comparingDouble(this::battingStrength));
+            double[][] design = latinHypercube(rng, samples, DESIGN_DIMS);
+
+            List<MatchConfig> configs = new ArrayList<>();
+            for (int s = 0; s < samples; s++) {
+                double[] u = design[s];
+                List<String> a = pool.get((int) (u[0] * pool.size()));
+                List<String> b = pool.get((int) (u[1] * pool.size()));
+                MatchConfig c = new MatchConfig();
+                c.teamAName = "Sample A";
+                c.teamBName = "Sample B";
+                c.teamAXI   = new ArrayList<>(a);
+                c.teamBXI   = new ArrayList<>(b);
+                c.pitchProfile = new PitchProfile(
+                        pitchValue(u[2]), pitchValue(u[3]), pitchValue(u[4]),
+                        pitchValue(u[5]), pitchValue(u[6]));
+                c.teamABowlingPlan = planWithSpinShare(a, u[7]);
+                c.teamBBowlingPlan = planWithSpinShare(b, u[8]);
+                configs.add(c);
+            }
+
+            // Configs are small; parallelism comes from MonteCarloEngine itself
+            double[][] x = new double[samples][];
+            double[] win = new double[samples], draw = new double[samples];
+            AtomicInteger done = new AtomicInteger();
+            IntStream.range(0, samples).forEach(s -> {
+                MatchConfig c = configs.get(s);
+                MatchupTable matchups = MatchupTable.compile(bundle, c);
+                MonteCarloEngine.SimResult r = MonteCarloEngine.run(c, simsPerSample, bundle,
+                        matchups, MonteCarloEngine.simSeed(seed, s), null);
+                double n = Math.max(1, r.total);
+                x[s]    = features(bundle, c);
+                win[s]  = r.teamAWins / n;
+                draw[s] = r.draws / n;
+                int d = done.incrementAndGet();
+                if (progress != null && (d % 10 == 0 || d == samples)) {
+                    progress.accept("Simulated " + d + " / " + samples + " training configs");
+                }
+            });
+            OutcomeSurrogate model = fit(x, win, draw);
+            if (progress != null) {
+                progress.accept(String.format("Fitted surrogate: win residual %.3f, draw residual %.3f",
+                        model.winSigma, model.drawSigma));
+            }
+            return model;
+        }
+
+        // ── Fit ───────────────────────────────────────────────────────────
+
+        private OutcomeSurrogate fit(double[][] x, double[] win, double[] draw) {
+            int n = x.length, f = FEATURES.length;
+            double[] mean = new double[f], scale = new double[f];
+            double[] min = new double[f], max = new double[f];
+            for (int j = 0; j < f; j++) {
+                min[j] = Double.MAX_VALUE;
+                max[j] = -Double.MAX_VALUE;
+                for (double[] row : x) {
+                    mean[j] += row[j] / n;
+                    min[j] = Math.min(min[j], row[j]);
+                    max[j] = Math.max(max[j], row[j]);
+                }
+                double var = 0;
+                for (double[] row : x) var += (row[j] - mean[j]) * (row[j] - mean[j]) / n;
+                scale[j] = var > 1e-12 ? Math.sqrt(var) : 1.0;
+            }
+
+            OutcomeSurrogate shell = new OutcomeSurrogate(mean, scale, min, max,
+                    null, null, null, 0, 0, 0, 0, n, simsPerSample);
+            double[][] t = new double[n][];
+            for (int i = 0; i < n; i++) t[i] = terms(shell.standardise(x[i]));
+
+            int p = t[0].length;
+            double[][] gram = new double[p][p];
+            double[] xtWin = new double[p], xtDraw = new double[p];
+            for (int i = 0; i < n; i++) {
+                for (int a = 0; a < p; a++) {
+                    xtWin[a]  += t[i][a] * win[i];
+                    xtDraw[a] += t[i][a] * draw[i];
+                    for (int b = a; b < p; b++) gram[a][b] += t[i][a] * t[i][b];
+                }
+            }
+            for (int a = 0; a < p; a++) {
+                for (int b = 0; b < a; b++) gram[a][b] = gram[b][a];
+                if (a > 0) gram[a][a] += lambda;     // intercept is not shrunk
+            }
+            gram[0][0] += 1e-9;
+            double[][] inverse = invertSpd(gram);
+            double[] winCoef = multiply(inverse, xtWin);
+            double[] drawCoef = multiply(inverse, xtDraw);
+
+            double winSq = 0, drawSq = 0, maxLev = 0, noise = 0;
+            for (int i = 0; i < n; i++) {
+                noise  += win[i] * (1 - win[i]) / Math.max(1, simsPerSample) / n;
+                winSq  += Math.pow(win[i] - dot(winCoef, t[i]), 2);
+                drawSq += Math.pow(draw[i] - dot(drawCoef, t[i]), 2);
+                maxLev = Math.max(maxLev, quadratic(inverse, t[i]));
+            }
+            int dof = Math.max(1, n - Math.min(p, n - 1));
+            return new OutcomeSurrogate(mean, scale, min, max, winCoef, drawCoef, inverse,
+                    Math.sqrt(winSq / dof), Math.sqrt(drawSq / dof), noise, maxLev, n, simsPerSample);
+        }
+
+        private static double[] multiply(double[][] m, double[] v) {
+            double[] out = new double[m.length];
+            for (int i = 0; i < m.length; i++) out[i] = dot(m[i], v);
+            return out;
+        }
+
+        // ── Design ────────────────────────────────────────────────────────
+
+        /** n points in [0,1)^dims, one per row-stratum in every dimension. */
+        static double[][] latinHypercube(Random rng, int n, int dims) {
+            double[][] out = new double[n][dims];
+            int[] perm = new int[n];
+            for (int d = 0; d < dims; d++) {
+                for (int i = 0; i < n; i++) perm[i] = i;
+                for (int i = n - 1; i > 0; i--) {
+                    int j = rng.nextInt(i + 1);
+                    int tmp = perm[i]; perm[i] = perm[j]; perm[j] = tmp;
+                }
+                for (int i = 0; i < n; i++) out[i][d] = (perm[i] + rng.nextDouble()) / n;
+            }
+            return out;
+        }
+
+        private static double pitchValue(double u) { return 0.5 + 1.5 * u; }
+
+        private List<List<String>> sidePool(Random rng, int size) {
+            List<String> batters = new ArrayList<>(), spinners = new ArrayList<>(), seamers = new ArrayList<>();
+            for (PlayerRecord p : players) {
+                BowlerInfo.Category cat = p.getBowlerCategory();
+                if (cat == BowlerInfo.Category.SPIN && balls(bundle.bowlerStats.get(p.getName())) >= MIN_BALLS) {
+                    spinners.add(p.getName());
+                } else if (cat != BowlerInfo.Category.PART_TIME
+                        && balls(bundle.bowlerStats.get(p.getName())) >= MIN_BALLS) {
+                    seamers.add(p.getName());
+                } else if (balls(bundle.batterStats.get(p.getName())) >= MIN_BALLS) {
+                    batters.add(p.getName());
+                }
+            }
+            if (batters.size() < 6 || seamers.size() + spinners.size() < 5) {
+                throw new IllegalStateException("Not enough players with data to build training sides");
+            }
+
+            List<List<String>> pool = new ArrayList<>();
+            for (int s = 0; s < size; s++) {
+                Set<String> top = new LinkedHashSet<>();
+                while (top.size() < 6) top.add(batters.get(rng.nextInt(batters.size())));
+                List<String> topOrder = new ArrayList<>(top);
+                topOrder.sort(Comparator.comparingDouble(this::battingAverage).reversed());
+
+                Set<String> attack = new LinkedHashSet<>();
+                if (!spinners.isEmpty()) attack.add(spinners.get(rng.nextInt(spinners.size())));
+                List<String> bowlers = new ArrayList<>(seamers);
+                bowlers.addAll(spinners);
+                while (attack.size() < 5) attack.add(bowlers.get(rng.nextInt(bowlers.size())));
+
+                List<String> xi = new ArrayList<>(topOrder);
+                xi.addAll(attack);
+                pool.add(List.copyOf(xi));
+            }
+            return pool;
+        }
+
+        private static int balls(Map<String, Stats> byRole) {
+            if (byRole == null) return 0;
+            int n = 0;
+            for (Stats s : byRole.values()) n += s.getBalls();
+            return n;
+        }
+
+        /** Career runs per dismissal, pooled across bowling types. */
+        private double battingAverage(String name) {
+            Map<String, Stats> byRole = bundle.batterStats.get(name);
+            if (byRole == null) return 0;
+            int runs = 0, outs = 0;
+            for (Stats s : byRole.values()) {
+                runs += s.getRuns();
+                outs += s.getDismissals();
+            }
+            return runs / (double) Math.max(1, outs);
+        }
+
+        private double battingStrength(List<String> xi) {
+            double sum = 0;
+            int n = Math.min(TOP_ORDER, xi.size());
+            for (int i = 0; i < n; i++) sum += battingAverage(xi.get(i));
+            return sum / n;
+        }
+
+        /**
+         * 90 overs from the XI's last five (its attack), with roughly
+         * `share` of them to spinners. Ends alternate and nobody bowls
+         * two overs in a row while someone else of the right kind is free.
+         */
+        private BowlingPlan planWithSpinShare(List<String> xi, double share) {
+            List<String> spin = new ArrayList<>(), seam = new ArrayList<>();
+            for (String name : xi.subList(xi.size() - 5, xi.size())) {
+                if (isSpin(bundle, name)) spin.add(name);
+                else seam.add(name);
+            }
+            if (spin.isEmpty()) share = 0;
+            if (seam.isEmpty()) share = 1;
+
+            BowlingPlan plan = new BowlingPlan();
+            int[] nextSpin = { 0 }, nextSeam = { 0 };
+            String previous = null;
+            for (int over = 1; over <= AnalyticPlanScorer.OVERS; over++) {
+                // Spread spin overs evenly: over o is spin when floor(o·s) steps up
+                boolean spinOver = Math.floor(over * share) > Math.floor((over - 1) * share);
+                List<String> group = spinOver ? spin : seam;
+                int[] next = spinOver ? nextSpin : nextSeam;
+                String pick = group.get(next[0] % group.size());
+                if (pick.equals(previous) && group.size() > 1) {
+                    next[0]++;
+                    pick = group.get(next[0] % group.size());
+                }
+                next[0]++;
+                plan.assign(over, pick);
+                previous = pick;
+            }
+            return plan;
+        }
+    }
+}
@@ -3,14 +3,30 @@ package com.cricket.engine;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Pitch-driven bowling-type advice per over.
+ *
+ * update() evaluates the rules below for every over of a day-long plan
+ * once, into a table of category bitmasks (bit = Category ordinal) and
+ * matching read-only lists, so recommends() and getRecommendedCategories()
+ * are array reads. Overs outside the table are evaluated on demand.
+ */
 public class PitchRecommender {
 
+    public static final int OVERS = 90;
+
+    private static final BowlerInfo.Category[] CATEGORIES = BowlerInfo.Category.values();
+
     private double green;
     private double dry;
     private double bounce;
     private double flat;
     private double boundary;
 
+    // Indexed by over number, 0..OVERS
+    private int[] masks = new int[OVERS + 1];
+    private List<List<BowlerInfo.Category>> lists = new ArrayList<>();
+
     @SuppressWarnings("OverridableMethodCallInConstructor")
     public PitchRecommender(double green, double dry, double bounce,
                             double flat, double boundary) {
@@ -24,10 +40,30 @@ public class PitchRecommender {
         this.bounce   = bounce;
         this.flat     = flat;
         this.boundary = boundary;
+
+        int[] newMasks = new int[OVERS + 1];
+        List<List<BowlerInfo.Category>> newLists = new ArrayList<>(OVERS + 1);
+        for (int over = 0; over <= OVERS; over++) {
+            newMasks[over] = computeMask(over);
+            newLists.add(toList(newMasks[over]));
+        }
+        masks = newMasks;
+        lists = newLists;
+    }
+
+    /** Whether category is recommended in this over. */
+    public boolean recommends(int overNumber, BowlerInfo.Category category) {
+        return (categoryMask(overNumber) & (1 << category.ordinal())) != 0;
+    }
+
+    /** Recommended categories for this over as a bitmask of Category ordinals. */
+    public int categoryMask(int overNumber) {
+        return overNumber >= 0 && overNumber <= OVERS ? masks[overNumber] : computeMask(overNumber);
     }
 
     /**
-     * Returns recommended categories for a given over number.
+     * Returns recommended categories for a given over number, as a
+     * read-only list in Category order.
      *
      * Logic:
      *  - Compute a seam score and spin score from pitch values.
@@ -39,11 +75,24 @@ public class PitchRecommender {
      *  - On a 2.0 green pitch, seam score is so dominant spin never appears.
      */
     public List<BowlerInfo.Category> getRecommendedCategories(int overNumber) {
-        List<BowlerInfo.Category> recommended = new ArrayList<>();
+        return overNumber >= 0 && overNumber <= OVERS
+                ? lists.get(overNumber) : toList(computeMask(overNumber));
+    }
+
+    private static List<BowlerInfo.Category> toList(int mask) {
+        List<BowlerInfo.Category> out = new ArrayList<>();
+        for (BowlerInfo.Category c : CATEGORIES) {
+            if ((mask & (1 << c.ordinal())) != 0) out.add(c);
+        }
+        return List.copyOf(out);
+    }
+
+    private int computeMask(int overNumber) {
+        int recommended = 0;
 
         // Simulate pitch deterioration over time
-        double effectiveGreen = green * Math.pow(0.96, overNumber / 10.0);
-        double effectiveDry   = dry   * Math.pow(1.05, overNumber / 10.0);
+        double effectiveGreen = effectiveGreen(overNumber);
+        double effectiveDry   = effectiveDry(overNumber);
         double effectiveBounce = bounce;
 
         // ── Score computation ──────────────────────────────────────────────
@@ -64,29 +113,47 @@ public class PitchRecommender {
 
         // ── Category selection ────────────────────────────────────────────
         if (newBall || seamFavour) {
-            recommended.add(BowlerInfo.Category.FAST);
-            recommended.add(BowlerInfo.Category.MEDIUM_FAST);
+            recommended |= bit(BowlerInfo.Category.FAST) | bit(BowlerInfo.Category.MEDIUM_FAST);
         }
 
         // Medium pacers fill in when conditions are neither seam nor spin dominated
         if (!newBall && !clearlyTurning) {
-            recommended.add(BowlerInfo.Category.MEDIUM);
+            recommended |= bit(BowlerInfo.Category.MEDIUM);
         }
 
         // Spin only when pitch genuinely favours it AND seam doesn't dominate
         if (clearlyTurning || spinFavour) {
-            recommended.add(BowlerInfo.Category.SPIN);
+            recommended |= bit(BowlerInfo.Category.SPIN);
         }
 
         // Fallback: if nothing recommended (neutral pitch, mid-overs), add medium + spin
-        if (recommended.isEmpty()) {
-            recommended.add(BowlerInfo.Category.MEDIUM);
-            if (overNumber > 25) recommended.add(BowlerInfo.Category.SPIN);
+        if (recommended == 0) {
+            recommended |= bit(BowlerInfo.Category.MEDIUM);
+            if (overNumber > 25) recommended |= bit(BowlerInfo.Category.SPIN);
         }
 
         return recommended;
     }
 
+    private static int bit(BowlerInfo.Category c) { return 1 << c.ordinal(); }
+
+    // ── Deterioration curve ───────────────────────────────────────────────
+    // Grass fades and the surface dries as the innings goes on.
+
+    public double effectiveGreen(int overNumber) {
+        return green * Math.pow(0.96, overNumber / 10.0);
+    }
+
+    public double effectiveDry(int overNumber) {
+        return dry * Math.pow(1.05, overNumber / 10.0);
+    }
+
+    /** Pitch as it plays in the given over, on the curve above. */
+    public PitchProfile profileAt(int overNumber) {
+        return new PitchProfile(effectiveGreen(overNumber), effectiveDry(overNumber),
+                bounce, flat, boundary);
+    }
+
     public String getPitchSummary() {
         List<String> traits = new ArrayList<>();
         if (green > 1.2)  traits.add("Green");
@@ -0,0 +1,180 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Which pitch knob moves the result: central finite differences of Team A's
+ * win probability with respect to each PitchProfile dimension.
+ *
+ * Each dimension is nudged up and down by `step` (kept inside the 0.5–2.0
+ * range PitchSetupScreen allows) and every variant — the base plus ten
+ * perturbed pitches — is played on the same seeded simulations, all in
+ * one parallel pass over simulation indices. The derivative is the mean
+ * of the paired per-simulation differences, so its standard error only
+ * reflects matches the nudge actually changed. A simulation the engine
+ * could not complete is marked failed and its pair dropped rather than
+ * counted as a Team A non-win.
+ *
+ * MatchupTable rates are pitch-neutral (the pitch is applied in
+ * BallEngine), so one compiled table serves every variant.
+ */
+public class PitchSensitivity {
+
+    public static final String[] DIMENSIONS = { "green", "dry", "bounce", "flat", "boundary" };
+
+    private static final double MIN = 0.5;
+    private static final double MAX = 2.0;
+
+    // Outcome of a simulation the engine could not complete (SimResult.total == 0)
+    private static final byte FAILED = -1;
+
+    /** Sensitivity of Team A's win probability to one dimension. */
+    public static class Sensitivity {
+        public final String dimension;
+        public final double baseValue;
+        public final double winProbDown;     // at baseValue - step (clamped)
+        public final double winProbUp;       // at baseValue + step (clamped)
+        public final double slope;           // d(win prob) / d(dimension)
+        public final double slopeStdError;
+        public final int pairs;              // simulations where both nudges completed
+
+        Sensitivity(String dimension, double baseValue, double winProbDown, double winProbUp,
+                    double slope, double slopeStdError, int pairs) {
+            this.dimension     = dimension;
+            this.baseValue     = baseValue;
+            this.winProbDown   = winProbDown;
+            this.winProbUp     = winProbUp;
+            this.slope         = slope;
+            this.slopeStdError = slopeStdError;
+            this.pairs         = pairs;
+        }
+
+        /** Slope in percentage points of win% per 0.1 of the dimension. */
+        public double pointsPerTenth() { return slope * 10.0; }
+    }
+
+    /** All five sensitivities plus the base win probability. */
+    public static class Report {
+        public final double baseWinProb;
+        public final List<Sensitivity> sensitivities;
+        public final int sims;
+
+        Report(double baseWinProb, List<Sensitivity> sensitivities, int sims) {
+            this.baseWinProb   = baseWinProb;
+            this.sensitivities = sensitivities;
+            this.sims          = sims;
+        }
+    }
+
+    private final StatsBundle bundle;
+    private final MatchConfig base;
+    private final MatchupTable matchups;
+
+    private int sims = 2000;
+    private double step = 0.1;
+    private long seed = 39L;
+
+    public PitchSensitivity(StatsBundle bundle, MatchConfig config) {
+        this.bundle   = bundle;
+        this.base     = config;
+        this.matchups = MatchupTable.compile(bundle, config);
+    }
+
+    public PitchSensitivity sims(int sims)     { this.sims = sims; return this; }
+    public PitchSensitivity step(double step)  { this.step = step; return this; }
+    public PitchSensitivity seed(long seed)    { this.seed = seed; return this; }
+
+    /** progress receives simulation indices completed (every variant of each). */
+    public Report run(Consumer<Integer> progress) {
+        PitchProfile pitch = base.pitchProfile != null ? base.pitchProfile : PitchProfile.neutral();
+        double[] values = values(pitch);
+
+        // Variant 0 is the base; 1 + 2d is dimension d down, 2 + 2d is d up
+        int variants = 1 + 2 * DIMENSIONS.length;
+        MatchConfig[] configs = new MatchConfig[variants];
+        double[] lo = new double[DIMENSIONS.length];
+        double[] hi = new double[DIMENSIONS.length];
+        configs[0] = base;
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            lo[d] = Math.max(MIN, values[d] - step);
+            hi[d] = Math.min(MAX, values[d] + step);
+            configs[1 + 2 * d] = withPitch(values, d, lo[d]);
+            configs[2 + 2 * d] = withPitch(values, d, hi[d]);
+        }
+
+        LookaheadCaptain[] captains = new LookaheadCaptain[variants];
+        for (int v = 0; v < variants; v++) {
+            captains[v] = MonteCarloEngine.newCaptain(configs[v], bundle, matchups, seed);
+        }
+
+        // wins[v][i]: 1 if Team A won simulation i under variant v, FAILED if it did not finish
+        byte[][] wins = new byte[variants][sims];
+        AtomicInteger done = new AtomicInteger();
+        IntStream.range(0, sims).parallel().forEach(i -> {
+            for (int v = 0; v < variants; v++) {
+                MonteCarloEngine.SimResult r = MonteCarloEngine.simulateRange(
+                        configs[v], bundle, matchups, seed, captains[v], i, i + 1);
+                wins[v][i] = r.total == 0 ? FAILED : (byte) (r.teamAWins > 0 ? 1 : 0);
+            }
+            int d = done.incrementAndGet();
+            if (progress != null && d % 50 == 0) progress.accept(d);
+        });
+
+        List<Sensitivity> out = new ArrayList<>();
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            out.add(sensitivity(DIMENSIONS[d], values[d], wins[1 + 2 * d], wins[2 + 2 * d],
+                    hi[d] - lo[d]));
+        }
+        return new Report(mean(wins[0]), out, sims);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    /** Pairs where either nudge failed are dropped, as WhatIfAnalyzer does. */
+    private static Sensitivity sensitivity(String name, double value, byte[] down, byte[] up,
+                                           double width) {
+        int n = 0;
+        double sum = 0, sumSq = 0;
+        for (int i = 0; i < down.length; i++) {
+            if (down[i] == FAILED || up[i] == FAILED) continue;
+            n++;
+            int diff = up[i] - down[i];
+            sum   += diff;
+            sumSq += diff * diff;
+        }
+        if (n == 0 || width <= 0) return new Sensitivity(name, value, mean(down), mean(up), 0, 0, n);
+        double meanDiff = sum / n;
+        double var = n > 1 ? Math.max(0, (sumSq - n * meanDiff * meanDiff) / (n - 1)) : 0;
+        return new Sensitivity(name, value, mean(down), mean(up),
+                meanDiff / width, Math.sqrt(var / n) / width, n);
+    }
+
+    /** Win rate over the simulations that completed. */
+    private static double mean(byte[] wins) {
+        int sum = 0, n = 0;
+        for (byte b : wins) {
+            if (b == FAILED) continue;
+            sum += b;
+            n++;
+        }
+        return n == 0 ? 0.0 : sum / (double) n;
+    }
+
+    private static double[] values(PitchProfile p) {
+        return new double[] { p.getGreen(), p.getDry(), p.getBounce(), p.getFlat(), p.getBoundary() };
+    }
+
+    private MatchConfig withPitch(double[] values, int dimension, double value) {
+        double[] v = values.clone();
+        v[dimension] = value;
+        MatchConfig c = base.copy();
+        c.pitchProfile = new PitchProfile(v[0], v[1], v[2], v[3], v[4]);
+        return c;
+    }
+}
@@ -0,0 +1,312 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.cricket.BaselineCalculator;
+import com.cricket.Stats;
+import com.cricket.StatsBundle;
+
+/**
+ * Bitmap indexes over the player pool, for compound selector queries such
+ * as "LHB who average 40+ against RLS with 500+ balls".
+ *
+ * Player ids are positions in the list the index was built from
+ * (TeamDatabase.getAll(), so A-Z). Built once per StatsBundle:
+ *
+ *   - one BitSet per batting hand, bowling role and bowler category
+ *   - for every (bat vs bowling role | bowl vs batting hand, metric) the
+ *     metric value per player, plus BitSets of "value >= t" at BUCKETS
+ *     quantile thresholds of that metric
+ *   - BitSets of "adjusted WPB / RPB above baseline" per matchup
+ *
+ * A threshold filter starts from the nearest bucket bitmap that contains
+ * every answer and re-checks only its members against the exact value;
+ * filters combine by BitSet and / or. Over a few thousand players that is
+ * a few microseconds per query.
+ *
+ * parse() reads the compact syntax TeamBuilderScreen's filter box takes:
+ *   LHB  RFM  spin                          hand, bowling role, category
+ *   bat.avg@RLS>=40  bat.balls@RLS>=500     batting vs a bowling role
+ *   bowl.wpb@RHB>base  bowl.avg@LHB<=30     bowling vs a batting hand
+ * Terms separated by spaces must all hold; "or" separates alternatives.
+ * Metrics: balls, avg, sr, wpb, rpb (wpb / rpb are the shrunk, adjusted
+ * rates used by the simulator; "base" compares them to the baseline).
+ */
+public class PlayerQueryIndex {
+
+    public static final String[] BOWL_ROLES = {
+            "RF", "LF", "RFM", "LFM", "RMF", "LMF", "RM", "LM", "ROS", "LOS", "RLS", "LLS"
+    };
+    public static final String[] HANDS = {"LHB", "RHB"};
+
+    public enum Metric { BALLS, AVG, SR, WPB, RPB }
+
+    private static final int BUCKETS = 16;
+
+    /** Metric values for one matchup, with cumulative threshold bitmaps. */
+    private static class Column {
+        final double[] values;          // NaN = no balls in this matchup
+        final BitSet present = new BitSet();
+        final double[] thresholds;      // ascending
+        final BitSet[] atLeast;         // atLeast[k] = { value >= thresholds[k] }
+
+        Column(double[] values) {
+            this.values = values;
+            double[] sorted = Arrays.stream(values).filter(v -> !Double.isNaN(v)).sorted().distinct().toArray();
+            for (int i = 0; i < values.length; i++) if (!Double.isNaN(values[i])) present.set(i);
+
+            int k = Math.min(BUCKETS, sorted.length);
+            thresholds = new double[k];
+            atLeast = new BitSet[k];
+            for (int b = 0; b < k; b++) {
+                thresholds[b] = sorted[(int) ((long) sorted.length * b / k)];
+                atLeast[b] = new BitSet();
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (Double.isNaN(values[i])) continue;
+                for (int b = 0; b < k && values[i] >= thresholds[b]; b++) atLeast[b].set(i);
+            }
+        }
+
+        /** Players with value >= min (or <= max when upper is true). */
+        BitSet select(double bound, boolean upper) {
+            BitSet candidates;
+            if (!upper) {
+                // Largest threshold <= bound: a superset of the answer
+                int b = Arrays.binarySearch(thresholds, bound);
+                if (b < 0) b = -b - 2;
+                candidates = b < 0 ? (BitSet) present.clone() : (BitSet) atLeast[b].clone();
+                if (b >= 0 && thresholds[b] == bound) return candidates;
+            } else {
+                // Everyone below the smallest threshold > bound: a superset
+                int b = Arrays.binarySearch(thresholds, bound);
+                b = b < 0 ? -b - 1 : b + 1;
+                candidates = (BitSet) present.clone();
+                if (b < thresholds.length) candidates.andNot(atLeast[b]);
+            }
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (upper ? values[i] > bound : values[i] < bound) candidates.clear(i);
+            }
+            return candidates;
+        }
+    }
+
+    private final List<PlayerRecord> players;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<String, BitSet> categorical = new HashMap<>();
+    private final Map<String, Column> columns = new HashMap<>();
+    private final Map<String, BitSet> aboveBase = new HashMap<>();
+
+    private PlayerQueryIndex(List<PlayerRecord> players) {
+        this.players = players;
+    }
+
+    /** Indexes players (ids = list positions) against the bundle's stats. */
+    public static PlayerQueryIndex build(List<PlayerRecord> players, StatsBundle bundle) {
+        PlayerQueryIndex idx = new PlayerQueryIndex(players);
+        BaselineCalculator base = bundle.baselineCalculator;
+        double sharedWpb = base.getOverallWicketsPerBall();
+        int n = players.size();
+
+        for (int i = 0; i < n; i++) {
+            PlayerRecord p = players.get(i);
+            idx.ids.putIfAbsent(p.getName(), i);
+            idx.bits(p.getBatRole().toUpperCase(Locale.ROOT)).set(i);
+            idx.bits(p.getBowlRole().toUpperCase(Locale.ROOT)).set(i);
+            idx.bits(p.getBowlerCategory().name()).set(i);
+        }
+
+        for (String role : BOWL_ROLES) {
+            double rpbBase = base.getBaselineRunsPerBallForRole(role);
+            idx.addMatchup("bat", role, players, bundle.batterStats, rpbBase, sharedWpb, true);
+        }
+        for (String hand : HANDS) {
+            double rpbBase = hand.equals("LHB") ? base.getLhbRunsPerBall() : base.getRhbRunsPerBall();
+            idx.addMatchup("bowl", hand, players, bundle.bowlerStats, rpbBase, sharedWpb, false);
+        }
+        return idx;
+    }
+
+    private BitSet bits(String key) {
+        return categorical.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    private void addMatchup(String side, String vs, List<PlayerRecord> players,
+                            Map<String, Map<String, Stats>> stats,
+                            double rpbBase, double wpbBase, boolean batting) {
+        int n = players.size();
+        double[][] v = new double[Metric.values().length][n];
+        for (double[] col : v) Arrays.fill(col, Double.NaN);
+        BitSet wpbAbove = new BitSet(), rpbAbove = new BitSet();
+
+        for (int i = 0; i < n; i++) {
+            Map<String, Stats> byVs = stats.get(players.get(i).getName());
+            Stats s = byVs == null ? null : byVs.get(vs);
+            if (s == null || s.getBalls() == 0) continue;
+            double wpb = s.getAdjustedWicketsPerBall(wpbBase);
+            double rpb = s.getAdjustedRunsPerBall(rpbBase);
+            v[Metric.BALLS.ordinal()][i] = s.getBalls();
+            v[Metric.AVG.ordinal()][i]   = batting ? s.getBattingAverage() : s.getBowlingAverage();
+            v[Metric.SR.ordinal()][i]    = batting ? s.getBattingStrikeRate() : s.getBowlingStrikeRate();
+            v[Metric.WPB.ordinal()][i]   = wpb;
+            v[Metric.RPB.ordinal()][i]   = rpb;
+            if (wpb > wpbBase) wpbAbove.set(i);
+            if (rpb > rpbBase) rpbAbove.set(i);
+        }
+        for (Metric m : Metric.values()) columns.put(key(side, m, vs), new Column(v[m.ordinal()]));
+        aboveBase.put(key(side, Metric.WPB, vs), wpbAbove);
+        aboveBase.put(key(side, Metric.RPB, vs), rpbAbove);
+    }
+
+    private static String key(String side, Metric m, String vs) {
+        return side + "." + m.name().toLowerCase(Locale.ROOT) + "@" + vs;
+    }
+
+    // ── Primitive selections (each returns a fresh BitSet) ─────────────────
+
+    /** Players with this batting hand, bowling role or bowler category (e.g. LHB, RFM, SPIN). */
+    public BitSet is(String attribute) {
+        BitSet b = categorical.get(attribute.toUpperCase(Locale.ROOT));
+        return b == null ? new BitSet() : (BitSet) b.clone();
+    }
+
+    /** Batting against a bowling role: metric >= min. */
+    public BitSet battingAtLeast(String vsRole, Metric m, double min) {
+        return column("bat", m, vsRole).select(min, false);
+    }
+
+    public BitSet battingAtMost(String vsRole, Metric m, double max) {
+        return column("bat", m, vsRole).select(max, true);
+    }
+
+    /** Bowling against a batting hand: metric >= min. */
+    public BitSet bowlingAtLeast(String vsHand, Metric m, double min) {
+        return column("bowl", m, vsHand).select(min, false);
+    }
+
+    public BitSet bowlingAtMost(String vsHand, Metric m, double max) {
+        return column("bowl", m, vsHand).select(max, true);
+    }
+
+    /** Adjusted WPB or RPB above (or, with above = false, at or below) the baseline. */
+    public BitSet versusBaseline(boolean batting, String vs, Metric m, boolean above) {
+        String k = key(batting ? "bat" : "bowl", m, vs);
+        BitSet b = aboveBase.get(k);
+        if (b == null) throw new IllegalArgumentException("No baseline for " + k);
+        BitSet out = (BitSet) b.clone();
+        if (!above) {
+            BitSet present = (BitSet) columns.get(k).present.clone();
+            present.andNot(out);
+            out = present;
+        }
+        return out;
+    }
+
+    private Column column(String side, Metric m, String vs) {
+        Column c = columns.get(key(side, m, vs.toUpperCase(Locale.ROOT)));
+        if (c == null) throw new IllegalArgumentException("Unknown matchup: " + side + " vs " + vs);
+        return c;
+    }
+
+    // ── Results ───────────────────────────────────────────────────────────
+
+    public boolean contains(BitSet selection, String playerName) {
+        Integer id = ids.get(playerName);
+        return id != null && selection.get(id);
+    }
+
+    public List<PlayerRecord> players(BitSet selection) {
+        List<PlayerRecord> out = new ArrayList<>(selection.cardinality());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) out.add(players.get(i));
+        return out;
+    }
+
+    // ── Query text ────────────────────────────────────────────────────────
+
+    /**
+     * Evaluates a filter in the syntax described above. Throws
+     * IllegalArgumentException with a readable message on bad input.
+     */
+    public BitSet parse(String query) {
+        BitSet result = new BitSet();
+        BitSet clause = null;
+        for (String term : (query.trim() + " or").split("\\s+")) {
+            if (term.isEmpty()) continue;
+            if (term.equalsIgnoreCase("or")) {
+                if (clause == null) throw new IllegalArgumentException("Empty alternative around 'or'");
+                result.or(clause);
+                clause = null;
+                continue;
+            }
+            BitSet t = term(term);
+            if (clause == null) clause = t;
+            else clause.and(t);
+        }
+        return result;
+    }
+
+    private BitSet term(String term) {
+        int dot = term.indexOf('.');
+        if (dot < 0) {
+            if (!categorical.containsKey(term.toUpperCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Unknown role or hand: " + term);
+            }
+            return is(term);
+        }
+
+        int at = term.indexOf('@');
+        int op = indexOfOperator(term);
+        if (at < dot || op < at) throw new IllegalArgumentException("Expected side.metric@vs>=value: " + term);
+        String side = term.substring(0, dot).toLowerCase(Locale.ROOT);
+        if (!side.equals("bat") && !side.equals("bowl")) {
+            throw new IllegalArgumentException("Side must be bat or bowl: " + term);
+        }
+        Metric m;
+        try {
+            m = Metric.valueOf(term.substring(dot + 1, at).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown metric in " + term + " (balls, avg, sr, wpb, rpb)");
+        }
+        String vs = term.substring(at + 1, op).toUpperCase(Locale.ROOT);
+        boolean batting = side.equals("bat");
+        boolean twoChar = term.startsWith(">=", op) || term.startsWith("<=", op);
+        boolean greater = term.charAt(op) == '>';
+        String value = term.substring(op + (twoChar ? 2 : 1));
+
+        if (value.equalsIgnoreCase("base")) {
+            if (m != Metric.WPB && m != Metric.RPB) {
+                throw new IllegalArgumentException("Only wpb and rpb compare to base: " + term);
+            }
+            return versusBaseline(batting, vs, m, greater);
+        }
+        double bound;
+        try {
+            bound = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value);
+        }
+        Column c = column(side, m, vs);
+        // Strict bounds: select the inclusive range, then drop exact hits
+        BitSet out = c.select(bound, !greater);
+        if (!twoChar) {
+            for (int i = out.nextSetBit(0); i >= 0; i = out.nextSetBit(i + 1)) {
+                if (c.values[i] == bound) out.clear(i);
+            }
+        }
+        return out;
+    }
+
+    private static int indexOfOperator(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            char ch = term.charAt(i);
+            if (ch == '>' || ch == '<') return i;
+        }
+        return -1;
+    }
+}
@@ -25,6 +25,7 @@ public class ReviewScreen {
     private final Runnable onBack;
     private VBox simResultBox;
     private javafx.scene.control.TextField simCountField;
+    private com.cricket.StatsBundle statsBundle;
 
     public ReviewScreen(MatchConfig config, Runnable onRun, Runnable onBack) {
         this.config = config;
@@ -32,6 +33,9 @@ public class ReviewScreen {
         this.onBack = onBack;
     }
 
+    /** Enables the instant surrogate estimate; without it the screen waits for SIMULATE. */
+    public void setStatsBundle(com.cricket.StatsBundle bundle) { this.statsBundle = bundle; }
+
     public void show(Stage stage) {
         BorderPane root = new BorderPane();
         root.setStyle("-fx-background-color: #0f1923;");
@@ -121,6 +125,8 @@ public class ReviewScreen {
 
         stage.setScene(new Scene(root, 1100, 680));
         stage.show();
+
+        showEstimateOrSimulate(simBtn);
     }
 
     // ── Pitch summary card ────────────────────────────────────────────────
@@ -235,6 +241,64 @@ public class ReviewScreen {
         return card;
     }
 
+    // ── Instant estimate ──────────────────────────────────────────────────
+    private void showEstimateOrSimulate(Button simBtn) {
+        if (statsBundle == null) return;
+        OutcomeSurrogate model = OutcomeSurrogate.load(OutcomeSurrogate.defaultPath());
+        if (model == null) return;   // no trained model — simulate on demand as before
+
+        OutcomeSurrogate.Estimate e = model.estimate(statsBundle, config);
+        if (e.reliable()) {
+            simResultBox.getChildren().add(buildEstimate(e));
+        } else {
+            // Outside what the model was trained on: fall back to the real thing
+            runSimulation(simBtn);
+        }
+    }
+
+    private VBox buildEstimate(OutcomeSurrogate.Estimate e) {
+        VBox box = new VBox(16);
+        box.setPadding(new Insets(20, 60, 20, 60));
+        box.setStyle("-fx-background-color: #0a1218; -fx-border-color: #6a8099; -fx-border-width: 1 0 0 0;");
+
+        Label heading = new Label(String.format("INSTANT ESTIMATE  (±%.0f%%  —  SIMULATE for a full run)",
+                100 * e.stdError));
+        heading.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 13px; "
+                + "-fx-font-weight: bold; -fx-text-fill: #6a8099;");
+        box.getChildren().add(heading);
+
+        HBox bars = new HBox(40);
+        bars.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        bars.getChildren().addAll(
+                buildProbBlock(config.teamAName, e.teamAWin, "#c0392b"),
+                buildProbBlock("Draw",           e.draw,     "#4a5568"),
+                buildProbBlock(config.teamBName, e.teamBWin, "#27ae60")
+        );
+        box.getChildren().add(bars);
+        return box;
+    }
+
+    private VBox buildProbBlock(String label, double prob, String color) {
+        VBox block = new VBox(6);
+        block.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        block.setPrefWidth(220);
+
+        Label nameLbl = new Label(label.toUpperCase());
+        nameLbl.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 11px; "
+                + "-fx-text-fill: " + color + "; -fx-font-weight: bold;");
+
+        Label pctLbl = new Label(String.format("%.0f%%", 100 * prob));
+        pctLbl.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 22px; "
+                + "-fx-text-fill: " + color + "; -fx-font-weight: bold;");
+
+        ProgressBar bar = new ProgressBar(prob);
+        bar.setPrefWidth(200);
+        bar.setStyle("-fx-accent: " + color + ";");
+
+        block.getChildren().addAll(nameLbl, pctLbl, bar);
+        return block;
+    }
+
     // ── Monte Carlo Simulation ─────────────────────────────────────────────
     private void runSimulation(javafx.scene.control.Button simBtn) {
         int simCount;
@@ -263,7 +327,7 @@ public class ReviewScreen {
 
         final int finalSimCount = simCount;
         new Thread(() -> {
-            MonteCarloEngine.SimResult result = MonteCarloEngine.run(config, finalSimCount, progress ->
+            MonteCarloEngine.SimResult result = simulate(finalSimCount, progress ->
                     Platform.runLater(() -> bar.setProgress(progress / (double) finalSimCount))
             );
 
@@ -285,6 +349,24 @@ public class ReviewScreen {
         }).start();
     }
 
+    /**
+     * Seeded through SimResultCache when stats are loaded, so re-opening an
+     * unchanged matchup is instant and asking for more sims only runs the
+     * extra ones. Without stats it falls back to an unseeded run.
+     */
+    private MonteCarloEngine.SimResult simulate(int simCount,
+                                                java.util.function.Consumer<Integer> progress) {
+        if (statsBundle != null) {
+            try {
+                return SimResultCache.shared().run(config, simCount, statsBundle,
+                        SimResultCache.DEFAULT_SEED, progress);
+            } catch (Exception ex) {
+                System.err.println("Sim cache unavailable: " + ex.getMessage());
+            }
+        }
+        return MonteCarloEngine.run(config, simCount, progress);
+    }
+
     private VBox buildSimResults(MonteCarloEngine.SimResult r, int simCount) {
         VBox box = new VBox(16);
         box.setPadding(new Insets(20, 60, 20, 60));
@@ -326,9 +408,87 @@ public class ReviewScreen {
         performers.getChildren().addAll(runBox, wktBox);
         box.getChildren().add(performers);
 
+        // Innings-total distributions
+        Label distTitle = new Label("INNINGS TOTAL DISTRIBUTION");
+        distTitle.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 10px; -fx-text-fill: #6a8099; -fx-font-weight: bold;");
+        HBox plots = new HBox(40);
+        plots.setAlignment(javafx.geometry.Pos.BOTTOM_LEFT);
+        plots.getChildren().addAll(
+                buildDistributionPlot(config.teamAName, r.teamRunsDist.get(config.teamAName), "#c0392b"),
+                buildDistributionPlot(config.teamBName, r.teamRunsDist.get(config.teamBName), "#27ae60")
+        );
+        box.getChildren().addAll(distTitle, plots);
+
+        // Per-batter percentiles for the leading run scorers
+        Label pctTitle = new Label("RUNS PER INNINGS  —  P10 / MEDIAN / P90");
+        pctTitle.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 10px; -fx-text-fill: #6a8099; -fx-font-weight: bold;");
+        VBox pctBox = new VBox(2, pctTitle);
+        r.batRuns.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(6)
+                .forEach(e -> {
+                    ScoreHistogram h = r.batRunsDist.get(e.getKey());
+                    if (h == null) return;
+                    Label line = new Label(String.format("%-24s %4d  /  %4d  /  %4d",
+                            e.getKey(), h.percentile(10), h.percentile(50), h.percentile(90)));
+                    line.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 12px; -fx-text-fill: #c8d8e8;");
+                    pctBox.getChildren().add(line);
+                });
+        box.getChildren().add(pctBox);
+
         return box;
     }
 
+    private VBox buildDistributionPlot(String team, ScoreHistogram dist, String color) {
+        final int band = 25;
+        final double plotHeight = 90;
+
+        VBox block = new VBox(6);
+        block.setPrefWidth(420);
+
+        Label heading = new Label(team.toUpperCase());
+        heading.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 11px; "
+                + "-fx-text-fill: " + color + "; -fx-font-weight: bold;");
+        block.getChildren().add(heading);
+
+        if (dist == null || dist.getTotal() == 0) {
+            Label none = new Label("No innings recorded");
+            none.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 11px; -fx-text-fill: #6a8099;");
+            block.getChildren().add(none);
+            return block;
+        }
+
+        long[] bands = dist.bucketCounts(band);
+        long peak = 1;
+        for (long c : bands) peak = Math.max(peak, c);
+
+        HBox bars = new HBox(2);
+        bars.setAlignment(javafx.geometry.Pos.BOTTOM_LEFT);
+        bars.setMinHeight(plotHeight);
+        for (int b = 0; b < bands.length; b++) {
+            Region bar = new Region();
+            bar.setPrefWidth(20);
+            bar.setMinHeight(Math.max(1, plotHeight * bands[b] / peak));
+            bar.setMaxHeight(bar.getMinHeight());
+            bar.setStyle("-fx-background-color: " + color + ";");
+            int lo = b * band;
+            javafx.scene.control.Tooltip.install(bar, new javafx.scene.control.Tooltip(
+                    lo + (lo + band > ScoreHistogram.MAX_RUNS ? "+" : "-" + (lo + band - 1))
+                            + " runs: " + bands[b] + " innings"));
+            bars.getChildren().add(bar);
+        }
+
+        Label axis = new Label("0" + " ".repeat(40) + ScoreHistogram.MAX_RUNS + "+");
+        axis.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 9px; -fx-text-fill: #6a8099;");
+
+        Label pct = new Label(String.format("P10 %d   median %d   P90 %d   mean %.0f",
+                dist.percentile(10), dist.percentile(50), dist.percentile(90), dist.mean()));
+        pct.setStyle("-fx-font-family: 'JetBrains Mono'; -fx-font-size: 11px; -fx-text-fill: #c8d8e8;");
+
+        block.getChildren().addAll(bars, axis, pct);
+        return block;
+    }
+
     private VBox buildWinBlock(String label, int wins, int total, String color) {
         VBox block = new VBox(6);
         block.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
@@ -4,7 +4,14 @@ import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Persists team selections to saved_teams.csv.
@@ -16,76 +23,171 @@ import java.util.*;
  *   India,RG Sharma
  *   India,V Kohli
  *   Australia,SPD Smith
+ *
+ * The file is read once, on first use; after that every query is served
+ * from memory. Changes update the in-memory model immediately and are
+ * written through on a background thread — a burst of saves collapses
+ * into one write of the latest state. Each write goes to a temp file that
+ * is then renamed over saved_teams.csv, so a crash mid-write leaves the
+ * previous file intact. Pending writes are flushed at JVM shutdown.
+ *
+ * saveTeam and deleteTeam return a future that completes once the write
+ * holding that change is on disk, or exceptionally if it failed. The
+ * class is final because the constructor registers the shutdown hook.
  */
-public class SavedTeamsStore {
+public final class SavedTeamsStore {
 
     private static final String FILE_PATH = "saved_teams.csv";
 
+    private final Path file;
+    private Map<String, List<String>> teams;        // null until first use
+
+    // Bumped on every change; the writer records what it last persisted
+    private long version;
+    private long writtenVersion;
+    // Changes not yet on disk: version → completed by the write that covers it
+    private final NavigableMap<Long, CompletableFuture<Void>> pending = new TreeMap<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "saved-teams-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SavedTeamsStore() {
+        this(Path.of(FILE_PATH));
+    }
+
+    public SavedTeamsStore(Path file) {
+        this.file = file;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "saved-teams-flush"));
+    }
+
     /**
      * Save a team. Overwrites any existing entry with the same name.
+     * The model changes at once; the future tracks the write to disk.
      */
-    public void saveTeam(String teamName, List<String> players) throws Exception {
-        // Load all existing teams first
-        Map<String, List<String>> all = loadAll();
-        all.put(teamName, new ArrayList<>(players));
-        writeAll(all);
+    public synchronized CompletableFuture<Void> saveTeam(String teamName, List<String> players) {
+        model().put(teamName, new ArrayList<>(players));
+        return changed();
     }
 
     /**
-     * Load all saved teams. Returns map of teamName → player list.
+     * All saved teams, as a copy. Returns map of teamName → player list.
      */
-    public Map<String, List<String>> loadAll() {
-        Map<String, List<String>> teams = new LinkedHashMap<>();
-        File file = new File(FILE_PATH);
-        if (!file.exists()) return teams;
-
-        try (CSVReader reader = new CSVReader(new FileReader(file))) {
-            String[] line;
-            while ((line = reader.readNext()) != null) {
-                if (line.length < 2) continue;
-                String teamName  = line[0].trim();
-                String playerName = line[1].trim();
-                if (!teamName.isBlank() && !playerName.isBlank()) {
-                    teams.computeIfAbsent(teamName, k -> new ArrayList<>())
-                         .add(playerName);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Could not read saved_teams.csv: " + e.getMessage());
-        }
-        return teams;
+    public synchronized Map<String, List<String>> loadAll() {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        model().forEach((name, players) -> copy.put(name, new ArrayList<>(players)));
+        return copy;
     }
 
     /**
      * Returns just the team names for the dropdown.
      */
-    public List<String> getSavedTeamNames() {
-        return new ArrayList<>(loadAll().keySet());
+    public synchronized List<String> getSavedTeamNames() {
+        return new ArrayList<>(model().keySet());
     }
 
     /**
      * Load a specific team by name.
      */
-    public List<String> loadTeam(String teamName) {
-        return loadAll().getOrDefault(teamName, new ArrayList<>());
+    public synchronized List<String> loadTeam(String teamName) {
+        return new ArrayList<>(model().getOrDefault(teamName, List.of()));
     }
 
     /**
      * Delete a saved team.
      */
-    public void deleteTeam(String teamName) throws Exception {
-        Map<String, List<String>> all = loadAll();
-        all.remove(teamName);
-        writeAll(all);
+    public synchronized CompletableFuture<Void> deleteTeam(String teamName) {
+        return model().remove(teamName) != null ? changed() : CompletableFuture.completedFuture(null);
+    }
+
+    /** Blocks until every change so far is on disk (or 10s have passed). */
+    public void flush() {
+        try {
+            writer.submit(this::persist).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Could not flush saved teams: " + e.getMessage());
+        }
+    }
+
+    // ── Model ─────────────────────────────────────────────────────────────
+
+    private Map<String, List<String>> model() {
+        if (teams == null) teams = readFile();
+        return teams;
+    }
+
+    private CompletableFuture<Void> changed() {
+        version++;
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        pending.put(version, written);
+        writer.execute(this::persist);
+        return written;
+    }
+
+    private Map<String, List<String>> readFile() {
+        Map<String, List<String>> loaded = new LinkedHashMap<>();
+        if (!Files.exists(file)) return loaded;
+
+        try (CSVReader reader = new CSVReader(new FileReader(file.toFile()))) {
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length < 2) continue;
+                String teamName  = line[0].trim();
+                String playerName = line[1].trim();
+                if (!teamName.isBlank() && !playerName.isBlank()) {
+                    loaded.computeIfAbsent(teamName, k -> new ArrayList<>())
+                          .add(playerName);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Could not read saved_teams.csv: " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    // ── Write-through (writer thread only) ───────────────────────────────
+
+    /** Writes the latest state if it has not been written yet. */
+    private void persist() {
+        Map<String, List<String>> snapshot;
+        long snapshotVersion;
+        synchronized (this) {
+            if (teams == null || writtenVersion == version) return;
+            snapshot = loadAll();
+            snapshotVersion = version;
+        }
+        List<CompletableFuture<Void>> covered;
+        Exception failure = null;
+        try {
+            writeAll(snapshot);
+        } catch (Exception e) {
+            System.err.println("Could not save saved_teams.csv: " + e.getMessage());
+            failure = e;
+        }
+        synchronized (this) {
+            if (failure == null) writtenVersion = snapshotVersion;
+            Map<Long, CompletableFuture<Void>> done = pending.headMap(snapshotVersion, true);
+            covered = new ArrayList<>(done.values());
+            done.clear();
+        }
+        // Outside the lock: callers' continuations may call back into the store
+        for (CompletableFuture<Void> f : covered) {
+            if (failure == null) f.complete(null);
+            else f.completeExceptionally(failure);
+        }
     }
 
     private void writeAll(Map<String, List<String>> teams) throws Exception {
-        try (CSVWriter writer = new CSVWriter(new FileWriter(FILE_PATH))) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (CSVWriter writer = new CSVWriter(new FileWriter(tmp.toFile()))) {
             for (Map.Entry<String, List<String>> entry : teams.entrySet()) {
                 for (String player : entry.getValue()) {
                     writer.writeNext(new String[]{ entry.getKey(), player });
                 }
             }
         }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,307 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+import com.cricket.CsvWriterUtil;
+import com.cricket.StatsBundle;
+
+/**
+ * Batch runner for pitch × bowling-plan × XI sweeps.
+ *
+ * Every combination of the registered variants becomes one scenario; each
+ * scenario is a Monte Carlo run of simsPerScenario matches. All scenarios
+ * share one StatsBundle and one compiled MatchupTable, and run on a
+ * work-stealing ForkJoinPool: scenarios are split into small simulation
+ * chunks so idle cores pick up work from scenarios that are still running.
+ *
+ * A scenario that throws is recorded as failed and the rest carry on.
+ * Finished scenarios are handed to the onComplete callback as they land
+ * (on a pool thread) and collected into a [pitch][plan][xi] matrix.
+ *
+ * Dimensions with no variants registered use the base config's value.
+ */
+public class ScenarioGridRunner {
+
+    private static final int CHUNK_SIMS = 100;
+
+    /** One cell of the grid. */
+    public static class Scenario {
+        public final int pitchIndex;
+        public final int planIndex;
+        public final int xiIndex;
+        public final String label;
+        public final MatchConfig config;
+
+        Scenario(int pitchIndex, int planIndex, int xiIndex, String label, MatchConfig config) {
+            this.pitchIndex = pitchIndex;
+            this.planIndex  = planIndex;
+            this.xiIndex    = xiIndex;
+            this.label      = label;
+            this.config     = config;
+        }
+    }
+
+    /** Outcome of one scenario — either a result or an error message. */
+    public static class ScenarioResult {
+        public final Scenario scenario;
+        public final MonteCarloEngine.SimResult result; // null if failed
+        public final String error;                      // null if succeeded
+        public final long elapsedMillis;
+
+        ScenarioResult(Scenario scenario, MonteCarloEngine.SimResult result,
+                       String error, long elapsedMillis) {
+            this.scenario      = scenario;
+            this.result        = result;
+            this.error         = error;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public boolean isFailed() { return result == null; }
+
+        public double teamAWinPct() { return pct(result == null ? 0 : result.teamAWins); }
+        public double drawPct()     { return pct(result == null ? 0 : result.draws); }
+        public double teamBWinPct() { return pct(result == null ? 0 : result.teamBWins); }
+
+        private double pct(int n) {
+            return result == null || result.total == 0 ? 0.0 : n * 100.0 / result.total;
+        }
+    }
+
+    private final MatchConfig base;
+
+    private final List<String>        pitchLabels = new ArrayList<>();
+    private final List<PitchProfile>  pitches     = new ArrayList<>();
+    private final List<String>        planLabels  = new ArrayList<>();
+    private final List<BowlingPlan[]> plans       = new ArrayList<>(); // [teamA plan, teamB plan]
+    private final List<String>        xiLabels    = new ArrayList<>();
+    private final List<List<List<String>>> xis    = new ArrayList<>(); // [teamA XI, teamB XI]
+
+    public ScenarioGridRunner(MatchConfig base) {
+        this.base = base;
+    }
+
+    public ScenarioGridRunner addPitch(String label, PitchProfile pitch) {
+        pitchLabels.add(label);
+        pitches.add(pitch);
+        return this;
+    }
+
+    public ScenarioGridRunner addPlans(String label, BowlingPlan teamAPlan, BowlingPlan teamBPlan) {
+        planLabels.add(label);
+        plans.add(new BowlingPlan[]{teamAPlan, teamBPlan});
+        return this;
+    }
+
+    public ScenarioGridRunner addXIs(String label, List<String> teamAXI, List<String> teamBXI) {
+        xiLabels.add(label);
+        xis.add(List.of(new ArrayList<>(teamAXI), new ArrayList<>(teamBXI)));
+        return this;
+    }
+
+    /** Expands the grid into scenarios, pitch-major. */
+    public List<Scenario> scenarios() {
+        int nPitch = Math.max(1, pitches.size());
+        int nPlan  = Math.max(1, plans.size());
+        int nXI    = Math.max(1, xis.size());
+
+        List<Scenario> out = new ArrayList<>(nPitch * nPlan * nXI);
+        for (int p = 0; p < nPitch; p++) {
+            for (int l = 0; l < nPlan; l++) {
+                for (int x = 0; x < nXI; x++) {
+                    MatchConfig c = base.copy();
+                    if (!pitches.isEmpty()) c.pitchProfile = pitches.get(p);
+                    if (!plans.isEmpty()) {
+                        c.teamABowlingPlan = plans.get(l)[0];
+                        c.teamBBowlingPlan = plans.get(l)[1];
+                    }
+                    if (!xis.isEmpty()) {
+                        c.teamAXI = new ArrayList<>(xis.get(x).get(0));
+                        c.teamBXI = new ArrayList<>(xis.get(x).get(1));
+                    }
+                    String label = label(pitchLabels, p, "base pitch") + " | "
+                            + label(planLabels, l, "base plans") + " | "
+                            + label(xiLabels, x, "base XIs");
+                    out.add(new Scenario(p, l, x, label, c));
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Runs every scenario and returns the [pitch][plan][xi] result matrix.
+     * Blocks until the whole grid is done.
+     */
+    public ScenarioResult[][][] run(StatsBundle bundle, int simsPerScenario,
+                                    Consumer<ScenarioResult> onComplete) {
+        return run(bundle, simsPerScenario, new java.util.Random().nextLong(), onComplete);
+    }
+
+    /**
+     * Seeded variant. Every scenario uses the same per-simulation seeds, so
+     * differences between cells are not swamped by sampling noise.
+     */
+    public ScenarioResult[][][] run(StatsBundle bundle, int simsPerScenario, long seed,
+                                    Consumer<ScenarioResult> onComplete) {
+        List<Scenario> scenarios = scenarios();
+
+        // One compiled snapshot covering every player in any variant
+        Set<String> players = new LinkedHashSet<>();
+        for (Scenario s : scenarios) {
+            players.addAll(s.config.teamAXI);
+            players.addAll(s.config.teamBXI);
+        }
+        MatchupTable matchups = MatchupTable.compile(bundle, players);
+
+        ScenarioResult[][][] matrix = new ScenarioResult
+                [Math.max(1, pitches.size())]
+                [Math.max(1, plans.size())]
+                [Math.max(1, xis.size())];
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (Scenario s : scenarios) {
+                tasks.add(pool.submit(new ScenarioTask(s, simsPerScenario, seed, bundle, matchups,
+                        r -> {
+                            matrix[s.pitchIndex][s.planIndex][s.xiIndex] = r;
+                            if (onComplete != null) onComplete.accept(r);
+                        })));
+            }
+            for (ForkJoinTask<?> t : tasks) t.join();
+        } finally {
+            pool.shutdown();
+        }
+        return matrix;
+    }
+
+    /** Writes the matrix as one CSV row per scenario. */
+    public static void writeCsv(ScenarioResult[][][] matrix, String path) throws Exception {
+        CsvWriterUtil csv = new CsvWriterUtil();
+        csv.open(path);
+        csv.writeHeader(new String[]{
+                "Scenario", "Pitch", "Plans", "XIs", "Sims",
+                "Team A Win %", "Draw %", "Team B Win %", "Seconds", "Error"});
+        for (ScenarioResult[][] byPlan : matrix) {
+            for (ScenarioResult[] byXI : byPlan) {
+                for (ScenarioResult r : byXI) {
+                    if (r == null) continue;
+                    Scenario s = r.scenario;
+                    csv.writeRow(s.label, s.pitchIndex, s.planIndex, s.xiIndex,
+                            r.isFailed() ? 0 : r.result.total,
+                            String.format("%.2f", r.teamAWinPct()),
+                            String.format("%.2f", r.drawPct()),
+                            String.format("%.2f", r.teamBWinPct()),
+                            String.format("%.1f", r.elapsedMillis / 1000.0),
+                            r.error == null ? "" : r.error);
+                }
+            }
+        }
+        csv.close();
+    }
+
+    private static String label(List<String> labels, int i, String fallback) {
+        return labels.isEmpty() ? fallback : labels.get(i);
+    }
+
+    // ── Fork/join tasks ───────────────────────────────────────────────────
+
+    // Never serialized; the fields are transient like the JDK's own
+    // fork/join tasks, which are Serializable only by inheritance
+    private static class ScenarioTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Scenario scenario;
+        private final int sims;
+        private final long seed;
+        private final transient StatsBundle bundle;
+        private final transient MatchupTable matchups;
+        private final transient Consumer<ScenarioResult> sink;
+
+        ScenarioTask(Scenario scenario, int sims, long seed, StatsBundle bundle,
+                     MatchupTable matchups, Consumer<ScenarioResult> sink) {
+            this.scenario = scenario;
+            this.sims     = sims;
+            this.seed     = seed;
+            this.bundle   = bundle;
+            this.matchups = matchups;
+            this.sink     = sink;
+        }
+
+        @Override
+        protected void compute() {
+            long start = System.currentTimeMillis();
+            ScenarioResult out;
+            try {
+                validate(scenario.config);
+                // Built before the chunks fork, so they never wait on it
+                LookaheadCaptain captain =
+                        MonteCarloEngine.newCaptain(scenario.config, bundle, matchups, seed);
+                if (captain != null) captain.prepare();
+                MonteCarloEngine.SimResult r = new ChunkTask(scenario.config, seed, 0, sims,
+                        bundle, matchups, captain).invoke();
+                if (r.total == 0 && sims > 0) {
+                    throw new IllegalStateException("every simulation failed");
+                }
+                out = new ScenarioResult(scenario, r, null, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                out = new ScenarioResult(scenario, null, e.getClass().getSimpleName()
+                        + ": " + e.getMessage(), System.currentTimeMillis() - start);
+            }
+            sink.accept(out);
+        }
+
+        private static void validate(MatchConfig c) {
+            if (c.pitchProfile == null) throw new IllegalArgumentException("no pitch profile");
+            if (c.teamAXI.size() != 11 || c.teamBXI.size() != 11) {
+                throw new IllegalArgumentException("both XIs need 11 players ("
+                        + c.teamAXI.size() + " / " + c.teamBXI.size() + ")");
+            }
+        }
+    }
+
+    private static class ChunkTask extends RecursiveTask<MonteCarloEngine.SimResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient MatchConfig config;
+        private final long seed;
+        private final int from;
+        private final int to;
+        private final transient StatsBundle bundle;
+        private final transient MatchupTable matchups;
+        private final transient LookaheadCaptain captain;
+
+        ChunkTask(MatchConfig config, long seed, int from, int to,
+                  StatsBundle bundle, MatchupTable matchups, LookaheadCaptain captain) {
+            this.config   = config;
+            this.seed     = seed;
+            this.from     = from;
+            this.to       = to;
+            this.bundle   = bundle;
+            this.matchups = matchups;
+            this.captain  = captain;
+        }
+
+        @Override
+        protected MonteCarloEngine.SimResult compute() {
+            if (to - from <= CHUNK_SIMS) {
+                return MonteCarloEngine.simulateRange(config, bundle, matchups, seed, captain, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask left  = new ChunkTask(config, seed, from, mid, bundle, matchups, captain);
+            ChunkTask right = new ChunkTask(config, seed, mid, to, bundle, matchups, captain);
+            left.fork();
+            MonteCarloEngine.SimResult r = right.compute();
+            r.merge(left.join());
+            return r;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.cricket.engine;
+
+/**
+ * Fixed-bucket histogram of non-negative integer scores (runs or wickets
+ * in one innings). One bucket per value from 0 to maxValue; anything larger
+ * is clamped into the top bucket, so memory stays constant no matter how
+ * many innings are recorded.
+ *
+ * record() only increments an array slot, and two histograms with the same
+ * range can be merged, so each Monte Carlo worker keeps its own and the
+ * results are summed at the end.
+ */
+public class ScoreHistogram implements java.io.Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_RUNS    = 400;
+    public static final int MAX_WICKETS = 10;
+
+    private final long[] counts;
+    private long total = 0;
+    private long sum   = 0;
+
+    public ScoreHistogram(int maxValue) {
+        this.counts = new long[maxValue + 1];
+    }
+
+    public static ScoreHistogram forRuns()    { return new ScoreHistogram(MAX_RUNS); }
+    public static ScoreHistogram forWickets() { return new ScoreHistogram(MAX_WICKETS); }
+
+    public void record(int value) {
+        int bucket = value < 0 ? 0 : Math.min(value, counts.length - 1);
+        counts[bucket]++;
+        total++;
+        sum += value;
+    }
+
+    /** Adds every count from another histogram of the same range into this one. */
+    public void merge(ScoreHistogram other) {
+        if (other.counts.length != counts.length) {
+            throw new IllegalArgumentException("Histogram ranges differ: "
+                    + (counts.length - 1) + " vs " + (other.counts.length - 1));
+        }
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum   += other.sum;
+    }
+
+    public int getMaxValue()         { return counts.length - 1; }
+    public long getTotal()           { return total; }
+    public long getCount(int value)  { return value < 0 || value >= counts.length ? 0 : counts[value]; }
+
+    /** Mean of the recorded values (exact — not affected by top-bucket clamping). */
+    public double mean() {
+        return total == 0 ? 0.0 : sum / (double) total;
+    }
+
+    /**
+     * Nearest-rank percentile, e.g. percentile(90) is the score that 90% of
+     * recorded innings are at or below. Returns 0 for an empty histogram.
+     */
+    public int percentile(double pct) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(pct / 100.0 * total);
+        if (rank < 1) rank = 1;
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) return i;
+        }
+        return counts.length - 1;
+    }
+
+    /** Collapses the buckets into ranges of the given width, for plotting. */
+    public long[] bucketCounts(int width) {
+        long[] out = new long[(counts.length + width - 1) / width];
+        for (int i = 0; i < counts.length; i++) out[i / width] += counts[i];
+        return out;
+    }
+}
@@ -0,0 +1,340 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Monte Carlo over whole Test series: an ordered list of venues, each with
+ * its own base pitch, played by the XIs and plans of one MatchConfig.
+ *
+ * A series is the simulation unit — series i draws every match from
+ * MonteCarloEngine.simSeed(seed, i), venue by venue. Series run in
+ * parallel; each worker fills its own SeriesResult and the partials are
+ * merged at the end, as MonteCarloEngine.run does for matches.
+ *
+ * Player aggregates live in primitive arrays indexed by player (plus
+ * fixed-size histograms of series totals), so a SeriesResult is the same
+ * size for 100 series or 100,000.
+ */
+public class SeriesSimulator {
+
+    private static final int MAX_SERIES_RUNS    = 1500;
+    private static final int MAX_SERIES_WICKETS = 60;
+
+    /** One Test of the series. Plan overrides replace the config's for this match only. */
+    public static class Venue {
+        public final String name;
+        public final PitchProfile pitch;
+        public final BowlingPlan teamAPlan;   // null = config.teamABowlingPlan
+        public final BowlingPlan teamBPlan;
+
+        public Venue(String name, PitchProfile pitch, BowlingPlan teamAPlan, BowlingPlan teamBPlan) {
+            this.name      = name;
+            this.pitch     = pitch;
+            this.teamAPlan = teamAPlan;
+            this.teamBPlan = teamBPlan;
+        }
+
+        public Venue(String name, PitchProfile pitch) {
+            this(name, pitch, null, null);
+        }
+    }
+
+    /** Aggregates over many series. Arrays are indexed by players / venue order. */
+    public static class SeriesResult {
+        public final String teamAName;
+        public final String teamBName;
+        public final List<String> venues;
+        public final List<String> players;
+
+        public long series = 0;
+        public long teamASeriesWins = 0;
+        public long teamBSeriesWins = 0;
+        public long seriesDrawn     = 0;
+        public final long[][] scorelines;     // [Team A match wins][Team B match wins]
+
+        // Per venue
+        public final long[] venueAWins;
+        public final long[] venueBWins;
+        public final long[] venueDraws;
+
+        // Per player, summed over every series
+        public final long[] runs;
+        public final long[] ballsFaced;
+        public final long[] dismissals;
+        public final long[] battingInnings;
+        public final long[] hundreds;
+        public final long[] wickets;
+        public final long[] runsConceded;
+        public final long[] ballsBowled;
+        public final long[] fiveFors;
+        public final long[] topRunScorer;     // series finished as (joint) top run scorer
+        public final long[] topWicketTaker;
+        public final ScoreHistogram[] seriesRuns;     // distribution of series totals
+        public final ScoreHistogram[] seriesWickets;
+
+        SeriesResult(String teamAName, String teamBName, List<String> venues, List<String> players) {
+            this.teamAName = teamAName;
+            this.teamBName = teamBName;
+            this.venues    = venues;
+            this.players   = players;
+            int v = venues.size(), p = players.size();
+            scorelines     = new long[v + 1][v + 1];
+            venueAWins     = new long[v];
+            venueBWins     = new long[v];
+            venueDraws     = new long[v];
+            runs           = new long[p];
+            ballsFaced     = new long[p];
+            dismissals     = new long[p];
+            battingInnings = new long[p];
+            hundreds       = new long[p];
+            wickets        = new long[p];
+            runsConceded   = new long[p];
+            ballsBowled    = new long[p];
+            fiveFors       = new long[p];
+            topRunScorer   = new long[p];
+            topWicketTaker = new long[p];
+            seriesRuns     = new ScoreHistogram[p];
+            seriesWickets  = new ScoreHistogram[p];
+            for (int i = 0; i < p; i++) {
+                seriesRuns[i]    = new ScoreHistogram(MAX_SERIES_RUNS);
+                seriesWickets[i] = new ScoreHistogram(MAX_SERIES_WICKETS);
+            }
+        }
+
+        public void merge(SeriesResult o) {
+            series          += o.series;
+            teamASeriesWins += o.teamASeriesWins;
+            teamBSeriesWins += o.teamBSeriesWins;
+            seriesDrawn     += o.seriesDrawn;
+            for (int a = 0; a < scorelines.length; a++) add(scorelines[a], o.scorelines[a]);
+            add(venueAWins, o.venueAWins);
+            add(venueBWins, o.venueBWins);
+            add(venueDraws, o.venueDraws);
+            add(runs, o.runs);
+            add(ballsFaced, o.ballsFaced);
+            add(dismissals, o.dismissals);
+            add(battingInnings, o.battingInnings);
+            add(hundreds, o.hundreds);
+            add(wickets, o.wickets);
+            add(runsConceded, o.runsConceded);
+            add(ballsBowled, o.ballsBowled);
+            add(fiveFors, o.fiveFors);
+            add(topRunScorer, o.topRunScorer);
+            add(topWicketTaker, o.topWicketTaker);
+            for (int i = 0; i < players.size(); i++) {
+                seriesRuns[i].merge(o.seriesRuns[i]);
+                seriesWickets[i].merge(o.seriesWickets[i]);
+            }
+        }
+
+        private static void add(long[] into, long[] from) {
+            for (int i = 0; i < into.length; i++) into[i] += from[i];
+        }
+
+        // ── Convenience ───────────────────────────────────────────────────
+
+        public double teamASeriesWinProb() { return frac(teamASeriesWins); }
+        public double teamBSeriesWinProb() { return frac(teamBSeriesWins); }
+        public double seriesDrawProb()     { return frac(seriesDrawn); }
+
+        /** Probability the series ends aWins–bWins in matches won. */
+        public double scorelineProb(int aWins, int bWins) {
+            if (aWins >= scorelines.length || bWins >= scorelines.length) return 0.0;
+            return frac(scorelines[aWins][bWins]);
+        }
+
+        public double meanSeriesRuns(String player)    { return mean(runs, player); }
+        public double meanSeriesWickets(String player) { return mean(wickets, player); }
+
+        public double battingAverage(String player) {
+            int i = players.indexOf(player);
+            return i < 0 || dismissals[i] == 0 ? 0.0 : runs[i] / (double) dismissals[i];
+        }
+
+        public double topRunScorerProb(String player) {
+            int i = players.indexOf(player);
+            return i < 0 ? 0.0 : frac(topRunScorer[i]);
+        }
+
+        public double topWicketTakerProb(String player) {
+            int i = players.indexOf(player);
+            return i < 0 ? 0.0 : frac(topWicketTaker[i]);
+        }
+
+        private double mean(long[] values, String player) {
+            int i = players.indexOf(player);
+            return i < 0 ? 0.0 : frac(values[i]);
+        }
+
+        private double frac(long count) {
+            return series == 0 ? 0.0 : count / (double) series;
+        }
+    }
+
+    private final StatsBundle bundle;
+    private final MatchConfig config;
+    private final List<Venue> venues;
+    private final List<String> players;
+    private final Map<String, Integer> playerIndex = new HashMap<>();
+    private final MatchupTable matchups;
+
+    private long seed = new Random().nextLong();
+
+    public SeriesSimulator(StatsBundle bundle, MatchConfig config, List<Venue> venues) {
+        this.bundle = bundle;
+        this.config = config;
+        this.venues = List.copyOf(venues);
+
+        Set<String> names = new LinkedHashSet<>(config.teamAXI);
+        names.addAll(config.teamBXI);
+        this.players = List.copyOf(names);
+        for (int i = 0; i < players.size(); i++) playerIndex.put(players.get(i), i);
+        this.matchups = MatchupTable.compile(bundle, config);
+    }
+
+    public SeriesSimulator seed(long seed) { this.seed = seed; return this; }
+
+    public SeriesResult run(int seriesCount, Consumer<Integer> progress) {
+        int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), seriesCount));
+        AtomicInteger completed = new AtomicInteger();
+
+        List<SeriesResult> partials = IntStream.range(0, workers).parallel()
+                .mapToObj(w -> {
+                    int from = (int) ((long) seriesCount * w / workers);
+                    int to   = (int) ((long) seriesCount * (w + 1) / workers);
+                    return simulateRange(from, to, completed, progress);
+                })
+                .toList();
+
+        SeriesResult result = emptyResult();
+        for (SeriesResult part : partials) result.merge(part);
+        return result;
+    }
+
+    /** Series [from, to) on the calling thread. */
+    public SeriesResult simulateRange(int from, int to) {
+        return simulateRange(from, to, null, null);
+    }
+
+    private SeriesResult simulateRange(int from, int to, AtomicInteger completed,
+                                       Consumer<Integer> progress) {
+        SeriesResult result = emptyResult();
+        Random rng = new Random();
+        int[] seriesRuns    = new int[players.size()];
+        int[] seriesWickets = new int[players.size()];
+        int[] matchWinners  = new int[venues.size()];   // 1 = A, 2 = B, 0 = draw
+        List<InningsResult> innings = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            rng.setSeed(MonteCarloEngine.simSeed(seed, i));
+            innings.clear();
+            try {
+                for (int v = 0; v < venues.size(); v++) {
+                    matchWinners[v] = playMatch(venues.get(v), rng, innings);
+                }
+            } catch (Exception e) {
+                continue;   // skip a failed series, as MonteCarloEngine skips failed matches
+            }
+            record(result, matchWinners, innings, seriesRuns, seriesWickets);
+
+            if (completed != null) {
+                int done = completed.incrementAndGet();
+                if (progress != null && done % 50 == 0) progress.accept(done);
+            }
+        }
+        return result;
+    }
+
+    private SeriesResult emptyResult() {
+        List<String> venueNames = new ArrayList<>();
+        for (Venue v : venues) venueNames.add(v.name);
+        return new SeriesResult(config.teamAName, config.teamBName,
+                Collections.unmodifiableList(venueNames), players);
+    }
+
+    // ── One series ────────────────────────────────────────────────────────
+
+    /** Plays a match, appending its innings; returns 1 / 2 / 0 for A / B / draw. */
+    private int playMatch(Venue venue, Random rng, List<InningsResult> innings) {
+        BallEngine ballEngine = new BallEngine(bundle.batterStats, bundle.bowlerStats,
+                bundle.baselineCalculator, venue.pitch, matchups, rng);
+        InningsEngine inningsEngine = new InningsEngine(ballEngine, bundle.roleLoader, rng);
+        SilentMatchEngine engine = new SilentMatchEngine(inningsEngine, venue.pitch, rng);
+
+        String outcome = engine.simulate(
+                config.teamAName, config.teamAXI,
+                config.teamBName, config.teamBXI,
+                venue.teamAPlan != null ? venue.teamAPlan : config.teamABowlingPlan,
+                venue.teamBPlan != null ? venue.teamBPlan : config.teamBBowlingPlan);
+        innings.addAll(engine.getAllInnings());
+
+        if (outcome.contains(config.teamAName + " wins")) return 1;
+        if (outcome.contains(config.teamBName + " wins")) return 2;
+        return 0;
+    }
+
+    /** Adds a finished series to the result. seriesRuns / seriesWickets are scratch. */
+    private void record(SeriesResult result, int[] matchWinners, List<InningsResult> innings,
+                        int[] seriesRuns, int[] seriesWickets) {
+        int aWins = 0, bWins = 0;
+        for (int v = 0; v < matchWinners.length; v++) {
+            if (matchWinners[v] == 1)      { aWins++; result.venueAWins[v]++; }
+            else if (matchWinners[v] == 2) { bWins++; result.venueBWins[v]++; }
+            else                             result.venueDraws[v]++;
+        }
+        result.series++;
+        result.scorelines[aWins][bWins]++;
+        if (aWins > bWins)      result.teamASeriesWins++;
+        else if (bWins > aWins) result.teamBSeriesWins++;
+        else                    result.seriesDrawn++;
+
+        Arrays.fill(seriesRuns, 0);
+        Arrays.fill(seriesWickets, 0);
+        for (InningsResult ir : innings) {
+            for (BatterRecord b : ir.getBattingCard()) {
+                Integer p = playerIndex.get(b.name);
+                if (p == null || b.balls == 0) continue;
+                result.runs[p]       += b.runs;
+                result.ballsFaced[p] += b.balls;
+                result.battingInnings[p]++;
+                if (!b.notOut)     result.dismissals[p]++;
+                if (b.runs >= 100) result.hundreds[p]++;
+                seriesRuns[p] += b.runs;
+            }
+            for (BowlerRecord b : ir.getBowlingCard()) {
+                Integer p = playerIndex.get(b.name);
+                if (p == null || b.ballsBowled == 0) continue;
+                result.wickets[p]      += b.wickets;
+                result.runsConceded[p] += b.runsConceded;
+                result.ballsBowled[p]  += b.ballsBowled;
+                if (b.wickets >= 5) result.fiveFors[p]++;
+                seriesWickets[p] += b.wickets;
+            }
+        }
+
+        int topRuns = 0, topWickets = 0;
+        for (int p = 0; p < seriesRuns.length; p++) {
+            topRuns    = Math.max(topRuns, seriesRuns[p]);
+            topWickets = Math.max(topWickets, seriesWickets[p]);
+            result.seriesRuns[p].record(seriesRuns[p]);
+            result.seriesWickets[p].record(seriesWickets[p]);
+        }
+        for (int p = 0; p < seriesRuns.length; p++) {
+            if (topRuns > 0 && seriesRuns[p] == topRuns)          result.topRunScorer[p]++;
+            if (topWickets > 0 && seriesWickets[p] == topWickets) result.topWicketTaker[p]++;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cricket.engine;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Like TestMatchEngine but produces no console output and no scorecard UI.
@@ -9,30 +10,66 @@ import java.util.List;
  */
 public class SilentMatchEngine {
 
+    static final String DRAWN = "Match Drawn";
+    static final int MAX_MATCH_BALLS = 450 * 6;
+    private static final int FOLLOW_ON_LEAD = 200;
+
     private final InningsEngine inningsEngine;
     private final DeterioratingPitch pitch;
+    private final Random rng;
     private final List<InningsResult> allInnings = new ArrayList<>();
+    private final List<String> battingTeams = new ArrayList<>(); // parallel to allInnings
 
     private int matchBalls = 0;
-    private static final int MAX_MATCH_BALLS = 450 * 6;
+
+    // Optional lookahead for declarations and the follow-on; null = thresholds
+    private LookaheadCaptain captain;
+
+    // Sides in toss order: "first" bats first. Each plan is the one that side bowls with.
+    private String firstName, secondName;
+    private List<String> firstXI, secondXI;
+    private BowlingPlan firstPlan, secondPlan;
+    private DeclarationEngine decEngine;
+    private String battingNow;
+    private boolean followOn;
+    private String tossWinner;
 
     public SilentMatchEngine(InningsEngine inningsEngine, PitchProfile basePitch) {
+        this(inningsEngine, basePitch, new Random());
+    }
+
+    /** Seeded variant — toss and declaration draws come from the given Random. */
+    public SilentMatchEngine(InningsEngine inningsEngine, PitchProfile basePitch, Random rng) {
         this.inningsEngine = inningsEngine;
         this.pitch = new DeterioratingPitch(basePitch);
+        this.rng = rng;
     }
 
     public List<InningsResult> getAllInnings() { return allInnings; }
 
+    /** Name of the batting side for each entry of getAllInnings(). */
+    public List<String> getBattingTeams() { return battingTeams; }
+
+    /** Side that won the toss in the last simulate() call. */
+    public String getTossWinner() { return tossWinner; }
+
+    /** Whether the follow-on was enforced in the last simulate() call. */
+    public boolean isFollowOn() { return followOn; }
+
+    /** Lets a LookaheadCaptain make declaration and follow-on calls. */
+    public void setCaptain(LookaheadCaptain captain) { this.captain = captain; }
+
     public String simulate(String teamAName, List<String> teamA,
                            String teamBName, List<String> teamB,
                            BowlingPlan teamABowlingPlan,
                            BowlingPlan teamBBowlingPlan) {
         allInnings.clear();
+        battingTeams.clear();
         matchBalls = 0;
+        followOn = false;
 
         // ── Toss ──────────────────────────────────────────────────────────
-        java.util.Random rng = new java.util.Random();
-        String tossWinner = rng.nextBoolean() ? teamAName : teamBName;
+        tossWinner = rng.nextBoolean() ? teamAName : teamBName;
         boolean electedToBat = rng.nextBoolean();
         boolean tossWinnerIsA = tossWinner.equals(teamAName);
         if ((electedToBat && !tossWinnerIsA) || (!electedToBat && tossWinnerIsA)) {
@@ -40,69 +77,81 @@ public class SilentMatchEngine {
             List<String> tmpXI = teamA; teamA = teamB; teamB = tmpXI;
             BowlingPlan tmpPlan = teamABowlingPlan; teamABowlingPlan = teamBBowlingPlan; teamBBowlingPlan = tmpPlan;
         }
+        setSides(teamAName, teamA, teamABowlingPlan, teamBName, teamB, teamBBowlingPlan);
 
-        DeclarationEngine decEngine = new DeclarationEngine();
+        decEngine = new DeclarationEngine(rng);
+        if (captain != null) decEngine.setLookahead(this::lookaheadDeclare);
 
-        // 1st innings
-        InningsResult aFirst = play(teamA, teamB, null, 1, 0, teamBBowlingPlan, decEngine);
-        allInnings.add(aFirst);
-        int a1 = aFirst.getRuns();
-        if (timeUp()) return "Match Drawn";
+        return playFrom(new int[4], 0, null);
+    }
 
-        // 2nd innings
-        InningsResult bFirst = play(teamB, teamA, null, 2, -a1, teamABowlingPlan, decEngine);
-        allInnings.add(bFirst);
-        int b1 = bFirst.getRuns();
-        if (timeUp()) return "Match Drawn";
+    // ── Match flow ────────────────────────────────────────────────────────
 
-        int lead = a1 - b1;
+    /**
+     * Plays the match on after `completed` innings. runs[] holds the totals
+     * so far; enforced (the follow-on) is null until decided after innings 2.
+     */
+    private String playFrom(int[] runs, int completed, Boolean enforced) {
+        if (completed < 1) {
+            runs[0] = play(firstName, firstXI, secondXI, null, 1, 0, secondPlan).getRuns();
+            if (timeUp()) return DRAWN;
+        }
+        if (completed < 2) {
+            runs[1] = play(secondName, secondXI, firstXI, null, 2, -runs[0], firstPlan).getRuns();
+            if (timeUp()) return DRAWN;
+        }
+        int a1 = runs[0];
+        int b1 = runs[1];
+        if (enforced == null) enforced = a1 - b1 >= FOLLOW_ON_LEAD && enforceFollowOn(a1 - b1);
+        followOn = enforced;
 
-        if (lead >= 200) {
+        if (enforced) {
             // Follow-on
-            InningsResult bSecond = play(teamB, teamA, null, 3, b1 - a1, teamABowlingPlan, decEngine);
-            allInnings.add(bSecond);
-            int b2 = bSecond.getRuns();
-            if (timeUp()) return "Match Drawn";
+            if (completed < 3) {
+                runs[2] = play(secondName, secondXI, firstXI, null, 3, b1 - a1, firstPlan).getRuns();
+                if (timeUp()) return DRAWN;
+            }
+            int b2 = runs[2];
 
             if (b1 + b2 > a1) {
                 int target = (b1 + b2) - a1 + 1;
-                InningsResult aSecond = play(teamA, teamB, target, 4, 0, teamBBowlingPlan, decEngine);
-                allInnings.add(aSecond);
-                return chaseResult(aSecond, target, teamAName, teamBName);
+                InningsResult aSecond = play(firstName, firstXI, secondXI, target, 4, 0, secondPlan);
+                return chaseResult(aSecond, target, firstName, secondName);
             }
             int target = (a1 - b1 - b2) + 1;
-            if (target <= 0) return teamAName + " wins by an innings";
-            InningsResult aSecond = play(teamA, teamB, target, 4, 0, teamBBowlingPlan, decEngine);
-            allInnings.add(aSecond);
-            return chaseResult(aSecond, target, teamAName, teamBName);
+            if (target <= 0) return firstName + " wins by an innings";
+            InningsResult aSecond = play(firstName, firstXI, secondXI, target, 4, 0, secondPlan);
+            return chaseResult(aSecond, target, firstName, secondName);
         } else {
             // Normal
-            InningsResult aSecond = play(teamA, teamB, null, 3, a1 - b1, teamBBowlingPlan, decEngine);
-            allInnings.add(aSecond);
-            int a2 = aSecond.getRuns();
-            if (timeUp()) return "Match Drawn";
+            if (completed < 3) {
+                runs[2] = play(firstName, firstXI, secondXI, null, 3, a1 - b1, secondPlan).getRuns();
+                if (timeUp()) return DRAWN;
+            }
+            int a2 = runs[2];
 
             int target = a1 + a2 - b1 + 1;
-            InningsResult bSecond = play(teamB, teamA, target, 4, 0, teamABowlingPlan, decEngine);
-            allInnings.add(bSecond);
-            return chaseResult(bSecond, target, teamBName, teamAName);
+            InningsResult bSecond = play(secondName, secondXI, firstXI, target, 4, 0, firstPlan);
+            return chaseResult(bSecond, target, secondName, firstName);
         }
     }
 
-    private InningsResult play(List<String> batting, List<String> bowling,
-                                Integer target, int inningsNum, int lead,
-                                BowlingPlan plan, DeclarationEngine decEngine) {
+    private InningsResult play(String battingName, List<String> batting, List<String> bowling,
+                                Integer target, int inningsNum, int lead, BowlingPlan plan) {
         inningsEngine.setPitch(pitch.currentProfile());
         int remaining = MAX_MATCH_BALLS - matchBalls;
         List<String> bowlingOrder = (plan != null)
                 ? plan.toOrderedBowlingList(remaining / 6) : bowling;
         if (bowlingOrder == null || bowlingOrder.isEmpty()) bowlingOrder = bowling;
 
+        battingNow = battingName;
         DeclarationEngine dec = inningsNum < 4 ? decEngine : null;
         InningsResult r = inningsEngine.simulateInnings(
                 batting, bowlingOrder, remaining, target, dec, inningsNum, lead);
         matchBalls += r.getBalls();
         pitch.deteriorate();
+        allInnings.add(r);
+        battingTeams.add(battingName);
         return r;
     }
 
@@ -111,7 +160,84 @@ public class SilentMatchEngine {
     private String chaseResult(InningsResult r, int target,
                                 String chasing, String defending) {
         if (r.getRuns() >= target) return chasing + " wins by " + (10 - r.getWickets()) + " wickets";
-        if (timeUp()) return "Match Drawn";
+        if (timeUp()) return DRAWN;
         return defending + " wins by " + (target - r.getRuns() - 1) + " runs";
     }
-}
\ No newline at end of file
+
+    private void setSides(String aName, List<String> aXI, BowlingPlan aPlan,
+                          String bName, List<String> bXI, BowlingPlan bPlan) {
+        firstName = aName;  firstXI = aXI;  firstPlan = aPlan;
+        secondName = bName; secondXI = bXI; secondPlan = bPlan;
+    }
+
+    // ── Captaincy ─────────────────────────────────────────────────────────
+
+    private Boolean lookaheadDeclare(int inningsNumber, int lead, int wickets, double remainingOvers) {
+        return captain.shouldDeclare(battingNow, inningsNumber, inningsNumber == 3 && followOn,
+                lead, wickets, remainingOvers);
+    }
+
+    private boolean enforceFollowOn(int lead) {
+        if (captain == null) return true;
+        Boolean enforce = captain.shouldEnforceFollowOn(firstName, lead,
+                (MAX_MATCH_BALLS - matchBalls) / 6.0);
+        return enforce == null || enforce;
+    }
+
+    // ── Nested lookahead entry points (LookaheadCaptain) ──────────────────
+
+    /**
+     * Plays on from a point inside innings completed+1, with the batting
+     * side on partialRuns for `wickets` down. If batOnOvers is 0 it declares
+     * at once; otherwise it bats on for up to that many overs (no further
+     * declaration checks) before declaring. Declarations after that use
+     * the thresholds. Returns the result string, as simulate() does.
+     */
+    String resumeDeclaration(String aName, List<String> aXI, BowlingPlan aPlan,
+                             String bName, List<String> bXI, BowlingPlan bPlan,
+                             int[] runs, int completed, Boolean enforced, int usedBalls,
+                             int partialRuns, int wickets, int batOnOvers) {
+        startNested(aName, aXI, aPlan, bName, bXI, bPlan, completed, usedBalls);
+        int innings = completed + 1;
+        boolean firstBats = innings == 1 || (innings == 3 && !Boolean.TRUE.equals(enforced));
+        runs[completed] = partialRuns;
+
+        if (batOnOvers > 0 && wickets < 10) {
+            List<String> batting = firstBats ? firstXI : secondXI;
+            List<String> bowling = firstBats ? secondXI : firstXI;
+            BowlingPlan plan     = firstBats ? secondPlan : firstPlan;
+            int remaining = MAX_MATCH_BALLS - matchBalls;
+            List<String> bowlingOrder = plan != null ? plan.toOrderedBowlingList(remaining / 6) : bowling;
+            if (bowlingOrder == null || bowlingOrder.isEmpty()) bowlingOrder = bowling;
+
+            inningsEngine.setPitch(pitch.currentProfile());
+            InningsResult r = inningsEngine.simulateInnings(
+                    batting.subList(Math.min(wickets, batting.size() - 2), batting.size()),
+                    bowlingOrder, Math.min(remaining, batOnOvers * 6), null);
+            runs[completed] += r.getRuns();
+            matchBalls += r.getBalls();
+        }
+        pitch.deteriorate();
+        if (timeUp()) return DRAWN;
+        return playFrom(runs, completed + 1, enforced);
+    }
+
+    /** Plays on from the break after innings 2 with the follow-on decided. */
+    String resumeAfterSecondInnings(String aName, List<String> aXI, BowlingPlan aPlan,
+                                    String bName, List<String> bXI, BowlingPlan bPlan,
+                                    int[] runs, boolean enforce, int usedBalls) {
+        startNested(aName, aXI, aPlan, bName, bXI, bPlan, 2, usedBalls);
+        return playFrom(runs, 2, enforce);
+    }
+
+    private void startNested(String aName, List<String> aXI, BowlingPlan aPlan,
+                             String bName, List<String> bXI, BowlingPlan bPlan,
+                             int completed, int usedBalls) {
+        allInnings.clear();
+        battingTeams.clear();
+        setSides(aName, aXI, aPlan, bName, bXI, bPlan);
+        decEngine = new DeclarationEngine(rng);
+        matchBalls = usedBalls;
+        for (int i = 0; i < completed; i++) pitch.deteriorate();
+    }
+}
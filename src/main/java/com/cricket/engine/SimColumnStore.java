@@ -0,0 +1,372 @@
+package com.cricket.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Columnar copy of a SimRecordSink file, for asking conditional questions
+ * of a finished run without re-simulating it — "A's win% when Bumrah takes
+ * 4+ in his first bowling innings", "4th-innings target when A wins the toss".
+ *
+ * build() splits the row-oriented records into one file per column under a
+ * directory, plus columns.json naming them. Values are signed bytes or
+ * little-endian shorts; -1 means "did not happen" (innings not played,
+ * player did not bat / bowl). Columns:
+ *
+ *   outcome                 OUTCOME_A_WIN / OUTCOME_B_WIN / OUTCOME_DRAW
+ *   tossA, aBatsFirst, followOn, innings
+ *   target                  runs the side batting fourth needed (-1 = no 4th innings)
+ *   A.runs1, A.runs2, A.wkts1, A.wkts2, B.runs1, ...   team innings in batting order
+ *   <player>.runs1, <player>.runs2                     runs in the side's 1st / 2nd innings
+ *   <player>.wkts1, <player>.wkts2                     wickets in the side's 1st / 2nd bowling innings
+ *
+ * open() memory-maps every column. A Selection is a bitmask over rows;
+ * each filter is one pass down one column, 64 rows per mask word, with no
+ * per-row allocation or boxing — a handful of filters and an aggregate over
+ * 10M simulations reads a few tens of MB sequentially.
+ */
+public class SimColumnStore {
+
+    private static final String MANIFEST  = "columns.json";
+    private static final int    CHUNK_ROWS = 65_536;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** One mapped column; width is 1 (byte) or 2 (short). */
+    private static class Column {
+        final String name;
+        final int width;
+        final ByteBuffer bytes;
+
+        Column(String name, int width, ByteBuffer bytes) {
+            this.name  = name;
+            this.width = width;
+            this.bytes = bytes;
+        }
+    }
+
+    public final String teamAName;
+    public final String teamBName;
+    public final List<String> teamAXI;
+    public final List<String> teamBXI;
+    public final long seed;
+    public final int rows;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    private SimColumnStore(String teamAName, String teamBName, List<String> teamAXI,
+                           List<String> teamBXI, long seed, int rows) {
+        this.teamAName = teamAName;
+        this.teamBName = teamBName;
+        this.teamAXI   = teamAXI;
+        this.teamBXI   = teamBXI;
+        this.seed      = seed;
+        this.rows      = rows;
+    }
+
+    public List<String> columnNames() { return new ArrayList<>(columns.keySet()); }
+
+    // ── Building ──────────────────────────────────────────────────────────
+
+    /** Column layout shared by build() and the manifest; index = file number. */
+    private static List<String> layout(List<String> xiA, List<String> xiB, List<Integer> widths) {
+        List<String> names = new ArrayList<>();
+        for (String n : List.of("outcome", "tossA", "aBatsFirst", "followOn", "innings")) {
+            names.add(n); widths.add(1);
+        }
+        names.add("target"); widths.add(2);
+        for (String side : List.of("A", "B")) {
+            names.add(side + ".runs1"); widths.add(2);
+            names.add(side + ".runs2"); widths.add(2);
+            names.add(side + ".wkts1"); widths.add(1);
+            names.add(side + ".wkts2"); widths.add(1);
+        }
+        List<String> players = new ArrayList<>(xiA);
+        players.addAll(xiB);
+        for (String p : players) {
+            names.add(p + ".runs1"); widths.add(2);
+            names.add(p + ".runs2"); widths.add(2);
+            names.add(p + ".wkts1"); widths.add(1);
+            names.add(p + ".wkts2"); widths.add(1);
+        }
+        return names;
+    }
+
+    // Fixed positions in layout()
+    private static final int COL_OUTCOME = 0, COL_TOSS = 1, COL_BATS_FIRST = 2,
+                             COL_FOLLOW_ON = 3, COL_INNINGS = 4, COL_TARGET = 5,
+                             COL_TEAMS = 6, COL_PLAYERS = 14;
+
+    /** Splits a record file into columns under dir and opens the result. */
+    public static SimColumnStore build(Path records, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        int R  = SimRecordSink.RECORD_BYTES;
+        int IB = SimRecordSink.INNINGS_BYTES;
+        int XI = SimRecordSink.XI;
+
+        try (FileChannel in = FileChannel.open(records, StandardOpenOption.READ)) {
+            SimRecordSink.Header header = SimRecordSink.readHeader(in);
+            long rowCount = (in.size() - header.dataOffset) / R;
+            if (rowCount > Integer.MAX_VALUE / 2) throw new IOException("Too many records for one store");
+            int rows = (int) rowCount;
+
+            List<Integer> widths = new ArrayList<>();
+            List<String> names = layout(header.teamAXI, header.teamBXI, widths);
+            int cols = names.size();
+            FileChannel[] out = new FileChannel[cols];
+            ByteBuffer[] buf = new ByteBuffer[cols];
+            try {
+                for (int c = 0; c < cols; c++) {
+                    out[c] = FileChannel.open(dir.resolve(fileName(c)), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    buf[c] = ByteBuffer.allocate(CHUNK_ROWS * widths.get(c)).order(ByteOrder.LITTLE_ENDIAN);
+                }
+
+                int[] seen = new int[2];
+                for (int start = 0; start < rows; start += CHUNK_ROWS) {
+                    int n = Math.min(CHUNK_ROWS, rows - start);
+                    MappedByteBuffer rec = in.map(FileChannel.MapMode.READ_ONLY,
+                            header.dataOffset + (long) start * R, (long) n * R);
+                    rec.order(ByteOrder.LITTLE_ENDIAN);
+
+                    for (int c = 0; c < cols; c++) {
+                        buf[c].clear();
+                        // -1 everywhere; played innings overwrite below
+                        while (buf[c].hasRemaining()) buf[c].put((byte) -1);
+                    }
+                    for (int r = 0; r < n; r++) {
+                        int o = r * R;
+                        int flags = rec.get(o + 5);
+                        int innings = rec.get(o + 6);
+                        buf[COL_OUTCOME].put(r, rec.get(o + 4));
+                        buf[COL_TOSS].put(r, (byte) ((flags & SimRecordSink.FLAG_TOSS_A) != 0 ? 1 : 0));
+                        buf[COL_BATS_FIRST].put(r, (byte) ((flags & SimRecordSink.FLAG_A_BATS_FIRST) != 0 ? 1 : 0));
+                        buf[COL_FOLLOW_ON].put(r, (byte) ((flags & SimRecordSink.FLAG_FOLLOW_ON) != 0 ? 1 : 0));
+                        buf[COL_INNINGS].put(r, (byte) innings);
+
+                        seen[0] = seen[1] = 0;
+                        for (int k = 0; k < innings; k++) {
+                            int io   = o + 8 + k * IB;
+                            int side = rec.get(io);
+                            int nth  = Math.min(1, seen[side]++);
+                            short runs = rec.getShort(io + 1);
+
+                            int team = COL_TEAMS + side * 4;
+                            buf[team + nth].putShort(r * 2, runs);
+                            buf[team + 2 + nth].put(r, rec.get(io + 3));
+
+                            int bat  = COL_PLAYERS + side * XI * 4;
+                            int bowl = COL_PLAYERS + (1 - side) * XI * 4;
+                            for (int s = 0; s < XI; s++) {
+                                buf[bat + s * 4 + nth].putShort(r * 2, rec.getShort(io + 7 + 2 * s));
+                                buf[bowl + s * 4 + 2 + nth].put(r, rec.get(io + 7 + 2 * XI + s));
+                            }
+                        }
+                        if (innings == 4) {
+                            int fourth = rec.get(o + 8 + 3 * IB);
+                            int other  = 1 - fourth;
+                            int need = 1;
+                            for (int k = 0; k < 3; k++) {
+                                int side = rec.get(o + 8 + k * IB);
+                                int runs = rec.getShort(o + 8 + k * IB + 1);
+                                need += side == other ? runs : -runs;
+                            }
+                            buf[COL_TARGET].putShort(r * 2, (short) need);
+                        }
+                    }
+                    for (int c = 0; c < cols; c++) {
+                        ByteBuffer b = buf[c];
+                        b.position(0).limit(n * widths.get(c));
+                        while (b.hasRemaining()) out[c].write(b);
+                    }
+                }
+            } finally {
+                for (FileChannel ch : out) if (ch != null) ch.close();
+            }
+
+            ObjectNode manifest = MAPPER.createObjectNode();
+            manifest.put("teamAName", header.teamAName);
+            manifest.put("teamBName", header.teamBName);
+            manifest.set("teamAXI", MAPPER.valueToTree(header.teamAXI));
+            manifest.set("teamBXI", MAPPER.valueToTree(header.teamBXI));
+            manifest.put("seed", header.seed);
+            manifest.put("rows", rows);
+            ArrayNode colNodes = manifest.putArray("columns");
+            for (int c = 0; c < cols; c++) {
+                colNodes.addObject().put("name", names.get(c)).put("width", widths.get(c));
+            }
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(dir.resolve(MANIFEST).toFile(), manifest);
+        }
+        return open(dir);
+    }
+
+    private static String fileName(int column) { return "c" + column + ".col"; }
+
+    // ── Opening ───────────────────────────────────────────────────────────
+
+    /** Maps a directory written by build(). */
+    public static SimColumnStore open(Path dir) throws IOException {
+        JsonNode manifest = MAPPER.readTree(dir.resolve(MANIFEST).toFile());
+        SimColumnStore store = new SimColumnStore(
+                manifest.path("teamAName").asText(), manifest.path("teamBName").asText(),
+                names(manifest.path("teamAXI")), names(manifest.path("teamBXI")),
+                manifest.path("seed").asLong(), manifest.path("rows").asInt());
+
+        int c = 0;
+        for (JsonNode col : manifest.path("columns")) {
+            int width = col.path("width").asInt();
+            try (FileChannel ch = FileChannel.open(dir.resolve(fileName(c++)))) {
+                ByteBuffer mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, (long) store.rows * width)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                String name = col.path("name").asText();
+                store.columns.put(name, new Column(name, width, mapped));
+            }
+        }
+        return store;
+    }
+
+    private static List<String> names(JsonNode a) {
+        List<String> out = new ArrayList<>();
+        for (JsonNode n : a) out.add(n.asText());
+        return out;
+    }
+
+    private Column column(String name) {
+        Column c = columns.get(name);
+        if (c == null) throw new IllegalArgumentException("No column " + name);
+        return c;
+    }
+
+    // ── Queries ───────────────────────────────────────────────────────────
+
+    /** Every simulation. */
+    public Selection all() {
+        long[] mask = new long[(rows + 63) >>> 6];
+        java.util.Arrays.fill(mask, -1L);
+        if ((rows & 63) != 0) mask[mask.length - 1] = (1L << (rows & 63)) - 1;
+        return new Selection(mask);
+    }
+
+    /** Shorthand for all().and(column, min, max). */
+    public Selection where(String column, int min, int max) {
+        return all().and(column, min, max);
+    }
+
+    /**
+     * A set of simulations. Filters narrow it in place and return it, so
+     * they chain: store.where("Bumrah.wkts1", 4, 10).and("tossA", 1, 1).
+     */
+    public class Selection {
+        private final long[] mask;
+
+        private Selection(long[] mask) { this.mask = mask; }
+
+        /** Keeps rows whose value in column lies in [min, max]; none if min > max. */
+        public Selection and(String column, int min, int max) {
+            Column col = column(column);
+            if (min > max) {
+                java.util.Arrays.fill(mask, 0L);
+                return this;
+            }
+            ByteBuffer b = col.bytes;
+            int span = max - min;
+            for (int w = 0; w < mask.length; w++) {
+                long m = mask[w];
+                if (m == 0) continue;
+                int base = w << 6;
+                int end  = Math.min(64, rows - base);
+                long bits = 0;
+                if (col.width == 1) {
+                    for (int j = 0; j < end; j++) {
+                        // (v - min) unsigned <= span  ⇔  min <= v <= max
+                        if (Integer.compareUnsigned(b.get(base + j) - min, span) <= 0) bits |= 1L << j;
+                    }
+                } else {
+                    for (int j = 0; j < end; j++) {
+                        if (Integer.compareUnsigned(b.getShort((base + j) << 1) - min, span) <= 0) bits |= 1L << j;
+                    }
+                }
+                mask[w] = m & bits;
+            }
+            return this;
+        }
+
+        /** Copy, so one base selection can be narrowed several ways. */
+        public Selection copy() { return new Selection(mask.clone()); }
+
+        public long count() {
+            long n = 0;
+            for (long m : mask) n += Long.bitCount(m);
+            return n;
+        }
+
+        /** Share of the selection with column == value (e.g. outcome == OUTCOME_A_WIN). */
+        public double share(String column, int value) {
+            long n = count();
+            return n == 0 ? 0 : (double) copy().and(column, value, value).count() / n;
+        }
+
+        /** Mean of column over selected rows where it happened (value >= 0). */
+        public double mean(String column) {
+            long[] h = counts(column(column));
+            long n = 0, sum = 0;
+            for (int v = 0; v < h.length; v++) { n += h[v]; sum += (long) v * h[v]; }
+            return n == 0 ? 0 : (double) sum / n;
+        }
+
+        /** Value → number of selected rows with it, "did not happen" (-1) excluded. */
+        public SortedMap<Integer, Long> histogram(String column) {
+            long[] h = counts(column(column));
+            SortedMap<Integer, Long> out = new TreeMap<>();
+            for (int v = 0; v < h.length; v++) if (h[v] > 0) out.put(v, h[v]);
+            return out;
+        }
+
+        /**
+         * Group-by: for each value of groupColumn, the share of those rows
+         * with column == value — e.g. groupShare("Bumrah.wkts1", "outcome", 0)
+         * is A's win rate by Bumrah's first-innings wickets.
+         */
+        public SortedMap<Integer, Double> groupShare(String groupColumn, String column, int value) {
+            SortedMap<Integer, Long> all = histogram(groupColumn);
+            SortedMap<Integer, Long> hit = copy().and(column, value, value).histogram(groupColumn);
+            SortedMap<Integer, Double> out = new TreeMap<>();
+            for (Map.Entry<Integer, Long> e : all.entrySet()) {
+                out.put(e.getKey(), hit.getOrDefault(e.getKey(), 0L) / (double) e.getValue());
+            }
+            return out;
+        }
+
+        /** Counts of non-negative values, indexed by value. */
+        private long[] counts(Column col) {
+            long[] h = new long[col.width == 1 ? 128 : 32_768];
+            ByteBuffer b = col.bytes;
+            for (int w = 0; w < mask.length; w++) {
+                long m = mask[w];
+                int base = w << 6;
+                while (m != 0) {
+                    int j = Long.numberOfTrailingZeros(m);
+                    m &= m - 1;
+                    int v = col.width == 1 ? b.get(base + j) : b.getShort((base + j) << 1);
+                    if (v >= 0) h[v]++;
+                }
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.cricket.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Optional per-simulation output for MonteCarloEngine: one fixed-size
+ * binary record per simulated match, appended to a file while the run
+ * goes, so questions the aggregates cannot answer can be asked later
+ * without re-simulating (see SimColumnStore).
+ *
+ * File layout (little-endian):
+ *   "SIMREC01"                    8-byte magic
+ *   int  headerLength
+ *   byte header[headerLength]     UTF-8 JSON: teamAName, teamBName,
+ *                                 teamAXI, teamBXI, seed, recordBytes
+ *   record*                       RECORD_BYTES each, in completion order
+ *
+ * Record:
+ *   int   simulation index
+ *   byte  outcome (OUTCOME_A_WIN / OUTCOME_B_WIN / OUTCOME_DRAW)
+ *   byte  flags (FLAG_TOSS_A, FLAG_A_BATS_FIRST, FLAG_FOLLOW_ON)
+ *   byte  innings played (0–4)
+ *   byte  unused
+ *   4 × innings (unplayed innings are zero):
+ *     byte  batting side (0 = A, 1 = B)
+ *     short runs, byte wickets, short balls, byte declared
+ *     short runs of each batting-side player in XI order (-1 = did not bat)
+ *     byte  wickets of each bowling-side player in XI order (-1 = did not bowl)
+ *
+ * Workers fill a Batch of records each and hand full batches to a bounded
+ * queue; one background thread drains it into the file. A slow disk
+ * blocks a worker only when the whole queue is full (back-pressure, not
+ * unbounded memory), and a batch costs one queue operation per
+ * BATCH_RECORDS simulations.
+ */
+public class SimRecordSink implements AutoCloseable {
+
+    public static final byte[] MAGIC = "SIMREC01".getBytes(StandardCharsets.US_ASCII);
+
+    public static final int  XI = 11;
+    public static final int  MAX_INNINGS = 4;
+    public static final int  INNINGS_BYTES = 1 + 2 + 1 + 2 + 1 + 2 * XI + XI;
+    public static final int  RECORD_BYTES = 8 + MAX_INNINGS * INNINGS_BYTES;
+
+    public static final byte OUTCOME_A_WIN = 0;
+    public static final byte OUTCOME_B_WIN = 1;
+    public static final byte OUTCOME_DRAW  = 2;
+
+    public static final int FLAG_TOSS_A       = 1;
+    public static final int FLAG_A_BATS_FIRST = 2;
+    public static final int FLAG_FOLLOW_ON    = 4;
+
+    private static final int BATCH_RECORDS  = 256;
+    private static final int QUEUE_BATCHES  = 64;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ByteBuffer POISON = ByteBuffer.allocate(0);
+
+    /** Parsed file header. */
+    public static class Header {
+        public final String teamAName;
+        public final String teamBName;
+        public final List<String> teamAXI;
+        public final List<String> teamBXI;
+        public final long seed;
+        public final long dataOffset;    // first record
+
+        Header(String teamAName, String teamBName, List<String> teamAXI, List<String> teamBXI,
+               long seed, long dataOffset) {
+            this.teamAName  = teamAName;
+            this.teamBName  = teamBName;
+            this.teamAXI    = teamAXI;
+            this.teamBXI    = teamBXI;
+            this.seed       = seed;
+            this.dataOffset = dataOffset;
+        }
+    }
+
+    private final MatchConfig config;
+    private final Map<String, Integer> slotA = new HashMap<>();
+    private final Map<String, Integer> slotB = new HashMap<>();
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+    private final Thread writer;
+    private volatile IOException failure;
+
+    /** Creates (or truncates) the file and starts the writer thread. */
+    public SimRecordSink(Path path, MatchConfig config, long seed) throws IOException {
+        if (config.teamAXI.size() != XI || config.teamBXI.size() != XI) {
+            throw new IllegalArgumentException("Per-simulation records need two XIs of 11");
+        }
+        this.config = config;
+        for (int i = 0; i < XI; i++) {
+            slotA.put(config.teamAXI.get(i), i);
+            slotB.put(config.teamBXI.get(i), i);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(seed);
+
+        writer = new Thread(this::drain, "sim-record-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void writeHeader(long seed) throws IOException {
+        ObjectNode h = MAPPER.createObjectNode();
+        h.put("teamAName", config.teamAName);
+        h.put("teamBName", config.teamBName);
+        h.set("teamAXI", MAPPER.valueToTree(config.teamAXI));
+        h.set("teamBXI", MAPPER.valueToTree(config.teamBXI));
+        h.put("seed", seed);
+        h.put("recordBytes", RECORD_BYTES);
+        byte[] json = MAPPER.writeValueAsBytes(h);
+
+        ByteBuffer buf = ByteBuffer.allocate(MAGIC.length + 4 + json.length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put(MAGIC).putInt(json.length).put(json).flip();
+        while (buf.hasRemaining()) channel.write(buf);
+    }
+
+    // ── Producer side ─────────────────────────────────────────────────────
+
+    /** A worker's private buffer of records; not thread-safe, one per worker. */
+    public class Batch {
+        private ByteBuffer buf = newBuffer();
+
+        /** Encodes one finished simulation. */
+        void add(int index, String outcome, SilentMatchEngine engine) {
+            ByteBuffer b = buf;
+            b.putInt(index);
+            b.put(outcome.contains(config.teamAName + " wins") ? OUTCOME_A_WIN
+                    : outcome.contains(config.teamBName + " wins") ? OUTCOME_B_WIN : OUTCOME_DRAW);
+
+            List<InningsResult> innings = engine.getAllInnings();
+            List<String> sides = engine.getBattingTeams();
+            int flags = 0;
+            if (config.teamAName.equals(engine.getTossWinner())) flags |= FLAG_TOSS_A;
+            if (!sides.isEmpty() && sides.get(0).equals(config.teamAName)) flags |= FLAG_A_BATS_FIRST;
+            if (engine.isFollowOn()) flags |= FLAG_FOLLOW_ON;
+            b.put((byte) flags);
+            int played = Math.min(MAX_INNINGS, innings.size());
+            b.put((byte) played);
+            b.put((byte) 0);
+
+            for (int n = 0; n < MAX_INNINGS; n++) {
+                if (n >= played) {
+                    b.position(b.position() + INNINGS_BYTES);
+                    continue;
+                }
+                InningsResult ir = innings.get(n);
+                boolean aBats = sides.get(n).equals(config.teamAName);
+                b.put((byte) (aBats ? 0 : 1));
+                b.putShort((short) ir.getRuns());
+                b.put((byte) ir.getWickets());
+                b.putShort((short) ir.getBalls());
+                b.put((byte) (ir.isDeclared() ? 1 : 0));
+
+                short[] runs = new short[XI];
+                byte[] wkts = new byte[XI];
+                java.util.Arrays.fill(runs, (short) -1);
+                java.util.Arrays.fill(wkts, (byte) -1);
+                Map<String, Integer> batSlots  = aBats ? slotA : slotB;
+                Map<String, Integer> bowlSlots = aBats ? slotB : slotA;
+                for (BatterRecord br : ir.getBattingCard()) {
+                    Integer s = batSlots.get(br.name);
+                    if (s != null && br.balls > 0) runs[s] = (short) br.runs;
+                }
+                for (BowlerRecord bw : ir.getBowlingCard()) {
+                    Integer s = bowlSlots.get(bw.name);
+                    if (s != null && bw.ballsBowled > 0) wkts[s] = (byte) bw.wickets;
+                }
+                for (short r : runs) b.putShort(r);
+                b.put(wkts);
+            }
+            if (!b.hasRemaining()) flush();
+        }
+
+        /** Hands the filled part to the writer; blocks only if the queue is full. */
+        void flush() {
+            if (buf.position() == 0) return;
+            buf.flip();
+            enqueue(buf);
+            buf = newBuffer();
+        }
+    }
+
+    public Batch newBatch() { return new Batch(); }
+
+    private static ByteBuffer newBuffer() {
+        return ByteBuffer.allocate(BATCH_RECORDS * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void enqueue(ByteBuffer full) {
+        try {
+            queue.put(full);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing simulation records", e);
+        }
+    }
+
+    // ── Writer thread ─────────────────────────────────────────────────────
+
+    /**
+     * Writes batches until POISON. After a write fails the error is kept
+     * and later batches are taken and dropped, never cleared in bulk, so
+     * producers do not block and POISON still arrives to end the thread;
+     * close() rethrows the error.
+     */
+    private void drain() {
+        try {
+            while (true) {
+                ByteBuffer next = queue.take();
+                if (next == POISON) return;
+                if (failure != null) continue;
+                try {
+                    while (next.hasRemaining()) channel.write(next);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Waits for every queued batch to reach the file, then closes it. */
+    @Override
+    public void close() throws IOException {
+        enqueue(POISON);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure == null) channel.force(false);
+        } finally {
+            channel.close();
+        }
+        if (failure != null) throw failure;
+    }
+
+    // ── Reading ───────────────────────────────────────────────────────────
+
+    public static Header readHeader(FileChannel in) throws IOException {
+        ByteBuffer fixed = ByteBuffer.allocate(MAGIC.length + 4).order(ByteOrder.LITTLE_ENDIAN);
+        in.read(fixed, 0);
+        fixed.flip();
+        byte[] magic = new byte[MAGIC.length];
+        fixed.get(magic);
+        if (!java.util.Arrays.equals(magic, MAGIC)) throw new IOException("Not a simulation record file");
+        int length = fixed.getInt();
+
+        ByteBuffer json = ByteBuffer.allocate(length);
+        in.read(json, MAGIC.length + 4);
+        JsonNode h = MAPPER.readTree(json.array());
+        if (h.path("recordBytes").asInt() != RECORD_BYTES) {
+            throw new IOException("Simulation records were written with a different layout");
+        }
+        return new Header(h.path("teamAName").asText(), h.path("teamBName").asText(),
+                names(h.path("teamAXI")), names(h.path("teamBXI")),
+                h.path("seed").asLong(), MAGIC.length + 4L + length);
+    }
+
+    private static List<String> names(JsonNode a) {
+        List<String> out = new ArrayList<>();
+        for (JsonNode n : a) out.add(n.asText());
+        return out;
+    }
+}
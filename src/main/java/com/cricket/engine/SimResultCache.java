@@ -0,0 +1,174 @@
+package com.cricket.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Disk cache of seeded Monte Carlo results, so re-running a matchup that
+ * has not changed is a file read.
+ *
+ * Entries are content-addressed: the file name is a SHA-256 of the
+ * MatchConfigCodec JSON (XIs, plans, pitch, captain mode, team names),
+ * the StatsBundle fingerprint and the seed. The sim count is not part of
+ * the key — simulation i is always seeded from simSeed(seed, i), so a
+ * cached result for N sims is exactly the first N of any longer run.
+ * A request for more than is cached simulates only [N, requested) with
+ * MonteCarloEngine.runRange and merges it in. N here is
+ * SimResult.simulated, the simulations attempted: total only counts
+ * those that completed, so resuming from it would repeat indices after
+ * a failure. A request for fewer simulates from scratch and leaves the
+ * larger entry alone, since an aggregate cannot be cut back.
+ *
+ * Eviction is least-recently-used by file modification time (a hit
+ * touches the file) once the directory exceeds maxBytes. Writes go to a
+ * temp file and are renamed into place, so a crash never leaves a
+ * half-written entry.
+ */
+public class SimResultCache {
+
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    /** Seed used by callers that want re-runs to hit the cache (ReviewScreen). */
+    public static final long DEFAULT_SEED = 0x5EED_CAFEL;
+
+    private static final String SUFFIX = ".simresult";
+
+    private static SimResultCache shared;
+
+    private final Path dir;
+    private final long maxBytes;
+
+    public SimResultCache(Path dir, long maxBytes) {
+        this.dir      = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /** The app-wide cache under the base directory's cache folder. */
+    public static synchronized SimResultCache shared() {
+        if (shared == null) {
+            shared = new SimResultCache(
+                    PathResolver.getBaseDir().toPath().resolve("cache").resolve("sim-results"),
+                    DEFAULT_MAX_BYTES);
+        }
+        return shared;
+    }
+
+    /**
+     * Same result as MonteCarloEngine.run(config, simCount, bundle, matchups,
+     * seed, progress), served from and stored to the cache. progress counts
+     * simulations towards simCount, starting from what was cached.
+     */
+    public MonteCarloEngine.SimResult run(MatchConfig config, int simCount, StatsBundle bundle,
+                                          long seed, Consumer<Integer> progress) throws Exception {
+        Path file = dir.resolve(key(config, bundle, seed) + SUFFIX);
+        MonteCarloEngine.SimResult cached = read(file);
+
+        if (cached != null && cached.simulated == simCount) {
+            touch(file);
+            if (progress != null) progress.accept(simCount);
+            return cached;
+        }
+
+        MatchupTable matchups = MatchupTable.compile(bundle, config);
+        if (cached != null && cached.simulated < simCount) {
+            if (progress != null) progress.accept(cached.simulated);
+            cached.merge(MonteCarloEngine.runRange(config, cached.simulated, simCount,
+                    bundle, matchups, seed, progress));
+            write(file, cached);
+            return cached;
+        }
+
+        MonteCarloEngine.SimResult fresh = MonteCarloEngine.run(config, simCount, bundle,
+                matchups, seed, progress);
+        if (cached == null) write(file, fresh);
+        return fresh;
+    }
+
+    /** Number of simulations cached for this config and seed (0 if none). */
+    public int cachedSims(MatchConfig config, StatsBundle bundle, long seed) throws Exception {
+        MonteCarloEngine.SimResult r = read(dir.resolve(key(config, bundle, seed) + SUFFIX));
+        return r == null ? 0 : r.simulated;
+    }
+
+    // ── Keys ──────────────────────────────────────────────────────────────
+
+    static String key(MatchConfig config, StatsBundle bundle, long seed) throws Exception {
+        String canonical = MatchConfigCodec.toJson(config) + "|" + bundle.fingerprint() + "|" + seed;
+        byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(canonical.getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    // ── Files ─────────────────────────────────────────────────────────────
+
+    private static MonteCarloEngine.SimResult read(Path file) {
+        if (!Files.exists(file)) return null;
+        try {
+            return MonteCarloEngine.SimResult.load(file);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Sim cache entry unreadable, ignoring it: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void write(Path file, MonteCarloEngine.SimResult result) {
+        try {
+            Files.createDirectories(dir);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            result.save(tmp);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evict(file);
+        } catch (IOException e) {
+            System.err.println("Sim cache write failed: " + e.getMessage());
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Only affects eviction order
+        }
+    }
+
+    /** Deletes least-recently-used entries until the cache fits; never the one just written. */
+    private void evict(Path keep) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).forEach(entries::add);
+        }
+        long total = 0;
+        for (Path p : entries) total += Files.size(p);
+        if (total <= maxBytes) return;
+
+        entries.sort(Comparator.comparing(SimResultCache::modified));
+        for (Path p : entries) {
+            if (total <= maxBytes) break;
+            if (p.equals(keep)) continue;
+            total -= Files.size(p);
+            Files.deleteIfExists(p);
+        }
+    }
+
+    private static FileTime modified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cricket.engine;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.cricket.Main;
+import com.cricket.StatsBundle;
+
+/**
+ * Loads the StatsBundle in the background when the app starts.
+ *
+ * stats() completes with the bundle once it is built — and once the
+ * TeamDatabase stat-filter index over it is ready. Completing the future
+ * is what publishes the bundle: any thread that obtains it from the
+ * future sees it fully built, so screens take it from here rather than
+ * from a shared field. Progress (phase, done / total) is kept as an
+ * immutable snapshot and pushed to listeners from the loading thread.
+ */
+public class StartupService {
+
+    /** Where loading has got to. */
+    public static class Progress {
+        public final String phase;
+        public final int done;
+        public final int total;
+
+        Progress(String phase, int done, int total) {
+            this.phase = phase;
+            this.done  = done;
+            this.total = total;
+        }
+
+        /** 0..1 within the current phase. */
+        public double fraction() { return total <= 0 ? 0 : (double) done / total; }
+
+        @Override
+        public String toString() {
+            return total > 1 ? phase + "  (" + done + " / " + total + ")" : phase;
+        }
+    }
+
+    private final TeamDatabase db;
+    private final CompletableFuture<StatsBundle> stats = new CompletableFuture<>();
+    private final List<Consumer<Progress>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Progress progress = new Progress("Waiting to start", 0, 1);
+
+    public StartupService(TeamDatabase db) {
+        this.db = db;
+    }
+
+    /** Starts loading on a daemon thread; returns immediately. */
+    public StartupService start() {
+        Thread loader = new Thread(this::load, "stats-loader");
+        loader.setDaemon(true);
+        loader.start();
+        return this;
+    }
+
+    private void load() {
+        try {
+            StatsBundle bundle = Main.buildStats(this::report);
+            report("Indexing players", 0, 1);
+            db.attachStats(bundle);
+            report("Ready", 1, 1);
+            System.out.println("Stats bundle loaded.");
+            stats.complete(bundle);
+        } catch (Throwable e) {
+            System.err.println("Could not load stats: " + e.getMessage());
+            report("Stats failed to load", 1, 1);
+            db.statsFailed(e);
+            stats.completeExceptionally(e);
+        }
+    }
+
+    private void report(String phase, int done, int total) {
+        Progress p = new Progress(phase, done, total);
+        progress = p;
+        for (Consumer<Progress> l : listeners) l.accept(p);
+    }
+
+    /** Completes with the bundle, or exceptionally if loading failed. */
+    public CompletableFuture<StatsBundle> stats() { return stats; }
+
+    /** The bundle if already loaded, else null. Never blocks. */
+    public StatsBundle statsIfReady() {
+        return stats.isDone() && !stats.isCompletedExceptionally() ? stats.join() : null;
+    }
+
+    public Progress progress() { return progress; }
+
+    /** Called on the loading thread for every progress step; hop threads as needed. */
+    public void addProgressListener(Consumer<Progress> listener) { listeners.add(listener); }
+
+    public void removeProgressListener(Consumer<Progress> listener) { listeners.remove(listener); }
+}
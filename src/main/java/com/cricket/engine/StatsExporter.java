@@ -2,75 +2,411 @@ package com.cricket.engine;
 
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.*;
 
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-
+import java.util.stream.IntStream;
+
+/**
+ * Writes a SimResult to an .xlsx workbook: summary, batting, bowling and
+ * innings distributions, plus any extra Tables a caller streams in —
+ * per-simulation rows from a SimRecordSink file (simulationsSheet). Series
+ * and league results are written as Tables only (seriesSheets,
+ * leagueSheets, export(List, String)).
+ *
+ * The workbook is an SXSSFWorkbook: each sheet keeps only ROW_WINDOW rows
+ * in memory and spills older ones to its own compressed temp part, so
+ * memory stays flat however many rows are written. Styles are created
+ * once per workbook and shared by every sheet. POI workbooks are not
+ * thread-safe, so the per-player rows are built in parallel and the
+ * sheets are written one after another.
+ */
 public class StatsExporter {
 
+    /** Rows held in memory per sheet before SXSSF flushes them to disk. */
+    public static final int ROW_WINDOW = 200;
+
+    /** An extra sheet, streamed row by row. Cells may be Numbers or Strings. */
+    public static class Table {
+        public final String name;
+        public final String[] headers;
+        public final Iterable<Object[]> rows;
+
+        public Table(String name, String[] headers, Iterable<Object[]> rows) {
+            this.name    = name;
+            this.headers = headers;
+            this.rows    = rows;
+        }
+    }
+
+    /** A prepared cell: value (String or Integer) and its shared style. */
+    private static final class Value {
+        final Object value;
+        final CellStyle style;
+
+        Value(Object value, CellStyle style) {
+            this.value = value;
+            this.style = style;
+        }
+    }
+
     public static void export(MonteCarloEngine.SimResult res,
                                String teamAName, String teamBName,
                                int simCount, String outputPath) throws Exception {
+        export(res, teamAName, teamBName, simCount, outputPath, List.of());
+    }
+
+    public static void export(MonteCarloEngine.SimResult res,
+                               String teamAName, String teamBName,
+                               int simCount, String outputPath,
+                               List<Table> extraSheets) throws Exception {
 
-        XSSFWorkbook wb = new XSSFWorkbook();
+        SXSSFWorkbook wb = new SXSSFWorkbook(new XSSFWorkbook(), ROW_WINDOW, true);
+        XSSFWorkbook styles = wb.getXSSFWorkbook();
 
         // ── Shared styles ─────────────────────────────────────────────────
-        CellStyle hdr   = headerStyle(wb, new byte[]{(byte)10,(byte)20,(byte)40});
-        CellStyle gold  = boldColor(wb, new byte[]{(byte)212,(byte)160,(byte)48});
-        CellStyle num   = numStyle(wb);
-        CellStyle dec   = decStyle(wb);
-        CellStyle name  = nameStyle(wb);
-        CellStyle title = titleStyle(wb);
-
-        // ── Sheet 1: Summary ──────────────────────────────────────────────
-        XSSFSheet s1 = wb.createSheet("Summary");
-        s1.setColumnWidth(0, 5500); s1.setColumnWidth(1, 4500);
-        s1.setColumnWidth(2, 4500); s1.setColumnWidth(3, 4500);
-
-        int r = 0;
-        setCell(s1, r, 0, teamAName + " vs " + teamBName + " — Monte Carlo Results", title);
-        s1.addMergedRegion(new CellRangeAddress(r, r, 0, 3)); r++;
-        setCell(s1, r++, 0, "Total simulations: " + simCount, name); r++;
-
-        setCell(s1, r, 0, "",              hdr);
-        setCell(s1, r, 1, teamAName,       hdr);
-        setCell(s1, r, 2, "Draw",          hdr);
-        setCell(s1, r, 3, teamBName,       hdr); r++;
-
-        setCell(s1, r, 0, "Wins / Draws",  name);
-        setNumCell(s1, r, 1, res.teamAWins,  gold);
-        setNumCell(s1, r, 2, res.draws,      num);
-        setNumCell(s1, r, 3, res.teamBWins,  gold); r++;
-
-        setCell(s1, r, 0, "Win %",  name);
-        setCell(s1, r, 1, "=B" + r + "/" + simCount + "*100", dec);
-        setCell(s1, r, 2, "=C" + r + "/" + simCount + "*100", dec);
-        setCell(s1, r, 3, "=D" + r + "/" + simCount + "*100", dec); r += 2;
-
-        setCell(s1, r, 0, "Top Run Scorer",   name);
-        setCell(s1, r, 1, res.topRunScorer(),   name);
-        s1.addMergedRegion(new CellRangeAddress(r, r, 1, 3)); r++;
-        setCell(s1, r, 0, "Top Wicket Taker", name);
-        setCell(s1, r, 1, res.topWicketTaker(), name);
-        s1.addMergedRegion(new CellRangeAddress(r, r, 1, 3));
-
-        // ── Sheet 2: Batting Stats ────────────────────────────────────────
-        XSSFSheet s2 = wb.createSheet("Batting Stats");
-        int[] batWidths = {6000,3000,3500,3500,3500,3000,3000,4000};
-        for (int c = 0; c < batWidths.length; c++) s2.setColumnWidth(c, batWidths[c]);
-
-        String[] batHdrs = {"Player","Innings","Runs","Average","Strike Rate","100s","50s","Highest Score"};
-        writeHeader(s2, 0, batHdrs, hdr);
+        CellStyle hdr   = headerStyle(styles, new byte[]{(byte)10,(byte)20,(byte)40});
+        CellStyle gold  = boldColor(styles, new byte[]{(byte)212,(byte)160,(byte)48});
+        CellStyle num   = numStyle(styles);
+        CellStyle dec   = decStyle(styles);
+        CellStyle name  = nameStyle(styles);
+        CellStyle title = titleStyle(styles);
+
+        // Player rows are the bulk of the work; build them off-thread
+        CompletableFuture<List<Value[]>> batRows =
+                CompletableFuture.supplyAsync(() -> battingRows(res, gold, num, dec, name));
+        CompletableFuture<List<Value[]>> bowlRows =
+                CompletableFuture.supplyAsync(() -> bowlingRows(res, gold, num, dec, name));
+
+        try {
+            // ── Sheet 1: Summary ──────────────────────────────────────────
+            Sheet s1 = wb.createSheet("Summary");
+            s1.setColumnWidth(0, 5500); s1.setColumnWidth(1, 4500);
+            s1.setColumnWidth(2, 4500); s1.setColumnWidth(3, 4500);
+
+            int r = 0;
+            setCell(s1, r, 0, teamAName + " vs " + teamBName + " — Monte Carlo Results", title);
+            s1.addMergedRegion(new CellRangeAddress(r, r, 0, 3)); r++;
+            setCell(s1, r++, 0, "Total simulations: " + simCount, name); r++;
+
+            setCell(s1, r, 0, "",              hdr);
+            setCell(s1, r, 1, teamAName,       hdr);
+            setCell(s1, r, 2, "Draw",          hdr);
+            setCell(s1, r, 3, teamBName,       hdr); r++;
+
+            setCell(s1, r, 0, "Wins / Draws",  name);
+            setNumCell(s1, r, 1, res.teamAWins,  gold);
+            setNumCell(s1, r, 2, res.draws,      num);
+            setNumCell(s1, r, 3, res.teamBWins,  gold); r++;
+
+            setCell(s1, r, 0, "Win %",  name);
+            setCell(s1, r, 1, "=B" + r + "/" + simCount + "*100", dec);
+            setCell(s1, r, 2, "=C" + r + "/" + simCount + "*100", dec);
+            setCell(s1, r, 3, "=D" + r + "/" + simCount + "*100", dec); r += 2;
+
+            setCell(s1, r, 0, "Top Run Scorer",   name);
+            setCell(s1, r, 1, res.topRunScorer(),   name);
+            s1.addMergedRegion(new CellRangeAddress(r, r, 1, 3)); r++;
+            setCell(s1, r, 0, "Top Wicket Taker", name);
+            setCell(s1, r, 1, res.topWicketTaker(), name);
+            s1.addMergedRegion(new CellRangeAddress(r, r, 1, 3));
+
+            // ── Sheet 2: Batting Stats ────────────────────────────────────
+            Sheet s2 = wb.createSheet("Batting Stats");
+            int[] batWidths = {6000,3000,3500,3500,3500,3000,3000,4000,3000,3000,3000};
+            for (int c = 0; c < batWidths.length; c++) s2.setColumnWidth(c, batWidths[c]);
+
+            String[] batHdrs = {"Player","Innings","Runs","Average","Strike Rate","100s","50s","Highest Score",
+                                "P10","Median","P90"};
+            writeHeader(s2, 0, batHdrs, hdr);
+            writeRows(s2, 1, batRows.join());
+
+            // ── Sheet 3: Bowling Stats ────────────────────────────────────
+            Sheet s3 = wb.createSheet("Bowling Stats");
+            int[] bowlWidths = {6000,3000,3500,4000,4000,4000,4000,3500,3500,4000,3000,3000,3000};
+            for (int c = 0; c < bowlWidths.length; c++) s3.setColumnWidth(c, bowlWidths[c]);
+
+            String[] bowlHdrs = {"Player","Innings","Wickets","Runs Conceded","Balls Bowled",
+                                 "Average","Strike Rate","5WI","10WM","Best Figures",
+                                 "P10 W","Median W","P90 W"};
+            writeHeader(s3, 0, bowlHdrs, hdr);
+            writeRows(s3, 1, bowlRows.join());
+
+            // ── Sheet 4: Innings Distributions ────────────────────────────
+            Sheet s4 = wb.createSheet("Distributions");
+            s4.setColumnWidth(0, 6000);
+            for (int c = 1; c < 9; c++) s4.setColumnWidth(c, 3500);
+
+            String[] distHdrs = {"Team","Innings","Mean","P10","P25","Median","P75","P90","Mean Wkts"};
+            writeHeader(s4, 0, distHdrs, hdr);
+
+            int row = 1;
+            for (String team : List.of(teamAName, teamBName)) {
+                ScoreHistogram runsDist = res.teamRunsDist.get(team);
+                if (runsDist == null) continue;
+                ScoreHistogram wktsDist = res.teamWicketsDist.get(team);
+
+                setCell(s4, row, 0, team, name);
+                setNumCell(s4, row, 1, (int) runsDist.getTotal(), num);
+                setCell(s4, row, 2, String.format("%.1f", runsDist.mean()), dec);
+                setNumCell(s4, row, 3, runsDist.percentile(10), num);
+                setNumCell(s4, row, 4, runsDist.percentile(25), num);
+                setNumCell(s4, row, 5, runsDist.percentile(50), gold);
+                setNumCell(s4, row, 6, runsDist.percentile(75), num);
+                setNumCell(s4, row, 7, runsDist.percentile(90), num);
+                setCell(s4, row, 8, wktsDist == null ? "-" : String.format("%.1f", wktsDist.mean()), dec);
+                row++;
+            }
+
+            // Frequency table: innings totals in 25-run bands
+            row++;
+            final int band = 25;
+            setCell(s4, row, 0, "Innings total", hdr);
+            setCell(s4, row, 1, teamAName, hdr);
+            setCell(s4, row, 2, teamBName, hdr);
+            row++;
+            ScoreHistogram distA = res.teamRunsDist.get(teamAName);
+            ScoreHistogram distB = res.teamRunsDist.get(teamBName);
+            long[] bandsA = distA != null ? distA.bucketCounts(band) : new long[0];
+            long[] bandsB = distB != null ? distB.bucketCounts(band) : new long[0];
+            for (int b = 0; b < Math.max(bandsA.length, bandsB.length); b++) {
+                int lo = b * band;
+                String label = lo + band > ScoreHistogram.MAX_RUNS
+                        ? lo + "+" : lo + "-" + (lo + band - 1);
+                setCell(s4, row, 0, label, name);
+                setNumCell(s4, row, 1, b < bandsA.length ? (int) bandsA[b] : 0, num);
+                setNumCell(s4, row, 2, b < bandsB.length ? (int) bandsB[b] : 0, num);
+                row++;
+            }
+
+            // ── Extra sheets ──────────────────────────────────────────────
+            for (Table t : extraSheets) writeTable(wb, t, hdr, num, dec, name);
+
+            try (FileOutputStream fos = new FileOutputStream(outputPath)) { wb.write(fos); }
+        } finally {
+            wb.dispose();   // delete the temp parts
+            wb.close();
+        }
+    }
+
+    /** A workbook of Tables only — series and league results have no SimResult. */
+    public static void export(List<Table> sheets, String outputPath) throws Exception {
+        SXSSFWorkbook wb = new SXSSFWorkbook(new XSSFWorkbook(), ROW_WINDOW, true);
+        XSSFWorkbook styles = wb.getXSSFWorkbook();
+        CellStyle hdr  = headerStyle(styles, new byte[]{(byte)10,(byte)20,(byte)40});
+        CellStyle num  = numStyle(styles);
+        CellStyle dec  = decStyle(styles);
+        CellStyle name = nameStyle(styles);
+        try {
+            for (Table t : sheets) writeTable(wb, t, hdr, num, dec, name);
+            try (FileOutputStream fos = new FileOutputStream(outputPath)) { wb.write(fos); }
+        } finally {
+            wb.dispose();
+            wb.close();
+        }
+    }
+
+    // ── Tables ────────────────────────────────────────────────────────────
+
+    /** Series outcome, scorelines, per-venue results and per-player series figures. */
+    public static List<Table> seriesSheets(SeriesSimulator.SeriesResult r) {
+        List<Object[]> outcome = List.of(
+                new Object[] { r.teamAName, r.teamASeriesWins, pct(r.teamASeriesWinProb()) },
+                new Object[] { "Drawn",     r.seriesDrawn,     pct(r.seriesDrawProb()) },
+                new Object[] { r.teamBName, r.teamBSeriesWins, pct(r.teamBSeriesWinProb()) });
+
+        List<Object[]> scorelines = new ArrayList<>();
+        for (int a = 0; a < r.scorelines.length; a++) {
+            for (int b = 0; a + b < r.scorelines.length; b++) {
+                if (r.scorelines[a][b] > 0) {
+                    scorelines.add(new Object[] { a + "-" + b, r.scorelines[a][b], pct(r.scorelineProb(a, b)) });
+                }
+            }
+        }
+
+        List<Object[]> venues = new ArrayList<>();
+        for (int v = 0; v < r.venues.size(); v++) {
+            venues.add(new Object[] { (v + 1) + ". " + r.venues.get(v),
+                    r.venueAWins[v], r.venueDraws[v], r.venueBWins[v] });
+        }
+
+        List<Object[]> players = new ArrayList<>();
+        for (int i = 0; i < r.players.size(); i++) {
+            String p = r.players.get(i);
+            players.add(new Object[] { p,
+                    round(r.meanSeriesRuns(p)), round(r.battingAverage(p)),
+                    r.seriesRuns[i].percentile(50), r.seriesRuns[i].percentile(90), r.hundreds[i],
+                    round(r.meanSeriesWickets(p)), r.seriesWickets[i].percentile(90), r.fiveFors[i],
+                    pct(r.topRunScorerProb(p)), pct(r.topWicketTakerProb(p)) });
+        }
+
+        return List.of(
+                new Table("Series", new String[] { "Result", "Series", "%" }, outcome),
+                new Table("Scorelines", new String[] {
+                        r.teamAName + "-" + r.teamBName, "Series", "%" }, scorelines),
+                new Table("Venues", new String[] {
+                        "Venue", r.teamAName + " wins", "Draws", r.teamBName + " wins" }, venues),
+                new Table("Series Players", new String[] {
+                        "Player", "Mean Runs", "Average", "P50 Runs", "P90 Runs", "100s",
+                        "Mean Wkts", "P90 Wkts", "5WI", "Top Scorer %", "Top Wkt Taker %" }, players));
+    }
+
+    /**
+     * Standings distribution, fixture probabilities, and one row per team
+     * per season. The season rows are produced while the sheet is written,
+     * and continue on further Seasons sheets past the workbook row limit.
+     */
+    public static List<Table> leagueSheets(LeagueSimulator.LeagueResult r) {
+        int n = r.teams.size();
+        String[] standingsHdr = new String[n + 2];
+        standingsHdr[0] = "Team";
+        standingsHdr[1] = "Mean Points";
+        for (int p = 0; p < n; p++) standingsHdr[p + 2] = "P" + (p + 1) + " %";
+        double[][] matrix = r.positionMatrix();
+        List<Object[]> standings = new ArrayList<>();
+        for (int t = 0; t < n; t++) {
+            Object[] row = new Object[n + 2];
+            row[0] = r.teams.get(t);
+            row[1] = round(r.points[t].mean());
+            for (int p = 0; p < n; p++) row[p + 2] = pct(matrix[t][p]);
+            standings.add(row);
+        }
 
+        Iterable<Object[]> fixtures = () -> IntStream.range(0, r.fixtures.length)
+                .mapToObj(f -> new Object[] {
+                        r.teams.get(r.fixtures[f][0]), r.teams.get(r.fixtures[f][1]),
+                        pct(r.fixtureProbs[f][0]), pct(r.fixtureProbs[f][1]), pct(r.fixtureProbs[f][2]) })
+                .iterator();
+        Iterable<Object[]> seasons = () -> IntStream.range(0, r.seasons * n)
+                .mapToObj(i -> new Object[] { i / n + 1, r.teams.get(i % n),
+                        r.seasonPoints(i / n, i % n), r.seasonRank(i / n, i % n) + 1 })
+                .iterator();
+
+        return List.of(
+                new Table("Standings", standingsHdr, standings),
+                new Table("Fixtures", new String[] { "Home", "Away", "Home Win %", "Draw %", "Away Win %" },
+                        fixtures),
+                new Table("Seasons", new String[] { "Season", "Team", "Points", "Position" }, seasons));
+    }
+
+    /**
+     * One row per simulation from a SimRecordSink file: result, toss and
+     * the four innings. Records are read from disk as the sheet is written;
+     * past about a million sims they continue on further Simulations sheets.
+     */
+    public static Table simulationsSheet(Path records) throws IOException {
+        SimRecordSink.Header h;
+        try (FileChannel in = FileChannel.open(records)) {
+            h = SimRecordSink.readHeader(in);
+        }
+        List<String> cols = new ArrayList<>(List.of("Sim", "Result", "Toss", "Batted First", "Follow-on"));
+        for (int i = 1; i <= SimRecordSink.MAX_INNINGS; i++) {
+            cols.addAll(List.of("Inn " + i + " Team", "Inn " + i + " Runs", "Inn " + i + " Wkts",
+                    "Inn " + i + " Balls", "Inn " + i + " Dec"));
+        }
+        return new Table("Simulations", cols.toArray(new String[0]), () -> new RecordRows(records, h));
+    }
+
+    /** Streams decoded records; closes the file at the end or when the writer stops early. */
+    private static final class RecordRows implements Iterator<Object[]>, AutoCloseable {
+        private static final int READ_RECORDS = 4096;
+
+        private final SimRecordSink.Header header;
+        private final FileChannel in;
+        private final ByteBuffer buf = ByteBuffer
+                .allocate(READ_RECORDS * SimRecordSink.RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        RecordRows(Path records, SimRecordSink.Header header) {
+            this.header = header;
+            this.position = header.dataOffset;
+            try {
+                this.in = FileChannel.open(records);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buf.limit(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (buf.remaining() >= SimRecordSink.RECORD_BYTES) return true;
+            if (!in.isOpen()) return false;
+            try {
+                buf.clear();
+                while (buf.hasRemaining()) {
+                    int read = in.read(buf, position);
+                    if (read < 0) break;
+                    position += read;
+                }
+                buf.flip();
+                // A partial trailing record is left by a run that died mid-write
+                buf.limit(buf.limit() - buf.limit() % SimRecordSink.RECORD_BYTES);
+                if (!buf.hasRemaining()) in.close();
+                return buf.hasRemaining();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int start = buf.position();
+            Object[] row = new Object[5 + 5 * SimRecordSink.MAX_INNINGS];
+            row[0] = buf.getInt() + 1;
+            byte outcome = buf.get();
+            row[1] = outcome == SimRecordSink.OUTCOME_A_WIN ? header.teamAName + " win"
+                   : outcome == SimRecordSink.OUTCOME_B_WIN ? header.teamBName + " win" : "Draw";
+            int flags = buf.get();
+            int played = buf.get();
+            buf.get();
+            row[2] = (flags & SimRecordSink.FLAG_TOSS_A) != 0 ? header.teamAName : header.teamBName;
+            row[3] = (flags & SimRecordSink.FLAG_A_BATS_FIRST) != 0 ? header.teamAName : header.teamBName;
+            row[4] = (flags & SimRecordSink.FLAG_FOLLOW_ON) != 0 ? "Yes" : "No";
+            for (int i = 0; i < played; i++) {
+                int at = 5 + 5 * i;
+                row[at]     = buf.get() == 0 ? header.teamAName : header.teamBName;
+                row[at + 1] = (int) buf.getShort();
+                row[at + 2] = (int) buf.get();
+                row[at + 3] = (int) buf.getShort();
+                row[at + 4] = buf.get() != 0 ? "Yes" : "";
+                buf.position(buf.position() + 3 * SimRecordSink.XI);   // player runs and wickets
+            }
+            buf.position(start + SimRecordSink.RECORD_BYTES);
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static double pct(double p)   { return Math.round(p * 1000) / 10.0; }
+    private static double round(double v) { return Math.round(v * 10) / 10.0; }
+
+    // ── Row builders (no POI objects created here) ────────────────────────
+
+    private static List<Value[]> battingRows(MonteCarloEngine.SimResult res, CellStyle gold,
+                                             CellStyle num, CellStyle dec, CellStyle name) {
         List<String> batters = res.batRuns.keySet().stream()
                 .sorted((a, b) -> Long.compare(
                         res.batRuns.getOrDefault(b, 0L),
                         res.batRuns.getOrDefault(a, 0L)))
                 .collect(Collectors.toList());
 
-        int row = 1;
+        List<Value[]> rows = new ArrayList<>(batters.size());
         for (String p : batters) {
             long runs  = res.batRuns.getOrDefault(p, 0L);
             int  inn   = res.batInnings.getOrDefault(p, 0);
@@ -79,34 +415,30 @@ public class StatsExporter {
             int  h100  = res.batHundreds.getOrDefault(p, 0);
             int  h50   = res.batFifties.getOrDefault(p, 0);
 
-            int er = row + 1; // Excel row (1-indexed)
-            setCell(s2, row, 0, p,    name);
-            setNumCell(s2, row, 1, inn,  num);
-            setNumCell(s2, row, 2, (int) runs, inn >= 100 ? gold : num);
-            setCell(s2, row, 3, inn  == 0 ? "-" : String.format("%.2f", runs / (double) inn),  dec);
-            setCell(s2, row, 4, balls == 0 ? "-" : String.format("%.2f", runs * 100.0 / balls), dec);
-            setNumCell(s2, row, 5, h100, h100 > 0 ? gold : num);
-            setNumCell(s2, row, 6, h50,  num);
-            setNumCell(s2, row, 7, hs,   hs >= 100 ? gold : num);
-            row++;
+            Value[] v = new Value[11];
+            v[0] = new Value(p, name);
+            v[1] = new Value(inn, num);
+            v[2] = new Value((int) runs, inn >= 100 ? gold : num);
+            v[3] = new Value(inn  == 0 ? "-" : String.format("%.2f", runs / (double) inn),  dec);
+            v[4] = new Value(balls == 0 ? "-" : String.format("%.2f", runs * 100.0 / balls), dec);
+            v[5] = new Value(h100, h100 > 0 ? gold : num);
+            v[6] = new Value(h50,  num);
+            v[7] = new Value(hs,   hs >= 100 ? gold : num);
+            percentiles(v, 8, res.batRunsDist.get(p), num);
+            rows.add(v);
         }
+        return rows;
+    }
 
-        // ── Sheet 3: Bowling Stats ────────────────────────────────────────
-        XSSFSheet s3 = wb.createSheet("Bowling Stats");
-        int[] bowlWidths = {6000,3000,3500,4000,4000,4000,4000,3500,3500,4000};
-        for (int c = 0; c < bowlWidths.length; c++) s3.setColumnWidth(c, bowlWidths[c]);
-
-        String[] bowlHdrs = {"Player","Innings","Wickets","Runs Conceded","Balls Bowled",
-                             "Average","Strike Rate","5WI","10WM","Best Figures"};
-        writeHeader(s3, 0, bowlHdrs, hdr);
-
+    private static List<Value[]> bowlingRows(MonteCarloEngine.SimResult res, CellStyle gold,
+                                             CellStyle num, CellStyle dec, CellStyle name) {
         List<String> bowlers = res.bowlWickets.keySet().stream()
                 .sorted((a, b) -> Long.compare(
                         res.bowlWickets.getOrDefault(b, 0L),
                         res.bowlWickets.getOrDefault(a, 0L)))
                 .collect(Collectors.toList());
 
-        row = 1;
+        List<Value[]> rows = new ArrayList<>(bowlers.size());
         for (String p : bowlers) {
             long wkts  = res.bowlWickets.getOrDefault(p, 0L);
             long runs2 = res.bowlRuns.getOrDefault(p, 0L);
@@ -116,26 +448,95 @@ public class StatsExporter {
             int  tenFor= res.bowlTenFor.getOrDefault(p, 0);
             int[] best = res.bowlBest.getOrDefault(p, new int[]{0,0});
 
-            setCell(s3, row, 0, p,      name);
-            setNumCell(s3, row, 1, inn2, num);
-            setNumCell(s3, row, 2, (int) wkts, wkts >= 50 ? gold : num);
-            setNumCell(s3, row, 3, (int) runs2, num);
-            setNumCell(s3, row, 4, (int) balls2, num);
-            setCell(s3, row, 5, wkts == 0 ? "-" : String.format("%.2f", runs2 / (double) wkts), dec);
-            setCell(s3, row, 6, wkts == 0 ? "-" : String.format("%.2f", balls2 / (double) wkts), dec);
-            setNumCell(s3, row, 7, fifers, fifers > 0 ? gold : num);
-            setNumCell(s3, row, 8, tenFor, tenFor > 0 ? gold : num);
-            setCell(s3, row, 9, best[0] + "-" + best[1], best[0] >= 5 ? gold : num);
-            row++;
+            Value[] v = new Value[13];
+            v[0]  = new Value(p,      name);
+            v[1]  = new Value(inn2, num);
+            v[2]  = new Value((int) wkts, wkts >= 50 ? gold : num);
+            v[3]  = new Value((int) runs2, num);
+            v[4]  = new Value((int) balls2, num);
+            v[5]  = new Value(wkts == 0 ? "-" : String.format("%.2f", runs2 / (double) wkts), dec);
+            v[6]  = new Value(wkts == 0 ? "-" : String.format("%.2f", balls2 / (double) wkts), dec);
+            v[7]  = new Value(fifers, fifers > 0 ? gold : num);
+            v[8]  = new Value(tenFor, tenFor > 0 ? gold : num);
+            v[9]  = new Value(best[0] + "-" + best[1], best[0] >= 5 ? gold : num);
+            percentiles(v, 10, res.bowlWicketsDist.get(p), num);
+            rows.add(v);
         }
+        return rows;
+    }
 
-        try (FileOutputStream fos = new FileOutputStream(outputPath)) { wb.write(fos); }
-        wb.close();
+    private static void percentiles(Value[] v, int firstCol, ScoreHistogram dist, CellStyle style) {
+        if (dist == null || dist.getTotal() == 0) {
+            for (int c = 0; c < 3; c++) v[firstCol + c] = new Value("-", style);
+            return;
+        }
+        v[firstCol]     = new Value(dist.percentile(10), style);
+        v[firstCol + 1] = new Value(dist.percentile(50), style);
+        v[firstCol + 2] = new Value(dist.percentile(90), style);
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────
 
-    private static void writeHeader(XSSFSheet sheet, int rowNum, String[] cols, CellStyle style) {
+    private static void writeRows(Sheet sheet, int firstRow, List<Value[]> rows) {
+        int r = firstRow;
+        for (Value[] cells : rows) {
+            for (int c = 0; c < cells.length; c++) {
+                Value v = cells[c];
+                if (v.value instanceof Integer i) setNumCell(sheet, r, c, i, v.style);
+                else setCell(sheet, r, c, (String) v.value, v.style);
+            }
+            r++;
+        }
+    }
+
+    /**
+     * Streams a Table into a new sheet; Doubles get the decimal style. A
+     * Table longer than a sheet allows (1,048,575 rows under the header)
+     * continues on "Name (2)", "Name (3)" and so on, each with the header
+     * repeated, instead of failing the whole workbook.
+     */
+    private static void writeTable(SXSSFWorkbook wb, Table t, CellStyle hdr,
+                                   CellStyle num, CellStyle dec, CellStyle name) throws Exception {
+        int lastRow = wb.getSpreadsheetVersion().getLastRowIndex();
+        int part = 1;
+        Sheet sheet = tableSheet(wb, t, part, hdr);
+        Iterator<Object[]> rows = t.rows.iterator();
+        try {
+            int rowNum = 1;
+            while (rows.hasNext()) {
+                if (rowNum > lastRow) {
+                    sheet = tableSheet(wb, t, ++part, hdr);
+                    rowNum = 1;
+                }
+                Object[] cells = rows.next();
+                Row out = sheet.createRow(rowNum++);
+                for (int c = 0; c < cells.length; c++) {
+                    Cell cell = out.createCell(c);
+                    if (cells[c] instanceof Number n) {
+                        cell.setCellValue(n.doubleValue());
+                        cell.setCellStyle(n instanceof Double ? dec : num);
+                    } else {
+                        cell.setCellValue(cells[c] == null ? "" : cells[c].toString());
+                        cell.setCellStyle(c == 0 ? name : num);
+                    }
+                }
+            }
+        } finally {
+            if (rows instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    /** Sheet `part` of a Table; names are cut to fit the 31-character sheet name limit. */
+    private static Sheet tableSheet(SXSSFWorkbook wb, Table t, int part, CellStyle hdr) {
+        String suffix = part == 1 ? "" : " (" + part + ")";
+        String base = t.name.length() + suffix.length() > 31 ? t.name.substring(0, 31 - suffix.length()) : t.name;
+        Sheet sheet = wb.createSheet(base + suffix);
+        sheet.setColumnWidth(0, 6000);
+        writeHeader(sheet, 0, t.headers, hdr);
+        return sheet;
+    }
+
+    private static void writeHeader(Sheet sheet, int rowNum, String[] cols, CellStyle style) {
         Row row = sheet.createRow(rowNum);
         for (int c = 0; c < cols.length; c++) {
             Cell cell = row.createCell(c);
@@ -144,7 +545,7 @@ public class StatsExporter {
         }
     }
 
-    private static void setCell(XSSFSheet sheet, int r, int c, String val, CellStyle style) {
+    private static void setCell(Sheet sheet, int r, int c, String val, CellStyle style) {
         Row row = sheet.getRow(r);
         if (row == null) row = sheet.createRow(r);
         Cell cell = row.createCell(c);
@@ -152,7 +553,7 @@ public class StatsExporter {
         if (style != null) cell.setCellStyle(style);
     }
 
-    private static void setNumCell(XSSFSheet sheet, int r, int c, int val, CellStyle style) {
+    private static void setNumCell(Sheet sheet, int r, int c, int val, CellStyle style) {
         Row row = sheet.getRow(r);
         if (row == null) row = sheet.createRow(r);
         Cell cell = row.createCell(c);
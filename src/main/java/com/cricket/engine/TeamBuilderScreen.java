@@ -1,9 +1,11 @@
 package com.cricket.engine;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.BiConsumer;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -38,6 +40,8 @@ public class TeamBuilderScreen {
     // State
     private final List<String> selectedPlayers = new ArrayList<>();
     private String teamName = "";
+    private BitSet statFilter;               // null = no stat filter
+    private PlayerQueryIndex filterIndex;
 
     // UI refs
     private VBox xiSlotsBox;
@@ -121,6 +125,24 @@ public class TeamBuilderScreen {
                 + "-fx-prompt-text-fill: #3a5570; -fx-padding: 6 10 6 10;");
         searchBox.textProperty().addListener((obs, o, n) -> refreshPlayerList(n));
 
+        // Stat filter, e.g. "LHB bat.avg@RLS>=40 bat.balls@RLS>=500" — see PlayerQueryIndex
+        TextField filterBox = new TextField();
+        filterBox.setPromptText(db.getQueryIndex() != null ? FILTER_PROMPT : "Filter: available once stats have loaded");
+        filterBox.setStyle(FILTER_STYLE + "-fx-border-color: #2a3f55;");
+        filterBox.textProperty().addListener((obs, o, n) -> applyFilter(n, filterBox));
+        if (db.getQueryIndex() == null) {
+            // A filter typed while loading is applied once the index arrives
+            db.queryIndexReady().handle((index, error) -> index)
+                    .thenAccept(index -> Platform.runLater(() -> {
+                        if (index == null) {
+                            filterBox.setPromptText("Filter: unavailable, stats failed to load");
+                            return;
+                        }
+                        filterBox.setPromptText(FILTER_PROMPT);
+                        applyFilter(filterBox.getText(), filterBox);
+                    }));
+        }
+
         // Column headers
         HBox colHeaders = new HBox();
         colHeaders.setPadding(new Insets(4, 8, 4, 8));
@@ -146,7 +168,7 @@ public class TeamBuilderScreen {
             if (selected != null) addPlayer(selected);
         });
 
-        panel.getChildren().addAll(title, searchBox, colHeaders, playerListView);
+        panel.getChildren().addAll(title, searchBox, filterBox, colHeaders, playerListView);
         return panel;
     }
 
@@ -278,12 +300,43 @@ public class TeamBuilderScreen {
             setStatus("⚠  Select at least one player before saving.");
             return;
         }
-        try {
-            store.saveTeam(teamName, selectedPlayers);
-            setStatus("✓  Team '" + teamName + "' saved (" + selectedPlayers.size() + " players).");
-        } catch (Exception ex) {
-            setStatus("✗  Save failed: " + ex.getMessage());
+        String name = teamName;
+        int count = selectedPlayers.size();
+        setStatus("Saving team '" + name + "'...");
+        store.saveTeam(name, selectedPlayers).whenComplete((ok, error) -> Platform.runLater(() ->
+                setStatus(error == null
+                        ? "✓  Team '" + name + "' saved (" + count + " players)."
+                        : "✗  Save failed: " + error.getMessage())));
+    }
+
+    private static final String FILTER_PROMPT = "Filter: LHB bat.avg@RLS>=40  or  RFM bowl.wpb@RHB>base";
+
+    private static final String FILTER_STYLE = "-fx-background-color: #1e2d3e; -fx-text-fill: #c8d8e8; "
+            + "-fx-border-width: 1; -fx-font-family: 'JetBrains Mono'; -fx-font-size: 11px; "
+            + "-fx-prompt-text-fill: #3a5570; -fx-padding: 5 10 5 10; ";
+
+    /** Re-evaluates the stat filter; a bad query keeps the last good one and says why. */
+    private void applyFilter(String text, TextField box) {
+        PlayerQueryIndex index = db.getQueryIndex();
+        if (text == null || text.isBlank()) {
+            statFilter = null;
+            box.setStyle(FILTER_STYLE + "-fx-border-color: #2a3f55;");
+        } else if (index == null) {
+            setStatus("⚠  Stats are still loading — filter not applied yet.");
+            return;
+        } else {
+            try {
+                statFilter  = index.parse(text);
+                filterIndex = index;
+                box.setStyle(FILTER_STYLE + "-fx-border-color: #2a3f55;");
+                setStatus(statFilter.cardinality() + " players match the filter.");
+            } catch (IllegalArgumentException ex) {
+                box.setStyle(FILTER_STYLE + "-fx-border-color: #c04040;");
+                setStatus("⚠  " + ex.getMessage());
+                return;
+            }
         }
+        refreshPlayerList(null);
     }
 
     // ── Refresh ───────────────────────────────────────────────────────────
@@ -295,11 +348,13 @@ public class TeamBuilderScreen {
         playerListView.setUserData(q);
 
         List<PlayerRecord> results = db.search(q);
-        playerListView.getItems().clear();
+        // Store only the canonical name — display is handled by PlayerCell.
+        // One setAll, so the list view sees a single change per keystroke
+        List<String> names = new ArrayList<>(results.size());
         for (PlayerRecord p : results) {
-            // Store only the canonical name — display is handled by PlayerCell
-            playerListView.getItems().add(p.getName());
+            if (statFilter == null || filterIndex.contains(statFilter, p.getName())) names.add(p.getName());
         }
+        playerListView.getItems().setAll(names);
     }
 
     private void refreshXISlots() {
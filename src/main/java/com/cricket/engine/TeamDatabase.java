@@ -2,19 +2,40 @@ package com.cricket.engine;
 
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.opencsv.CSVReader;
 
 /**
  * Loads all players from playerRoles.csv and provides search/filter access.
  * Singleton-style — load once, reuse everywhere.
+ *
+ * load() builds the lookup structures once: a name → record map for exact
+ * lookup, and a trigram → player-ids inverted index over lowercased names
+ * for substring search. A query of three or more characters only checks
+ * the players on its rarest trigram's posting list. The last query's
+ * matches are kept, so typing further (a query containing the previous
+ * one) only re-checks those.
  */
 public class TeamDatabase {
 
     private final List<PlayerRecord> allPlayers = new ArrayList<>();
+    private final Map<String, PlayerRecord> byName = new HashMap<>();
+    private String[] lowerNames = new String[0];        // parallel to allPlayers
+    private Map<Long, int[]> trigrams = new HashMap<>(); // sorted player ids
+
+    // Stat filters; null until stats have loaded
+    private volatile PlayerQueryIndex queryIndex;
+    private final CompletableFuture<PlayerQueryIndex> queryIndexReady = new CompletableFuture<>();
+
+    // Previous query and its matching ids, for narrowing keystroke by keystroke
+    private String lastQuery;
+    private int[] lastMatches;
 
     public void load(String filePath) throws Exception {
         allPlayers.clear();
@@ -33,6 +54,40 @@ public class TeamDatabase {
         }
         // Sort alphabetically by name
         allPlayers.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+        buildIndex();
+    }
+
+    private synchronized void buildIndex() {
+        byName.clear();
+        lowerNames = new String[allPlayers.size()];
+        Map<Long, int[]> postings = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        for (int id = 0; id < allPlayers.size(); id++) {
+            String name = allPlayers.get(id).getName();
+            byName.putIfAbsent(name, allPlayers.get(id));
+            String lower = name.toLowerCase();
+            lowerNames[id] = lower;
+            for (int i = 0; i + 3 <= lower.length(); i++) {
+                long key = trigram(lower, i);
+                int n = sizes.getOrDefault(key, 0);
+                int[] list = postings.get(key);
+                if (n > 0 && list[n - 1] == id) continue;   // repeated within this name
+                if (list == null || n == list.length) {
+                    list = list == null ? new int[4] : Arrays.copyOf(list, n * 2);
+                    postings.put(key, list);
+                }
+                list[n] = id;
+                sizes.put(key, n + 1);
+            }
+        }
+        postings.replaceAll((key, list) -> Arrays.copyOf(list, sizes.get(key)));
+        trigrams = postings;
+        lastQuery = null;
+        lastMatches = null;
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
     }
 
     /** All players, sorted A-Z. */
@@ -42,21 +97,85 @@ public class TeamDatabase {
 
     /**
      * Search by name — case-insensitive, matches anywhere in name.
-     * Returns all players if query is blank.
+     * Returns all players if query is blank. Ranked: exact name, then
+     * names starting with the query, then a word starting with it, then
+     * any other match; A-Z within each group.
      */
     public List<PlayerRecord> search(String query) {
         if (query == null || query.isBlank()) return getAll();
         String q = query.trim().toLowerCase();
-        return allPlayers.stream()
-                .filter(p -> p.getName().toLowerCase().contains(q))
-                .collect(Collectors.toList());
+        int[] ids = matches(q);
+
+        long[] keyed = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            keyed[i] = ((long) rank(lowerNames[ids[i]], q) << 32) | ids[i];
+        }
+        Arrays.sort(keyed);
+        List<PlayerRecord> out = new ArrayList<>(keyed.length);
+        for (long k : keyed) out.add(allPlayers.get((int) k));
+        return out;
+    }
+
+    /** Ids whose lowercased name contains q, ascending. */
+    private synchronized int[] matches(String q) {
+        int[] candidates = null;                    // null = everyone
+        if (lastQuery != null && q.contains(lastQuery)) {
+            candidates = lastMatches;
+        } else if (q.length() >= 3) {
+            candidates = rarestTrigram(q);
+        }
+
+        int n = candidates == null ? lowerNames.length : candidates.length;
+        int[] out = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int id = candidates == null ? i : candidates[i];
+            if (lowerNames[id].contains(q)) out[count++] = id;
+        }
+        lastQuery = q;
+        lastMatches = Arrays.copyOf(out, count);
+        return lastMatches;
+    }
+
+    /** Shortest posting list among q's trigrams — every match is on it. */
+    private int[] rarestTrigram(String q) {
+        int[] best = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            int[] list = trigrams.get(trigram(q, i));
+            if (list == null) return new int[0];
+            if (best == null || list.length < best.length) best = list;
+        }
+        return best;
+    }
+
+    private static int rank(String name, String q) {
+        if (name.equals(q)) return 0;
+        if (name.startsWith(q)) return 1;
+        for (int i = name.indexOf(q); i > 0; i = name.indexOf(q, i + 1)) {
+            if (name.charAt(i - 1) == ' ') return 2;
+        }
+        return 3;
+    }
+
+    /** Builds the stat-filter index over getAll() once stats are available. */
+    public void attachStats(com.cricket.StatsBundle bundle) {
+        queryIndex = PlayerQueryIndex.build(getAll(), bundle);
+        queryIndexReady.complete(queryIndex);
     }
 
+    /** Stats will never load; fails queryIndexReady(). */
+    public void statsFailed(Throwable error) {
+        queryIndexReady.completeExceptionally(error);
+    }
+
+    /** Null until attachStats() has run. */
+    public PlayerQueryIndex getQueryIndex() { return queryIndex; }
+
+    /** Completes on the loading thread when the index is attached, or fails if stats never load. */
+    public CompletableFuture<PlayerQueryIndex> queryIndexReady() { return queryIndexReady; }
+
     public PlayerRecord findByName(String name) {
-        return allPlayers.stream()
-                .filter(p -> p.getName().equals(name))
-                .findFirst()
-                .orElse(null);
+        return byName.get(name);
     }
 
     public int size() { return allPlayers.size(); }
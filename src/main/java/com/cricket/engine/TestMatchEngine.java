@@ -1,5 +1,6 @@
 package com.cricket.engine;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class TestMatchEngine {
@@ -10,7 +11,7 @@ public class TestMatchEngine {
 
     private int matchBalls = 0;
     private static final int MAX_MATCH_BALLS = 450 * 6;
-    private final java.util.Random random = new java.util.Random();
+    private final java.util.Random random;
 
     // Toss result — set during simulateMatch, used by scorecard
     private String tossWinner   = "";
@@ -20,11 +21,25 @@ public class TestMatchEngine {
     private BowlingPlan teamABowlingPlan = null;
     private BowlingPlan teamBBowlingPlan = null;
 
+    // Completed innings in order, with the batting side of each, and the
+    // result line — kept for headless callers that write their own output
+    private final List<InningsResult> innings = new ArrayList<>();
+    private final List<String> battingTeams   = new ArrayList<>();
+    private String result = "";
+
     public TestMatchEngine(InningsEngine inningsEngine,
                            PitchProfile basePitch) {
+        this(inningsEngine, basePitch, new java.util.Random());
+    }
+
+    /** Seeded variant — toss and declarations draw from the given Random. */
+    public TestMatchEngine(InningsEngine inningsEngine,
+                           PitchProfile basePitch,
+                           java.util.Random random) {
         this.inningsEngine = inningsEngine;
-        this.declarationEngine = new DeclarationEngine();
+        this.declarationEngine = new DeclarationEngine(random);
         this.pitch = new DeterioratingPitch(basePitch);
+        this.random = random;
     }
 
     // ── Called from GUI via MatchLauncher ────────────────────────────────────
@@ -59,7 +74,7 @@ public class TestMatchEngine {
 
         // 1st Innings: Team A bat, Team B bowl
         System.out.println("\n--- 1st Innings: " + teamAName + " ---");
-        InningsResult aFirst = playInnings(teamA, teamB, null, 1, 0, teamBBowlingPlan);
+        InningsResult aFirst = playInnings(teamAName, teamA, teamB, null, 1, 0, teamBBowlingPlan);
         a1 = aFirst.getRuns();
         System.out.println(aFirst);
         if (aFirst.isDeclared()) System.out.println(teamAName + " have declared!");
@@ -68,7 +83,7 @@ public class TestMatchEngine {
 
         // 2nd Innings: Team B bat, Team A bowl
         System.out.println("\n--- 2nd Innings: " + teamBName + " ---");
-        InningsResult bFirst = playInnings(teamB, teamA, null, 2, -a1, teamABowlingPlan);
+        InningsResult bFirst = playInnings(teamBName, teamB, teamA, null, 2, -a1, teamABowlingPlan);
         b1 = bFirst.getRuns();
         System.out.println(bFirst);
         if (bFirst.isDeclared()) System.out.println(teamBName + " have declared!");
@@ -85,7 +100,7 @@ public class TestMatchEngine {
 
             // 3rd Innings: Team B follow on, Team A bowl
             System.out.println("\n--- 3rd Innings: " + teamBName + " (following on) ---");
-            InningsResult bSecond = playInnings(teamB, teamA, null, 3,
+            InningsResult bSecond = playInnings(teamBName, teamB, teamA, null, 3,
                     b1 - a1, teamABowlingPlan);
             b2 = bSecond.getRuns();
             System.out.println(bSecond);
@@ -98,7 +113,7 @@ public class TestMatchEngine {
                 int target4th = bLead + 1;
                 System.out.println("\n--- 4th Innings: " + teamAName
                         + " (Chasing " + target4th + ") ---");
-                InningsResult aSecond = playInnings(teamA, teamB, target4th,
+                InningsResult aSecond = playInnings(teamAName, teamA, teamB, target4th,
                         4, 0, teamBBowlingPlan);
                 System.out.println(aSecond);
                 printChaseResult(aSecond, target4th, teamAName, teamBName);
@@ -107,14 +122,15 @@ public class TestMatchEngine {
 
             int target = (a1 - b1 - b2) + 1;
             if (target <= 0) {
-                System.out.println("\n" + teamAName + " wins by an innings and "
-                        + Math.abs(target - 1) + " runs!");
+                result = teamAName + " wins by an innings and "
+                        + Math.abs(target - 1) + " runs!";
+                System.out.println("\n" + result);
                 return;
             }
 
             System.out.println("\n--- 4th Innings: " + teamAName
                     + " (Chasing " + target + ") ---");
-            InningsResult aSecond = playInnings(teamA, teamB, target, 4, 0,
+            InningsResult aSecond = playInnings(teamAName, teamA, teamB, target, 4, 0,
                     teamBBowlingPlan);
             System.out.println(aSecond);
             printChaseResult(aSecond, target, teamAName, teamBName);
@@ -123,7 +139,7 @@ public class TestMatchEngine {
 
             // 3rd Innings: Team A bat, Team B bowl
             System.out.println("\n--- 3rd Innings: " + teamAName + " ---");
-            InningsResult aSecond = playInnings(teamA, teamB, null, 3,
+            InningsResult aSecond = playInnings(teamAName, teamA, teamB, null, 3,
                     a1 - b1, teamBBowlingPlan);
             a2 = aSecond.getRuns();
             System.out.println(aSecond);
@@ -135,7 +151,7 @@ public class TestMatchEngine {
 
             System.out.println("\n--- 4th Innings: " + teamBName
                     + " (Chasing " + target + ") ---");
-            InningsResult bSecond = playInnings(teamB, teamA, target, 4, 0,
+            InningsResult bSecond = playInnings(teamBName, teamB, teamA, target, 4, 0,
                     teamABowlingPlan);
             b2 = bSecond.getRuns();
             System.out.println(bSecond);
@@ -144,7 +160,8 @@ public class TestMatchEngine {
     }
 
     // ── Internal innings runner ──────────────────────────────────────────────
-    private InningsResult playInnings(List<String> batting,
+    private InningsResult playInnings(String battingName,
+                                      List<String> batting,
                                       List<String> bowling,
                                       Integer target,
                                       int inningsNumber,
@@ -172,12 +189,15 @@ public class TestMatchEngine {
 
         matchBalls += result.getBalls();
         pitch.deteriorate();
+        innings.add(result);
+        battingTeams.add(battingName);
         return result;
     }
 
     private boolean timeExpired() {
         if (matchBalls >= MAX_MATCH_BALLS) {
-            System.out.println("\nMatch Drawn (time expired)");
+            result = "Match Drawn (time expired)";
+            System.out.println("\n" + result);
             return true;
         }
         return false;
@@ -190,12 +210,20 @@ public class TestMatchEngine {
         int wickets = result.getWickets();
 
         if (runs >= target) {
-            System.out.println(chasingTeam + " wins by " + (10 - wickets) + " wickets");
+            this.result = chasingTeam + " wins by " + (10 - wickets) + " wickets";
         } else if (matchBalls >= MAX_MATCH_BALLS) {
-            System.out.println("Match Drawn");
+            this.result = "Match Drawn";
         } else {
-            System.out.println(defendingTeam + " wins by " + (target - runs - 1) + " runs");
+            this.result = defendingTeam + " wins by " + (target - runs - 1) + " runs";
         }
+        System.out.println(this.result);
         System.out.println("============================");
     }
-}
\ No newline at end of file
+
+    // ── Results (valid once simulateMatch returns) ───────────────────────────
+    public List<InningsResult> getInnings()       { return innings; }
+    public List<String>        getBattingTeams()  { return battingTeams; }
+    public String              getResult()        { return result; }
+    public String              getTossWinner()    { return tossWinner; }
+    public String              getTossDecision()  { return tossDecision; }
+}
@@ -0,0 +1,201 @@
+package com.cricket.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import com.cricket.StatsBundle;
+
+/**
+ * Paired "what if" evaluation of single-player substitutions.
+ *
+ * Every variant — the base config and each swap — is played on the same
+ * seeded simulations: simulation i of every variant draws from
+ * MonteCarloEngine.simSeed(seed, i). The pairing only helps up to the
+ * first ball where a variant plays differently; after that the shared
+ * Random stream is consumed differently and the two runs drift apart. So
+ * how much smaller the paired error is than an unpaired comparison
+ * depends on the swap, and each Outcome carries the standard error
+ * measured from its own pairs rather than an assumed one.
+ *
+ * A simulation that fails (MonteCarloEngine drops it, total 0) is left
+ * out of every comparison it belongs to — from both the variant's and
+ * the base's side — instead of being counted as a draw.
+ *
+ * Cost: every variant is a full match per simulation index, so N swaps
+ * over S sims play (1 + N) * S matches — 20 swaps cost 21 plain runs,
+ * not two. No work is shared between variants: a match cannot be forked
+ * at the ball where a swap first matters, and resuming from an innings
+ * boundary (as LookaheadCaptain does) restarts on a fresh Random stream,
+ * which would break the pairing. What the pairing buys instead is fewer
+ * sims for the same error. On the sample Alpha/Beta config the paired
+ * standard error ran 1.4-2.2 points at 300 sims, against about 4 points
+ * for two independent runs of the same size, so each unpaired comparison
+ * would need roughly 3-8x the sims to match it.
+ *
+ * Simulations are spread across cores; within one simulation index the
+ * variants are played back to back. One matchup table covering every
+ * player involved is compiled once and shared.
+ */
+public class WhatIfAnalyzer {
+
+    private static final byte DRAW   = 0;
+    private static final byte A_WINS = 1;
+    private static final byte B_WINS = 2;
+    private static final byte FAILED = 3;
+
+    /** One substitution: `out` leaves an XI, `in` takes the same batting position. */
+    public static class Swap {
+        public final String label;
+        public final boolean teamA;
+        public final String out;
+        public final String in;
+        public final BowlingPlan plan;   // replacement plan for that team, or null
+
+        public Swap(boolean teamA, String out, String in, BowlingPlan plan) {
+            this.teamA = teamA;
+            this.out   = out;
+            this.in    = in;
+            this.plan  = plan;
+            this.label = in + " for " + out;
+        }
+
+        public Swap(boolean teamA, String out, String in) {
+            this(teamA, out, in, null);
+        }
+    }
+
+    /** Paired result for one swap, from the swapping team's point of view. */
+    public static class Outcome {
+        public final Swap swap;
+        public final double winProb;
+        public final double drawProb;
+        public final double winDelta;          // winProb minus the base's
+        public final double winDeltaStdError;  // paired standard error of winDelta
+        public final int pairs;                // simulations where both variant and base completed
+
+        Outcome(Swap swap, double winProb, double drawProb, double winDelta,
+                double winDeltaStdError, int pairs) {
+            this.swap             = swap;
+            this.winProb          = winProb;
+            this.drawProb         = drawProb;
+            this.winDelta         = winDelta;
+            this.winDeltaStdError = winDeltaStdError;
+            this.pairs            = pairs;
+        }
+    }
+
+    private final StatsBundle bundle;
+    private final MatchConfig base;
+
+    private int sims = 1000;
+    private long seed = 35L;
+
+    public WhatIfAnalyzer(StatsBundle bundle, MatchConfig base) {
+        this.bundle = bundle;
+        this.base   = base;
+    }
+
+    public WhatIfAnalyzer sims(int sims)   { this.sims = sims; return this; }
+    public WhatIfAnalyzer seed(long seed)  { this.seed = seed; return this; }
+
+    /** One Outcome per swap, in order. progress receives the simulations completed. */
+    public List<Outcome> evaluate(List<Swap> swaps, Consumer<Integer> progress) {
+        List<MatchConfig> variants = new ArrayList<>();
+        variants.add(base);
+        for (Swap s : swaps) variants.add(apply(base, s));
+
+        Set<String> players = new LinkedHashSet<>();
+        for (MatchConfig c : variants) {
+            players.addAll(c.teamAXI);
+            players.addAll(c.teamBXI);
+        }
+        MatchupTable matchups = MatchupTable.compile(bundle, players);
+        List<LookaheadCaptain> captains = new ArrayList<>();
+        for (MatchConfig c : variants) captains.add(MonteCarloEngine.newCaptain(c, bundle, matchups, seed));
+
+        // outcomes[v][i]: result of simulation i under variant v
+        byte[][] outcomes = new byte[variants.size()][sims];
+        AtomicInteger done = new AtomicInteger();
+        IntStream.range(0, sims).parallel().forEach(i -> {
+            for (int v = 0; v < variants.size(); v++) {
+                MonteCarloEngine.SimResult r = MonteCarloEngine.simulateRange(
+                        variants.get(v), bundle, matchups, seed, captains.get(v), i, i + 1);
+                outcomes[v][i] = r.total == 0 ? FAILED
+                        : r.teamAWins > 0 ? A_WINS : r.teamBWins > 0 ? B_WINS : DRAW;
+            }
+            int d = done.incrementAndGet();
+            if (progress != null && d % 50 == 0) progress.accept(d);
+        });
+
+        List<Outcome> results = new ArrayList<>();
+        for (int s = 0; s < swaps.size(); s++) {
+            Swap swap = swaps.get(s);
+            byte win = swap.teamA ? A_WINS : B_WINS;
+            results.add(paired(swap, outcomes[s + 1], outcomes[0], win));
+        }
+        return results;
+    }
+
+    // ── Variants ──────────────────────────────────────────────────────────
+
+    /**
+     * Copies the base with the swap applied. Without an explicit plan the
+     * incoming player takes over the outgoing player's overs, if any.
+     */
+    static MatchConfig apply(MatchConfig base, Swap swap) {
+        MatchConfig c = base.copy();
+        List<String> xi = new ArrayList<>(swap.teamA ? c.teamAXI : c.teamBXI);
+        int pos = xi.indexOf(swap.out);
+        if (pos < 0) throw new IllegalArgumentException(swap.out + " is not in the XI");
+        if (xi.contains(swap.in)) throw new IllegalArgumentException(swap.in + " is already in the XI");
+        xi.set(pos, swap.in);
+
+        BowlingPlan plan = swap.plan;
+        if (plan == null) {
+            BowlingPlan current = swap.teamA ? c.teamABowlingPlan : c.teamBBowlingPlan;
+            plan = current == null ? null : rename(current, swap.out, swap.in);
+        }
+        if (swap.teamA) {
+            c.teamAXI = xi;
+            c.teamABowlingPlan = plan;
+        } else {
+            c.teamBXI = xi;
+            c.teamBBowlingPlan = plan;
+        }
+        return c;
+    }
+
+    private static BowlingPlan rename(BowlingPlan plan, String from, String to) {
+        BowlingPlan p = new BowlingPlan();
+        for (int over = 1; over <= 90; over++) {
+            String b = plan.getAssignment(over);
+            if (b != null) p.assign(over, b.equals(from) ? to : b);
+        }
+        return p;
+    }
+
+    // ── Statistics ────────────────────────────────────────────────────────
+
+    private static Outcome paired(Swap swap, byte[] variant, byte[] base, byte win) {
+        int n = 0;
+        double wins = 0, draws = 0, sum = 0, sumSq = 0;
+        for (int i = 0; i < variant.length; i++) {
+            if (variant[i] == FAILED || base[i] == FAILED) continue;
+            n++;
+            int d = (variant[i] == win ? 1 : 0) - (base[i] == win ? 1 : 0);
+            if (variant[i] == win)  wins++;
+            if (variant[i] == DRAW) draws++;
+            sum   += d;
+            sumSq += d * d;
+        }
+        if (n == 0) return new Outcome(swap, 0, 0, 0, 0, 0);
+        double mean = sum / n;
+        double se = n > 1 ? Math.sqrt(Math.max(0, (sumSq - n * mean * mean) / (n - 1)) / n) : 0;
+        return new Outcome(swap, wins / n, draws / n, mean, se, n);
+    }
+}